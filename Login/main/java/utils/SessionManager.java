@@ -1,13 +1,89 @@
 package utils;
 
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-based sessions: each login gets its own token, so many users can be
+ * logged in at once. The desktop's own login is kept as the "current" session.
+ * Sessions expire after 30 idle minutes or 12 hours, checked on lookup; the
+ * module builds on its own, so this is a plain token map rather than the main
+ * application's SessionStore.
+ */
 public class SessionManager {
-	private static String currentUser;
+	private static final long IDLE_MILLIS = TimeUnit.MINUTES.toMillis(30);
+	private static final long MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(12);
+
+	private static final Map<String, Session> sessions = new ConcurrentHashMap<>();
+	private static final SecureRandom random = new SecureRandom();
+	private static volatile String currentToken;
+
+	private static class Session {
+		final String user;
+		final long createdAt;
+		volatile long lastAccess;
+
+		Session(String user, long now) {
+			this.user = user;
+			this.createdAt = now;
+			this.lastAccess = now;
+		}
+
+		boolean isExpired(long now) {
+			return now - lastAccess > IDLE_MILLIS || now - createdAt > MAX_AGE_MILLIS;
+		}
+	}
+
+	/**
+	 * Start a session for a user and return its token
+	 */
+	public static String login(String user) {
+		long now = System.currentTimeMillis();
+		// Expired sessions are only found on lookup, so clear them out as new ones arrive
+		sessions.values().removeIf(session -> session.isExpired(now));
+
+		byte[] bytes = new byte[32];
+		random.nextBytes(bytes);
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		sessions.put(token, new Session(user, now));
+		return token;
+	}
+
+	/**
+	 * The user of a live session, or null if the token is unknown or expired
+	 */
+	public static String getUser(String token) {
+		if (token == null) {
+			return null;
+		}
+		Session session = sessions.get(token);
+		if (session == null) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		if (session.isExpired(now)) {
+			sessions.remove(token, session);
+			return null;
+		}
+		session.lastAccess = now;
+		return session.user;
+	}
+
+	public static void logout(String token) {
+		if (token != null) {
+			sessions.remove(token);
+		}
+	}
 
 	public static void setCurrentUser(String user) {
-		currentUser = user;
+		logout(currentToken);
+		currentToken = user == null ? null : login(user);
 	}
 
 	public static String getCurrentUser() {
-		return currentUser;
+		return getUser(currentToken);
 	}
 }
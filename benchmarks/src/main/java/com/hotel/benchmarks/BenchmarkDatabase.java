@@ -0,0 +1,237 @@
+package com.hotel.benchmarks;
+
+import com.hotel.database.ConnectionPool;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory H2 database (MySQL mode) with the hotel schema and synthetic data
+ *
+ * Every room gets a back-to-back sequence of stays of 1-5 nights with gaps of
+ * 0-3 nights, centred on today: stays that ended are CHECKED_OUT, the one in
+ * progress is CHECKED_IN, later ones are CONFIRMED, and about 5% are CANCELLED.
+ * Active stays also fill the room_nights ledger. Data depends only on the seed.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+    
+    private static final AtomicInteger DATABASE_COUNT = new AtomicInteger();
+    private static final String[] ROOM_TYPES = {"Single", "Double", "Deluxe", "Suite", "Presidential"};
+    private static final double[] ROOM_PRICES = {1500, 2500, 4000, 7000, 12000};
+    private static final int BATCH_SIZE = 1000;
+    
+    private static final String[] SCHEMA = {
+        "CREATE TABLE rooms (" +
+        "room_id INT PRIMARY KEY, room_number VARCHAR(10) UNIQUE NOT NULL, room_type VARCHAR(50) NOT NULL, " +
+        "price_per_night DECIMAL(10,2) NOT NULL, capacity INT NOT NULL, amenities TEXT, " +
+        "amenity_mask INT NOT NULL DEFAULT 0, status VARCHAR(20) DEFAULT 'AVAILABLE', floor INT NOT NULL DEFAULT 1)",
+        "CREATE TABLE bookings (" +
+        "booking_id INT AUTO_INCREMENT PRIMARY KEY, customer_id INT, room_id INT, " +
+        "customer_name VARCHAR(100) NOT NULL, customer_email VARCHAR(100) NOT NULL, customer_phone VARCHAR(15) NOT NULL, " +
+        "check_in_date DATE NOT NULL, check_out_date DATE NOT NULL, status VARCHAR(20) DEFAULT 'CONFIRMED', " +
+        "total_amount DECIMAL(10,2) NOT NULL, booking_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP, special_requests TEXT, " +
+        "FOREIGN KEY (room_id) REFERENCES rooms(room_id))",
+        "CREATE TABLE room_nights (" +
+        "room_id INT NOT NULL, night DATE NOT NULL, booking_id INT NOT NULL, PRIMARY KEY (room_id, night), " +
+        "FOREIGN KEY (room_id) REFERENCES rooms(room_id), " +
+        "FOREIGN KEY (booking_id) REFERENCES bookings(booking_id) ON DELETE CASCADE)",
+        "CREATE TABLE users (" +
+        "user_id INT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(50) UNIQUE NOT NULL, password VARCHAR(255) NOT NULL, " +
+        "role VARCHAR(20) NOT NULL, full_name VARCHAR(100), email VARCHAR(100), phone VARCHAR(15), " +
+        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+        "CREATE INDEX idx_bookings_dates ON bookings(check_in_date, check_out_date)",
+        "CREATE INDEX idx_bookings_status ON bookings(status, check_in_date, booking_id)",
+        "CREATE INDEX idx_bookings_page ON bookings(check_in_date, booking_id)",
+        "CREATE INDEX idx_bookings_room ON bookings(room_id)",
+        "CREATE INDEX idx_bookings_customer_name ON bookings(customer_name)",
+        "CREATE INDEX idx_room_nights_booking ON room_nights(booking_id)"
+    };
+    
+    private final ConnectionPool dataSource;
+    private final LocalDate today;
+    private final int rooms;
+    private int bookings;
+    
+    private BenchmarkDatabase(int rooms) {
+        String url = "jdbc:h2:mem:hotel" + DATABASE_COUNT.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        this.dataSource = new ConnectionPool(url, "sa", "", 1, 8);
+        this.today = LocalDate.now();
+        this.rooms = rooms;
+    }
+    
+    /**
+     * Create and seed a database
+     * @param rooms number of rooms, numbered from 101
+     * @param bookings approximate number of bookings, spread evenly over the rooms
+     * @param seed random seed; the same arguments always produce the same data
+     */
+    public static BenchmarkDatabase create(int rooms, int bookings, long seed) throws SQLException {
+        BenchmarkDatabase database = new BenchmarkDatabase(rooms);
+        try (Connection connection = database.dataSource.getConnection()) {
+            try (Statement stmt = connection.createStatement()) {
+                for (String ddl : SCHEMA) {
+                    stmt.execute(ddl);
+                }
+            }
+            connection.setAutoCommit(false);
+            SplittableRandom random = new SplittableRandom(seed);
+            database.insertRooms(connection, random);
+            database.insertBookings(connection, random, Math.max(1, bookings / rooms));
+            try (Statement stmt = connection.createStatement()) {
+                // IDs were given explicitly, so move the generator past them
+                stmt.execute("ALTER TABLE bookings ALTER COLUMN booking_id RESTART WITH " + (database.bookings + 1));
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+        return database;
+    }
+    
+    public ConnectionPool getDataSource() {
+        return dataSource;
+    }
+    
+    /**
+     * Add staff accounts named user1 .. userN that all share one stored password hash
+     */
+    public void addUsers(int count, String passwordHash) throws SQLException {
+        String sql = "INSERT INTO users (username, password, role, full_name, email, phone) VALUES (?, ?, 'ADMIN', ?, ?, ?)";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            for (int i = 1; i <= count; i++) {
+                stmt.setString(1, "user" + i);
+                stmt.setString(2, passwordHash);
+                stmt.setString(3, "Staff Member " + i);
+                stmt.setString(4, "user" + i + "@hotel.com");
+                stmt.setString(5, String.format("98%08d", i));
+                stmt.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+    }
+    
+    /**
+     * First room number; rooms are numbered consecutively from here
+     */
+    public int getFirstRoomId() {
+        return 101;
+    }
+    
+    public int getRoomCount() {
+        return rooms;
+    }
+    
+    public int getBookingCount() {
+        return bookings;
+    }
+    
+    public LocalDate getToday() {
+        return today;
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        } finally {
+            dataSource.shutdown();
+        }
+    }
+    
+    private void insertRooms(Connection connection, SplittableRandom random) throws SQLException {
+        String sql = "INSERT INTO rooms (room_id, room_number, room_type, price_per_night, capacity, amenities, " +
+                     "amenity_mask, status, floor) VALUES (?, ?, ?, ?, ?, ?, ?, 'AVAILABLE', ?)";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < rooms; i++) {
+                int roomId = getFirstRoomId() + i;
+                int type = random.nextInt(ROOM_TYPES.length);
+                stmt.setInt(1, roomId);
+                stmt.setString(2, "R" + roomId);
+                stmt.setString(3, ROOM_TYPES[type]);
+                stmt.setDouble(4, ROOM_PRICES[type]);
+                stmt.setInt(5, type + 1);
+                stmt.setString(6, "AC, TV, WiFi");
+                stmt.setInt(7, 7);
+                stmt.setInt(8, roomId / 100);
+                stmt.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    private void insertBookings(Connection connection, SplittableRandom random, int perRoom) throws SQLException {
+        String insertBooking = "INSERT INTO bookings (booking_id, customer_id, room_id, customer_name, customer_email, " +
+                               "customer_phone, check_in_date, check_out_date, status, total_amount) " +
+                               "VALUES (?, NULL, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String insertNight = "INSERT INTO room_nights (room_id, night, booking_id) VALUES (?, ?, ?)";
+        // Average stay plus gap is 4.5 nights; start far enough back that half of the stays are past
+        int lookBackDays = (int) (perRoom * 4.5 / 2);
+        
+        try (PreparedStatement bookingStmt = connection.prepareStatement(insertBooking);
+             PreparedStatement nightStmt = connection.prepareStatement(insertNight)) {
+            int pending = 0;
+            for (int i = 0; i < rooms; i++) {
+                int roomId = getFirstRoomId() + i;
+                LocalDate checkIn = today.minusDays(lookBackDays).plusDays(random.nextInt(4));
+                for (int n = 0; n < perRoom; n++) {
+                    int bookingId = ++bookings;
+                    int nights = 1 + random.nextInt(5);
+                    LocalDate checkOut = checkIn.plusDays(nights);
+                    String status;
+                    if (random.nextInt(20) == 0) {
+                        status = "CANCELLED";
+                    } else if (!checkOut.isAfter(today)) {
+                        status = "CHECKED_OUT";
+                    } else if (checkIn.isAfter(today)) {
+                        status = "CONFIRMED";
+                    } else {
+                        status = "CHECKED_IN";
+                    }
+                    
+                    bookingStmt.setInt(1, bookingId);
+                    bookingStmt.setInt(2, roomId);
+                    bookingStmt.setString(3, "Guest " + bookingId);
+                    bookingStmt.setString(4, "guest" + bookingId + "@example.com");
+                    bookingStmt.setString(5, String.valueOf(9000000000L + bookingId));
+                    bookingStmt.setDate(6, Date.valueOf(checkIn));
+                    bookingStmt.setDate(7, Date.valueOf(checkOut));
+                    bookingStmt.setString(8, status);
+                    bookingStmt.setDouble(9, nights * 2500.0);
+                    bookingStmt.addBatch();
+                    
+                    if (status.equals("CONFIRMED") || status.equals("CHECKED_IN")) {
+                        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+                            nightStmt.setInt(1, roomId);
+                            nightStmt.setDate(2, Date.valueOf(night));
+                            nightStmt.setInt(3, bookingId);
+                            nightStmt.addBatch();
+                        }
+                    }
+                    if (++pending == BATCH_SIZE) {
+                        bookingStmt.executeBatch();
+                        nightStmt.executeBatch();
+                        pending = 0;
+                    }
+                    checkIn = checkOut.plusDays(random.nextInt(4));
+                }
+            }
+            bookingStmt.executeBatch();
+            nightStmt.executeBatch();
+        }
+    }
+}
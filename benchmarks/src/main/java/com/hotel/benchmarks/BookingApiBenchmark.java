@@ -0,0 +1,184 @@
+package com.hotel.benchmarks;
+
+import com.hotel.api.BookingApiServer;
+import com.hotel.dao.JdbcRoomDAO;
+import com.hotel.database.UnifiedDatabaseConnection;
+import com.hotel.managers.BookingManager;
+import com.hotel.services.AuthenticationService;
+import com.hotel.services.LoginRateLimiter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Requests per second through BookingApiServer against a seeded H2 database
+ *
+ * The server listens on loopback in the benchmark JVM and sixteen threads call
+ * it over keep-alive connections with java.net.http.HttpClient, so the score
+ * includes HTTP parsing, JSON streaming and the connection pool, with the
+ * client's own cost on the same machine.
+ *
+ * - health: no database, the cost of the HTTP round trip alone
+ * - roomLookup: one room from the RoomDAO, still no database
+ * - availability: free rooms for a random 1-7 night stay in the next 3 weeks
+ * - searchBookings: up to 20 bookings matching a guest-name prefix
+ * - bookingsPage: the first page of 100 bookings, the largest response
+ * - createAndCancel: a booking far in the future, then its cancellation;
+ *   a collision with another thread comes back as 409 and still counts
+ *
+ * The server's TCP_NODELAY switch is set for the fork, as BookingApiServer.main does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Threads(16)
+public class BookingApiBenchmark {
+    
+    private static final String PASSWORD = "pass123";
+    
+    @Param({"2000"})
+    public int rooms;
+    
+    @Param({"20000"})
+    public int bookings;
+    
+    private BenchmarkDatabase database;
+    private JdbcRoomDAO roomDAO;
+    private BookingApiServer server;
+    private HttpClient client;
+    private String baseUrl;
+    private String token;
+    private LocalDate today;
+    private PrintStream console;
+    
+    @Setup
+    public void setUp() throws SQLException, IOException, InterruptedException {
+        database = BenchmarkDatabase.create(rooms, bookings, 42);
+        database.addUsers(1, AuthenticationService.getPasswordHasher().hash(PASSWORD));
+        UnifiedDatabaseConnection.setDataSource(database.getDataSource());
+        LoginRateLimiter.Limit unlimited = new LoginRateLimiter.Limit(1_000_000, 1);
+        AuthenticationService.setRateLimiter(new LoginRateLimiter(unlimited, unlimited, 1));
+        // The services log logins and status changes
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        
+        roomDAO = new JdbcRoomDAO(database.getDataSource());
+        server = new BookingApiServer(new BookingManager(database.getDataSource()), roomDAO,
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 64);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        today = database.getToday();
+        
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/login"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"user1\",\"password\":\"" + PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String body = login.body();
+        int start = body.indexOf("\"token\":\"") + 9;
+        if (login.statusCode() != 200 || start < 9) {
+            throw new IllegalStateException("Login failed: " + login.statusCode() + " " + body);
+        }
+        token = body.substring(start, body.indexOf('"', start));
+    }
+    
+    @TearDown
+    public void tearDown() throws SQLException {
+        server.close();
+        roomDAO.close();
+        System.setOut(console);
+        database.close();
+    }
+    
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Authorization", "Bearer " + token)
+            .build();
+        return check(client.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+    
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Authorization", "Bearer " + token)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return check(client.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+    
+    private static HttpResponse<String> check(HttpResponse<String> response) {
+        if (response.statusCode() >= 400 && response.statusCode() != 409) {
+            throw new IllegalStateException(response.statusCode() + " " + response.body());
+        }
+        return response;
+    }
+    
+    private int randomRoom() {
+        return database.getFirstRoomId() + ThreadLocalRandom.current().nextInt(rooms);
+    }
+    
+    @Benchmark
+    public HttpResponse<String> health() throws IOException, InterruptedException {
+        return get("/api/health");
+    }
+    
+    @Benchmark
+    public HttpResponse<String> roomLookup() throws IOException, InterruptedException {
+        return get("/api/rooms/" + randomRoom());
+    }
+    
+    @Benchmark
+    public HttpResponse<String> availability() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = today.plusDays(random.nextInt(21));
+        LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+        return get("/api/availability?checkIn=" + checkIn + "&checkOut=" + checkOut);
+    }
+    
+    @Benchmark
+    public HttpResponse<String> searchBookings() throws IOException, InterruptedException {
+        return get("/api/bookings?limit=20&q=Guest%20" + (1 + ThreadLocalRandom.current().nextInt(bookings)));
+    }
+    
+    @Benchmark
+    public HttpResponse<String> bookingsPage() throws IOException, InterruptedException {
+        return get("/api/bookings?limit=100");
+    }
+    
+    @Benchmark
+    public HttpResponse<String> createAndCancel() throws IOException, InterruptedException {
+        LocalDate checkIn = today.plusDays(400 + ThreadLocalRandom.current().nextInt(3000));
+        HttpResponse<String> created = post("/api/bookings", "{\"roomId\":" + randomRoom()
+            + ",\"customerName\":\"Api Benchmark\",\"customerEmail\":\"api@example.com\",\"customerPhone\":\"9000000000\""
+            + ",\"checkIn\":\"" + checkIn + "\",\"checkOut\":\"" + checkIn.plusDays(2) + "\"}");
+        if (created.statusCode() != 201) {
+            return created;
+        }
+        String location = created.headers().firstValue("Location").orElseThrow();
+        return post(location + "/cancel", "");
+    }
+}
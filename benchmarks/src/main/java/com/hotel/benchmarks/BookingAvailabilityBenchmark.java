@@ -0,0 +1,105 @@
+package com.hotel.benchmarks;
+
+import com.hotel.managers.BookingManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BookingManager availability checks against a seeded H2 database
+ *
+ * - isRoomAvailable: answered from the per-room booking cache
+ * - isRoomAvailableCacheMiss: the room is evicted first, so its stays are re-read
+ * - availabilityGrid: grid for the horizon from the loaded availability index
+ * - availabilityGridColdLoad: a new manager, so the index is loaded from the database
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingAvailabilityBenchmark {
+    
+    private static final int QUERIES = 1024; // power of two, cycled through
+    
+    @Param({"200", "2000"})
+    public int rooms;
+    
+    @Param({"20000", "200000"})
+    public int bookings;
+    
+    @Param({"30", "90"})
+    public int horizonDays;
+    
+    private BenchmarkDatabase database;
+    private BookingManager manager;
+    private final int[] queryRooms = new int[QUERIES];
+    private final LocalDate[] queryCheckIns = new LocalDate[QUERIES];
+    private final LocalDate[] queryCheckOuts = new LocalDate[QUERIES];
+    private int next;
+    
+    @Setup
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.create(rooms, bookings, 42);
+        manager = newManager();
+        manager.getAvailabilityGrid();
+        
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < QUERIES; i++) {
+            queryRooms[i] = database.getFirstRoomId() + random.nextInt(rooms);
+            queryCheckIns[i] = database.getToday().plusDays(random.nextInt(Math.max(1, horizonDays - 5)));
+            queryCheckOuts[i] = queryCheckIns[i].plusDays(1 + random.nextInt(5));
+        }
+    }
+    
+    @TearDown
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+    
+    @Benchmark
+    public boolean isRoomAvailable() throws SQLException {
+        int i = next++ & (QUERIES - 1);
+        return manager.isRoomAvailable(queryRooms[i], queryCheckIns[i], queryCheckOuts[i]);
+    }
+    
+    @Benchmark
+    public boolean isRoomAvailableCacheMiss() throws SQLException {
+        int i = next++ & (QUERIES - 1);
+        manager.getRoomBookingsCache().invalidate(queryRooms[i]);
+        return manager.isRoomAvailable(queryRooms[i], queryCheckIns[i], queryCheckOuts[i]);
+    }
+    
+    @Benchmark
+    public Map<LocalDate, Set<Integer>> availabilityGrid() throws SQLException {
+        return manager.getAvailabilityGrid();
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<LocalDate, Set<Integer>> availabilityGridColdLoad() throws SQLException {
+        return newManager().getAvailabilityGrid();
+    }
+    
+    private BookingManager newManager() {
+        BookingManager bookingManager = new BookingManager(database.getDataSource());
+        bookingManager.setAvailabilityHorizonDays(horizonDays);
+        return bookingManager;
+    }
+}
@@ -0,0 +1,83 @@
+package com.hotel.benchmarks;
+
+import com.hotel.managers.BookingManager;
+import com.hotel.managers.BookingPage;
+import com.hotel.managers.SimpleBookingManager;
+import com.hotel.models.Booking;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Booking reads through JDBC and BookingRowMapper against a seeded H2 database
+ *
+ * - allBookings: the full table, i.e. the row-mapping loop over every booking
+ * - firstPage: the first keyset page the admin table shows
+ * - confirmedBookings: one status, served by idx_bookings_status
+ * - namePrefixSearch: SimpleBookingPanel's typeahead, a prefix LIKE on
+ *   idx_bookings_customer_name; sampled, so the report has p99 latency
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingQueryBenchmark {
+    
+    @Param({"2000"})
+    public int rooms;
+    
+    @Param({"20000", "200000"})
+    public int bookings;
+    
+    private BenchmarkDatabase database;
+    private BookingManager manager;
+    private SimpleBookingManager simpleManager;
+    
+    @Setup
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.create(rooms, bookings, 42);
+        manager = new BookingManager(database.getDataSource());
+        simpleManager = new SimpleBookingManager(database.getDataSource());
+    }
+    
+    @TearDown
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+    
+    @Benchmark
+    public List<Booking> allBookings() throws SQLException {
+        return manager.getAllBookings();
+    }
+    
+    @Benchmark
+    public BookingPage firstPage() throws SQLException {
+        return manager.getBookingsPage(null, BookingManager.DEFAULT_PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public List<Booking> confirmedBookings() throws SQLException {
+        return manager.getBookingsByStatus("CONFIRMED");
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public List<Booking> namePrefixSearch() {
+        return simpleManager.searchBookingsByNamePrefix("Guest " + (1 + ThreadLocalRandom.current().nextInt(bookings)), 20);
+    }
+}
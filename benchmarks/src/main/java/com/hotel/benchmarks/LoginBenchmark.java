@@ -0,0 +1,145 @@
+package com.hotel.benchmarks;
+
+import com.hotel.database.UnifiedDatabaseConnection;
+import com.hotel.models.User;
+import com.hotel.services.AuthenticationService;
+import com.hotel.services.LoginRateLimiter;
+import com.hotel.services.PasswordHasher;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Concurrent logins through AuthenticationService against a seeded H2 database
+ *
+ * Sixteen threads log in at once, as at a shift change; the score is logins per
+ * second for the whole group. Verification runs on the service's bounded pool,
+ * so the score is capped by hotel.auth.verifyThreads x (1 / hash time).
+ *
+ * - login: correct password for a random staff account
+ * - wrongPassword: same cost as login, nothing is cached for failures
+ * - unknownUser: answered from the negative cache, plus a dummy hash
+ * - usernameExists: the registration form's check, from the cache
+ * - verify: one PBKDF2 verification at each work factor, single-threaded
+ * - throttled: an attempt refused by an exhausted LoginRateLimiter, the
+ *   whole cost of a rejected brute-force guess
+ *
+ * The service's rate limiter is replaced by an effectively unlimited one so
+ * the login benchmarks measure verification rather than rejections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class LoginBenchmark {
+    
+    private static final String PASSWORD = "pass123";
+    
+    @Param({"200"})
+    public int users;
+    
+    private BenchmarkDatabase database;
+    private PrintStream console;
+    
+    @Setup
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.create(10, 10, 42);
+        database.addUsers(users, AuthenticationService.getPasswordHasher().hash(PASSWORD));
+        UnifiedDatabaseConnection.setDataSource(database.getDataSource());
+        LoginRateLimiter.Limit unlimited = new LoginRateLimiter.Limit(1_000_000, 1);
+        AuthenticationService.setRateLimiter(new LoginRateLimiter(unlimited, unlimited, 1));
+        // AuthenticationService logs every login
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+    
+    @TearDown
+    public void tearDown() throws SQLException {
+        System.setOut(console);
+        database.close();
+    }
+    
+    private String randomUser() {
+        return "user" + (1 + ThreadLocalRandom.current().nextInt(users));
+    }
+    
+    @Benchmark
+    public User login() {
+        return AuthenticationService.authenticate(randomUser(), PASSWORD);
+    }
+    
+    @Benchmark
+    public User wrongPassword() {
+        return AuthenticationService.authenticate(randomUser(), "wrong-password");
+    }
+    
+    @Benchmark
+    public User unknownUser() {
+        return AuthenticationService.authenticate("nobody", PASSWORD);
+    }
+    
+    @Benchmark
+    public boolean usernameExists() {
+        return AuthenticationService.usernameExists(randomUser());
+    }
+    
+    @State(Scope.Benchmark)
+    public static class HasherState {
+        
+        @Param({"100000", "310000", "600000"})
+        public int iterations;
+        
+        String hash;
+        PasswordHasher hasher;
+        
+        @Setup
+        public void setUp() {
+            hasher = new PasswordHasher(iterations);
+            hash = hasher.hash(PASSWORD);
+        }
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public boolean verify(HasherState state) {
+        return state.hasher.verify(PASSWORD, state.hash);
+    }
+    
+    @State(Scope.Benchmark)
+    public static class ThrottleState {
+        
+        LoginRateLimiter limiter;
+        
+        @Setup
+        public void setUp() {
+            limiter = new LoginRateLimiter(new LoginRateLimiter.Limit(5, 60_000),
+                                           new LoginRateLimiter.Limit(30, 2_000), 100_000);
+            while (limiter.tryAcquire("admin", "10.0.0.66") == 0) {
+                // drain both buckets
+            }
+        }
+    }
+    
+    @Benchmark
+    public long throttled(ThrottleState state) {
+        return state.limiter.tryAcquire("admin", "10.0.0.66");
+    }
+}
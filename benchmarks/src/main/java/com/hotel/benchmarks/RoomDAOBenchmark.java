@@ -0,0 +1,131 @@
+package com.hotel.benchmarks;
+
+import com.hotel.dao.RoomDAO;
+import com.hotel.dao.RoomQuery;
+import com.hotel.models.Amenity;
+import com.hotel.models.Room;
+import com.hotel.models.RoomType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * RoomDAO with its room-number, type, status, floor and price indexes
+ *
+ * - bulkImport: addRoom for every room into an empty DAO
+ * - findIndexed: "SUITE rooms on floors 3-5 up to 8000" through findRooms
+ * - findByScan: the same query as a filter over getAllRooms, for comparison
+ * - findByAmenities: rooms having both WIFI and AC, through the amenity mask index
+ * - updateRoom: replace one room, re-indexing it
+ * - lookup: getRoom by room number
+ * - deleteAndReAdd: remove one room from every index and add it back
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomDAOBenchmark {
+    
+    private static final String[] STATUSES = {"Available", "Occupied", "Maintenance", "Cleaning", "Out of Order"};
+    private static final int FLOORS = 50;
+    
+    @Param({"100000"})
+    public int rooms;
+    
+    private List<Room> roomList;
+    private RoomDAO dao;
+    private RoomQuery query;
+    private RoomQuery amenityQuery;
+    private int nextUpdate;
+    private int nextLookup;
+    private int nextDelete;
+    
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        roomList = new ArrayList<>(rooms);
+        for (int roomNo = 1; roomNo <= rooms; roomNo++) {
+            roomList.add(randomRoom(roomNo, random));
+        }
+        dao = new RoomDAO();
+        for (Room room : roomList) {
+            dao.addRoom(room);
+        }
+        query = new RoomQuery().type(RoomType.SUITE).floors(3, 5).maxPrice(8000);
+        amenityQuery = new RoomQuery().amenities(Amenity.WIFI, Amenity.AC);
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RoomDAO bulkImport() {
+        RoomDAO fresh = new RoomDAO();
+        for (Room room : roomList) {
+            fresh.addRoom(room);
+        }
+        return fresh;
+    }
+    
+    @Benchmark
+    public List<Room> findIndexed() {
+        return dao.findRooms(query);
+    }
+    
+    @Benchmark
+    public List<Room> findByScan() {
+        List<Room> result = new ArrayList<>();
+        for (Room room : dao.getAllRooms()) {
+            if (query.matches(room)) {
+                result.add(room);
+            }
+        }
+        return result;
+    }
+    
+    @Benchmark
+    public List<Room> findByAmenities() {
+        return dao.findRooms(amenityQuery);
+    }
+    
+    @Benchmark
+    public boolean updateRoom() {
+        Room old = roomList.get(nextUpdate);
+        nextUpdate = (nextUpdate + 1) % roomList.size();
+        return dao.updateRoom(new Room(old.getRoomNo(), old.getRoomType(), STATUSES[nextUpdate % STATUSES.length],
+            old.getFloor(), old.getAmenityMask(), old.getPrice()));
+    }
+    
+    @Benchmark
+    public Room lookup() {
+        nextLookup = (nextLookup + 7919) % rooms;
+        return dao.getRoom(nextLookup + 1);
+    }
+    
+    @Benchmark
+    public int deleteAndReAdd() {
+        Room room = roomList.get(nextDelete);
+        nextDelete = (nextDelete + 1) % roomList.size();
+        dao.deleteRoom(room.getRoomNo());
+        dao.addRoom(room);
+        return dao.size();
+    }
+    
+    private static Room randomRoom(int roomNo, SplittableRandom random) {
+        RoomType type = RoomType.values()[random.nextInt(RoomType.values().length)];
+        return new Room(roomNo, type, STATUSES[random.nextInt(STATUSES.length)], 1 + random.nextInt(FLOORS),
+            random.nextInt(Amenity.ALL + 1), type.getBasePrice() + 100 * random.nextInt(50));
+    }
+}
@@ -0,0 +1,96 @@
+package com.hotel.benchmarks;
+
+import com.hotel.managers.BookingRowMapper;
+import com.hotel.models.Booking;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of turning a bookings result set into Booking objects
+ *
+ * - byColumnName: the block formerly copied through BookingManager
+ * - throughStrings: the former SimpleBookingManager variant (dates parsed from text)
+ * - rowMapper: BookingRowMapper, columns resolved once and read by index
+ *
+ * Run with the GC profiler to see allocation per pass:
+ *     java -jar target/benchmarks.jar RowMapperBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+    
+    @Param({"100000"})
+    public int rows;
+    
+    private SyntheticBookingResultSet table;
+    
+    @Setup
+    public void setUp() {
+        table = new SyntheticBookingResultSet(rows, 42);
+    }
+    
+    @Benchmark
+    public List<Booking> byColumnName() throws SQLException {
+        List<Booking> bookings = new ArrayList<>();
+        ResultSet rs = table.open();
+        while (rs.next()) {
+            bookings.add(new Booking(
+                rs.getInt("booking_id"),
+                rs.getInt("customer_id"),
+                rs.getInt("room_id"),
+                rs.getString("customer_name"),
+                rs.getString("customer_email"),
+                rs.getString("customer_phone"),
+                rs.getDate("check_in_date").toLocalDate(),
+                rs.getDate("check_out_date").toLocalDate(),
+                rs.getString("status"),
+                rs.getDouble("total_amount"),
+                rs.getDate("booking_date").toLocalDate()
+            ));
+        }
+        return bookings;
+    }
+    
+    @Benchmark
+    public List<Booking> throughStrings() throws SQLException {
+        List<Booking> bookings = new ArrayList<>();
+        ResultSet rs = table.open();
+        while (rs.next()) {
+            Booking booking = new Booking();
+            booking.setBookingId(rs.getInt("booking_id"));
+            booking.setRoomId(rs.getInt("room_id"));
+            booking.setCustomerName(rs.getString("customer_name"));
+            booking.setCustomerEmail(rs.getString("customer_email"));
+            booking.setCustomerPhone(rs.getString("customer_phone"));
+            booking.setCheckInDate(rs.getString("check_in_date"));
+            booking.setCheckOutDate(rs.getString("check_out_date"));
+            booking.setStatus(rs.getString("status"));
+            booking.setTotalAmount(rs.getDouble("total_amount"));
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+    
+    @Benchmark
+    public List<Booking> rowMapper() throws SQLException {
+        return BookingRowMapper.mapAll(table.open());
+    }
+}
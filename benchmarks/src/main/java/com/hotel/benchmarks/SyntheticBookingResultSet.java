@@ -0,0 +1,153 @@
+package com.hotel.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * In-memory bookings table exposed through forward-only ResultSet cursors
+ * Column values are generated once; every cursor shares them. Name lookups go
+ * through a case-insensitive map and java.sql.Date / String conversions are
+ * done per call, as a JDBC driver does, so the benchmarks see the cost of the
+ * mapping layer rather than of the network.
+ */
+public final class SyntheticBookingResultSet {
+    
+    static final String[] COLUMNS = {
+        "booking_id", "customer_id", "room_id", "customer_name", "customer_email", "customer_phone",
+        "check_in_date", "check_out_date", "status", "total_amount", "booking_date", "special_requests"
+    };
+    private static final String[] STATUSES = { "CONFIRMED", "CHECKED_IN", "CHECKED_OUT", "CANCELLED" };
+    
+    private final int rows;
+    private final Object[][] values; // [column][row]
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    
+    public SyntheticBookingResultSet(int rows, long seed) {
+        this.rows = rows;
+        this.values = new Object[COLUMNS.length][rows];
+        for (int c = 0; c < COLUMNS.length; c++) {
+            columnIndex.put(COLUMNS[c], c + 1);
+        }
+        
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDate base = LocalDate.of(2024, 1, 1);
+        for (int r = 0; r < rows; r++) {
+            LocalDate checkIn = base.plusDays(random.nextInt(730));
+            values[0][r] = r + 1;
+            values[1][r] = random.nextInt(1, 5000);
+            values[2][r] = 101 + random.nextInt(200);
+            values[3][r] = "Guest " + r;
+            values[4][r] = "guest" + r + "@example.com";
+            values[5][r] = "98" + (10000000 + random.nextInt(89999999));
+            values[6][r] = checkIn;
+            values[7][r] = checkIn.plusDays(1 + random.nextInt(7));
+            values[8][r] = STATUSES[random.nextInt(STATUSES.length)];
+            values[9][r] = 2500.0 * (1 + random.nextInt(7));
+            values[10][r] = checkIn.minusDays(random.nextInt(90)).atTime(10, 30);
+            values[11][r] = null;
+        }
+    }
+    
+    public int getRowCount() {
+        return rows;
+    }
+    
+    /**
+     * Open a new cursor positioned before the first row
+     */
+    public ResultSet open() {
+        Cursor cursor = new Cursor();
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+            new Class<?>[] { ResultSet.class },
+            (proxy, method, args) -> cursor.invoke(method.getName(), args));
+    }
+    
+    private ResultSetMetaData metaData() {
+        return (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+            new Class<?>[] { ResultSetMetaData.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getColumnCount":
+                        return COLUMNS.length;
+                    case "getColumnLabel":
+                    case "getColumnName":
+                        return COLUMNS[(Integer) args[0] - 1];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+    
+    private final class Cursor {
+        private int row = -1;
+        private boolean wasNull;
+        
+        Object invoke(String name, Object[] args) throws SQLException {
+            switch (name) {
+                case "next":
+                    return ++row < rows;
+                case "close":
+                    row = rows;
+                    return null;
+                case "wasNull":
+                    return wasNull;
+                case "getMetaData":
+                    return metaData();
+                case "findColumn":
+                    return findColumn((String) args[0]);
+                case "getInt": {
+                    Object value = value(args[0]);
+                    return value == null ? 0 : ((Number) value).intValue();
+                }
+                case "getDouble": {
+                    Object value = value(args[0]);
+                    return value == null ? 0.0 : ((Number) value).doubleValue();
+                }
+                case "getString": {
+                    Object value = value(args[0]);
+                    return value == null ? null : value.toString();
+                }
+                case "getDate": {
+                    Object value = value(args[0]);
+                    if (value instanceof LocalDateTime) {
+                        return Date.valueOf(((LocalDateTime) value).toLocalDate());
+                    }
+                    return value == null ? null : Date.valueOf((LocalDate) value);
+                }
+                case "getObject": {
+                    Object value = value(args[0]);
+                    if (args.length > 1 && value != null && !((Class<?>) args[1]).isInstance(value)) {
+                        throw new SQLException("Cannot convert " + value.getClass() + " to " + args[1]);
+                    }
+                    return value;
+                }
+                default:
+                    throw new UnsupportedOperationException(name);
+            }
+        }
+        
+        private Object value(Object column) throws SQLException {
+            int index = column instanceof String ? findColumn((String) column) : (Integer) column;
+            Object value = values[index - 1][row];
+            wasNull = value == null;
+            return value;
+        }
+        
+        private int findColumn(String label) throws SQLException {
+            Integer index = columnIndex.get(label.toLowerCase(Locale.ROOT));
+            if (index == null) {
+                throw new SQLException("Column '" + label + "' not found");
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.hotel.benchmarks;
+
+import com.hotel.models.Booking;
+import com.hotel.ui.BookingTableModel;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import javax.swing.table.DefaultTableModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Populating the admin bookings table (BookingManagementPanel.updateTable)
+ *
+ * - defaultTableModel: the former approach, one pre-formatted Object[] row per booking
+ * - setBookings: BookingTableModel, column arrays filled in one pass
+ * - appendPages: BookingTableModel filled one keyset page at a time
+ * - renderViewport: the cells JTable asks for to paint 40 visible rows
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TableModelBenchmark {
+    
+    private static final String[] COLUMNS = {
+        "Booking ID", "Customer Name", "Room ID", "Check-In",
+        "Check-Out", "Status", "Total Amount", "Phone", "Email"
+    };
+    private static final String[] STATUSES = {"CONFIRMED", "CHECKED_IN", "CHECKED_OUT", "CANCELLED"};
+    private static final int PAGE_SIZE = 100;
+    private static final int VISIBLE_ROWS = 40;
+    
+    @Param({"1000", "100000"})
+    public int rows;
+    
+    private List<Booking> bookings;
+    private BookingTableModel loadedModel;
+    
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate today = LocalDate.now();
+        bookings = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            LocalDate checkIn = today.plusDays(random.nextInt(-180, 180));
+            bookings.add(new Booking(i, i, 101 + random.nextInt(500), "Guest " + i, "guest" + i + "@example.com",
+                String.valueOf(9000000000L + i), checkIn, checkIn.plusDays(1 + random.nextInt(5)),
+                STATUSES[random.nextInt(STATUSES.length)], 1500 + random.nextInt(20000) + 0.5, today));
+        }
+        loadedModel = new BookingTableModel();
+        loadedModel.setBookings(bookings);
+    }
+    
+    @Benchmark
+    public DefaultTableModel defaultTableModel() {
+        DefaultTableModel model = new DefaultTableModel(COLUMNS, 0);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        for (Booking booking : bookings) {
+            model.addRow(new Object[] {
+                booking.getBookingId(),
+                booking.getCustomerName(),
+                booking.getRoomId(),
+                booking.getCheckInDate() != null ? booking.getCheckInDate().format(formatter) : "",
+                booking.getCheckOutDate() != null ? booking.getCheckOutDate().format(formatter) : "",
+                booking.getStatus(),
+                String.format("₹%.2f", booking.getTotalAmount()),
+                booking.getCustomerPhone(),
+                booking.getCustomerEmail()
+            });
+        }
+        return model;
+    }
+    
+    @Benchmark
+    public BookingTableModel setBookings() {
+        BookingTableModel model = new BookingTableModel();
+        model.setBookings(bookings);
+        return model;
+    }
+    
+    @Benchmark
+    public BookingTableModel appendPages() {
+        BookingTableModel model = new BookingTableModel();
+        for (int from = 0; from < bookings.size(); from += PAGE_SIZE) {
+            model.appendBookings(bookings.subList(from, Math.min(from + PAGE_SIZE, bookings.size())));
+        }
+        return model;
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int renderViewport() {
+        int hash = 0;
+        for (int row = 0; row < Math.min(VISIBLE_ROWS, rows); row++) {
+            for (int column = 0; column < COLUMNS.length; column++) {
+                hash += loadedModel.getValueAt(row, column).hashCode();
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,8 @@
+USE hotel_management;
+
+-- Indexes for BookingManager.getBookingsPage
+-- Pages are read in (check_in_date, booking_id) descending order, optionally
+-- filtered by status, so both orders can be served straight from an index
+DROP INDEX idx_bookings_status ON bookings;
+CREATE INDEX idx_bookings_status ON bookings(status, check_in_date, booking_id);
+CREATE INDEX idx_bookings_page ON bookings(check_in_date, booking_id);
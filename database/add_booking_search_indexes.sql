@@ -0,0 +1,5 @@
+USE hotel_management;
+
+-- Index for the customer-name search in SimpleBookingManager
+-- A prefix LIKE ('abc%') is served as a range scan on this index
+CREATE INDEX idx_bookings_customer_name ON bookings(customer_name);
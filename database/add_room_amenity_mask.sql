@@ -0,0 +1,11 @@
+USE hotel_management;
+
+-- Store room amenities as a bitmask next to the free-text amenities column
+-- Bits follow com.hotel.models.Amenity: AC=1, WIFI=2, TV=4, MINI_BAR=8, JACUZZI=16
+ALTER TABLE rooms ADD COLUMN amenity_mask INT NOT NULL DEFAULT 0;
+UPDATE rooms SET amenity_mask =
+      (FIND_IN_SET('AC', REPLACE(amenities, ' ', '')) > 0) * 1
+    + (FIND_IN_SET('WiFi', REPLACE(amenities, ' ', '')) > 0) * 2
+    + (FIND_IN_SET('TV', REPLACE(amenities, ' ', '')) > 0) * 4
+    + (FIND_IN_SET('MiniBar', REPLACE(amenities, ' ', '')) > 0) * 8
+    + (FIND_IN_SET('Jacuzzi', REPLACE(amenities, ' ', '')) > 0) * 16;
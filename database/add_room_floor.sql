@@ -0,0 +1,6 @@
+USE hotel_management;
+
+-- Add the floor column written by JdbcRoomDAO (Room Management)
+-- Existing rooms are numbered floor-first (101, 102, ...), so derive their floor from the number
+ALTER TABLE rooms ADD COLUMN floor INT NOT NULL DEFAULT 1;
+UPDATE rooms SET floor = GREATEST(1, room_id DIV 100);
@@ -0,0 +1,25 @@
+USE hotel_management;
+
+-- Add the room-night ledger used by BookingManager.createBooking
+-- One row per occupied night; the primary key rejects double bookings
+CREATE TABLE IF NOT EXISTS room_nights (
+    room_id INT NOT NULL,
+    night DATE NOT NULL,
+    booking_id INT NOT NULL,
+    PRIMARY KEY (room_id, night),
+    FOREIGN KEY (room_id) REFERENCES rooms(room_id),
+    FOREIGN KEY (booking_id) REFERENCES bookings(booking_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_room_nights_booking ON room_nights(booking_id);
+
+-- Backfill the nights held by existing active bookings
+INSERT IGNORE INTO room_nights (room_id, night, booking_id)
+WITH RECURSIVE booked_nights AS (
+    SELECT booking_id, room_id, check_in_date AS night, check_out_date
+    FROM bookings WHERE status IN ('CONFIRMED', 'CHECKED_IN')
+    UNION ALL
+    SELECT booking_id, room_id, night + INTERVAL 1 DAY, check_out_date
+    FROM booked_nights WHERE night + INTERVAL 1 DAY < check_out_date
+)
+SELECT room_id, night, booking_id FROM booked_nights;
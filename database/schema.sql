@@ -13,7 +13,9 @@ CREATE TABLE IF NOT EXISTS rooms (
     price_per_night DECIMAL(10,2) NOT NULL,
     capacity INT NOT NULL,
     amenities TEXT,
-    status VARCHAR(20) DEFAULT 'AVAILABLE'
+    amenity_mask INT NOT NULL DEFAULT 0, -- one bit per com.hotel.models.Amenity: AC=1, WIFI=2, TV=4, MINI_BAR=8, JACUZZI=16
+    status VARCHAR(20) DEFAULT 'AVAILABLE',
+    floor INT NOT NULL DEFAULT 1
 );
 
 -- Users table (for authentication)
@@ -46,6 +48,17 @@ CREATE TABLE IF NOT EXISTS bookings (
     FOREIGN KEY (customer_id) REFERENCES users(user_id)
 );
 
+-- Room-night ledger: one row per occupied night of an active booking
+-- The primary key makes it impossible to store two bookings for the same room and night
+CREATE TABLE IF NOT EXISTS room_nights (
+    room_id INT NOT NULL,
+    night DATE NOT NULL,
+    booking_id INT NOT NULL,
+    PRIMARY KEY (room_id, night),
+    FOREIGN KEY (room_id) REFERENCES rooms(room_id),
+    FOREIGN KEY (booking_id) REFERENCES bookings(booking_id) ON DELETE CASCADE
+);
+
 -- Insert sample rooms
 INSERT INTO rooms (room_id, room_number, room_type, price_per_night, capacity, amenities, status) VALUES
 (101, 'R101', 'Standard', 2500.00, 2, 'AC, TV, WiFi', 'AVAILABLE'),
@@ -77,11 +90,26 @@ INSERT INTO bookings (customer_id, room_id, customer_name, customer_email, custo
 (3, 102, 'Jane Smith', 'jane@email.com', '9876543212', 
  DATE_SUB(CURDATE(), INTERVAL 2 DAY), DATE_SUB(CURDATE(), INTERVAL 1 DAY), 'CHECKED_OUT', 2500.00, 'Business trip');
 
+-- Record the nights held by the active sample bookings
+INSERT INTO room_nights (room_id, night, booking_id)
+WITH RECURSIVE booked_nights AS (
+    SELECT booking_id, room_id, check_in_date AS night, check_out_date
+    FROM bookings WHERE status IN ('CONFIRMED', 'CHECKED_IN')
+    UNION ALL
+    SELECT booking_id, room_id, night + INTERVAL 1 DAY, check_out_date
+    FROM booked_nights WHERE night + INTERVAL 1 DAY < check_out_date
+)
+SELECT room_id, night, booking_id FROM booked_nights;
+
 -- Create indexes for better performance
 CREATE INDEX idx_bookings_dates ON bookings(check_in_date, check_out_date);
-CREATE INDEX idx_bookings_status ON bookings(status);
+CREATE INDEX idx_bookings_status ON bookings(status, check_in_date, booking_id);
+-- Keyset pagination order used by BookingManager.getBookingsPage
+CREATE INDEX idx_bookings_page ON bookings(check_in_date, booking_id);
 CREATE INDEX idx_bookings_room ON bookings(room_id);
 CREATE INDEX idx_bookings_customer ON bookings(customer_id);
+CREATE INDEX idx_bookings_customer_name ON bookings(customer_name);
+CREATE INDEX idx_room_nights_booking ON room_nights(booking_id);
 
 -- Views for common queries
 CREATE VIEW active_bookings AS
@@ -44,6 +44,10 @@ INSERT INTO bookings (room_id, customer_name, customer_email, customer_phone,
 (104, 'Alice Brown', 'alice@email.com', '9876543213', '2024-10-15', '2024-10-18', 'CHECKED_OUT', 10500.00),
 (105, 'Charlie Wilson', 'charlie@email.com', '9876543214', '2024-10-22', '2024-10-25', 'CONFIRMED', 15000.00);
 
+-- Indexes used by SimpleBookingManager's status filter and name search
+CREATE INDEX idx_bookings_status ON bookings(status);
+CREATE INDEX idx_bookings_customer_name ON bookings(customer_name);
+
 -- Show all data (for verification)
 SELECT 'Rooms Table:' as Info;
 SELECT * FROM rooms;
@@ -0,0 +1,705 @@
+package com.hotel.api;
+
+import com.hotel.dao.JdbcRoomDAO;
+import com.hotel.dao.RoomDAO;
+import com.hotel.dao.RoomQuery;
+import com.hotel.database.ConnectionPool;
+import com.hotel.database.UnifiedDatabaseConnection;
+import com.hotel.exceptions.BookingConflictException;
+import com.hotel.exceptions.LoginThrottledException;
+import com.hotel.managers.BookingManager;
+import com.hotel.managers.BookingPage;
+import com.hotel.models.Amenity;
+import com.hotel.models.Booking;
+import com.hotel.models.Room;
+import com.hotel.models.RoomType;
+import com.hotel.models.User;
+import com.hotel.services.AuthenticationService;
+import com.hotel.services.SessionStore;
+import com.hotel.util.TaskExecutors;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingApiServer - headless HTTP/JSON front end for BookingManager and RoomDAO
+ * Built on the JDK's com.sun.net.httpserver, so it needs no libraries beyond the
+ * JDBC driver. Requests are handled on virtual threads where the JVM has them
+ * (Java 21+), otherwise on a fixed pool; either way every database call goes
+ * through the shared ConnectionPool, which bounds the real concurrency.
+ * Responses are streamed with JsonWriter rather than built up as strings.
+ *
+ *   GET  /api/health
+ *   POST /api/login                     {"username": ..., "password": ...} -> {"token": ...}
+ *   POST /api/logout
+ *   GET  /api/rooms                     ?type&status&floor&minFloor&maxFloor&minPrice&maxPrice&amenities=WIFI,TV
+ *   GET  /api/rooms/{roomNo}
+ *   GET  /api/availability              ?checkIn&checkOut plus the room filters
+ *   GET  /api/bookings                  ?q&status&limit&after   (staff)
+ *   GET  /api/bookings/{id}             (staff)
+ *   POST /api/bookings                  {"roomId", "customerName", "customerEmail", "customerPhone",
+ *                                        "checkIn", "checkOut"}   (staff)
+ *   POST /api/bookings/{id}/check-in | check-out | cancel   (staff)
+ *
+ * Staff endpoints want "Authorization: Bearer &lt;token&gt;" from a non-customer
+ * login. Errors come back as {"error": "..."} with 400, 401, 403, 404, 405, 409,
+ * 413, 429 (with Retry-After), 503 or 500.
+ *
+ * The room list is the one the RoomDAO holds; the server only reads it, so it
+ * can be shared between request threads as long as nothing else modifies it.
+ *
+ * Usage: java com.hotel.api.BookingApiServer [--port 8080] [--threads 200] [--pool 20]
+ *        [--jdbc url user password]
+ */
+public class BookingApiServer implements AutoCloseable {
+    
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_THREADS = 200;
+    
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int MAX_SEARCH_RESULTS = 500;
+    private static final int MAX_STAY_NIGHTS = 365;
+    private static final int BACKLOG = 1024;
+    private static final String JSON = "application/json; charset=utf-8";
+    
+    private final BookingManager bookingManager;
+    private final RoomDAO roomDAO;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    
+    /**
+     * @param address where to listen; port 0 picks a free one
+     * @param threads handler threads when virtual threads are unavailable
+     */
+    public BookingApiServer(BookingManager bookingManager, RoomDAO roomDAO, InetSocketAddress address, int threads)
+            throws IOException {
+        this.bookingManager = bookingManager;
+        this.roomDAO = roomDAO;
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = TaskExecutors.newBlockingTaskExecutor("api", threads);
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+    
+    public void start() {
+        server.start();
+    }
+    
+    /**
+     * The port actually bound, useful after asking for port 0
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    /**
+     * Stop accepting requests, give running ones a second to finish, then stop the handler threads
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        // Headers and body go out in separate writes; without TCP_NODELAY small responses wait on delayed ACKs
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        int port = DEFAULT_PORT;
+        int threads = DEFAULT_THREADS;
+        int poolSize = 20;
+        String[] jdbc = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port": port = Integer.parseInt(args[++i]); break;
+                    case "--threads": threads = Integer.parseInt(args[++i]); break;
+                    case "--pool": poolSize = Integer.parseInt(args[++i]); break;
+                    case "--jdbc":
+                        jdbc = new String[] {args[i + 1], args[i + 2], args[i + 3]};
+                        i += 3;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java com.hotel.api.BookingApiServer [--port N] [--threads N] [--pool N] "
+                + "[--jdbc url user password]");
+            System.exit(2);
+        }
+        ConnectionPool pool;
+        if (jdbc != null) {
+            pool = new ConnectionPool(jdbc[0], jdbc[1], jdbc[2], Math.min(2, poolSize), poolSize);
+            // AuthenticationService always goes through the shared pool
+            UnifiedDatabaseConnection.setDataSource(pool);
+        } else {
+            pool = UnifiedDatabaseConnection.getDataSource();
+        }
+        JdbcRoomDAO rooms = new JdbcRoomDAO(pool);
+        BookingApiServer api = new BookingApiServer(new BookingManager(pool), rooms,
+            new InetSocketAddress(port), threads);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.close();
+            rooms.close();
+            pool.shutdown();
+        }, "api-shutdown"));
+        api.start();
+        System.out.println("Booking API listening on port " + api.getPort() + " with " + rooms.size() + " rooms, "
+            + (TaskExecutors.virtualThreadsAvailable() ? "virtual threads" : threads + " handler threads"));
+    }
+    
+    // Routing
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (ApiException e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (BookingConflictException e) {
+            sendError(exchange, 409, e.getMessage());
+        } catch (SQLException e) {
+            System.err.println("Booking API database error on " + describe(exchange) + ": " + e.getMessage());
+            sendError(exchange, 500, "Database error");
+        } catch (IOException e) {
+            // The client went away mid-response; nothing left to tell it
+        } catch (RuntimeException e) {
+            System.err.println("Booking API error on " + describe(exchange) + ": " + e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private void route(HttpExchange exchange) throws IOException, SQLException, BookingConflictException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+        String resource = path[0];
+        switch (resource) {
+            case "health":
+                requireMethod(method, "GET");
+                health(exchange);
+                return;
+            case "login":
+                requireMethod(method, "POST");
+                login(exchange);
+                return;
+            case "logout":
+                requireMethod(method, "POST");
+                logout(exchange);
+                return;
+            case "rooms":
+                requireMethod(method, "GET");
+                if (path.length == 1) {
+                    listRooms(exchange);
+                } else if (path.length == 2) {
+                    getRoom(exchange, parseId(path[1]));
+                } else {
+                    throw new ApiException(404, "Not found");
+                }
+                return;
+            case "availability":
+                requireMethod(method, "GET");
+                availability(exchange);
+                return;
+            case "bookings":
+                requireStaff(exchange);
+                if (path.length == 1) {
+                    if (method.equals("GET")) {
+                        listBookings(exchange);
+                    } else {
+                        requireMethod(method, "POST");
+                        createBooking(exchange);
+                    }
+                } else if (path.length == 2) {
+                    requireMethod(method, "GET");
+                    getBooking(exchange, parseId(path[1]));
+                } else if (path.length == 3) {
+                    requireMethod(method, "POST");
+                    changeStatus(exchange, parseId(path[1]), path[2]);
+                } else {
+                    throw new ApiException(404, "Not found");
+                }
+                return;
+            default:
+                throw new ApiException(404, "Not found");
+        }
+    }
+    
+    // Endpoints
+    
+    private void health(HttpExchange exchange) throws IOException {
+        sendJson(exchange, 200, json -> json.beginObject()
+            .name("status").value("ok")
+            .name("rooms").value(roomDAO.size())
+            .name("virtualThreads").value(TaskExecutors.virtualThreadsAvailable())
+            .endObject());
+    }
+    
+    private void login(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String username = requiredString(body, "username");
+        String password = requiredString(body, "password");
+        String source = exchange.getRemoteAddress().getAddress().getHostAddress();
+        User user;
+        try {
+            user = AuthenticationService.authenticateAsync(username, password, source).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof LoginThrottledException) {
+                long retryAfterMillis = ((LoginThrottledException) cause).getRetryAfterMillis();
+                exchange.getResponseHeaders().set("Retry-After", Long.toString((retryAfterMillis + 999) / 1000));
+                throw new ApiException(429, cause.getMessage());
+            }
+            if (cause instanceof RejectedExecutionException) {
+                throw new ApiException(503, "Too many logins in progress, try again shortly");
+            }
+            System.err.println("Booking API login error: " + (cause != null ? cause.getMessage() : e.getMessage()));
+            throw new ApiException(500, "Login failed");
+        }
+        if (user == null) {
+            throw new ApiException(401, "Wrong username or password");
+        }
+        SessionStore.Session<User> session = AuthenticationService.getSessionStore().create(user);
+        sendJson(exchange, 200, json -> json.beginObject()
+            .name("token").value(session.getToken())
+            .name("username").value(user.getUsername())
+            .name("role").value(user.getRole())
+            .endObject());
+    }
+    
+    private void logout(HttpExchange exchange) throws IOException {
+        String token = bearerToken(exchange);
+        if (token != null) {
+            AuthenticationService.logout(token);
+        }
+        sendEmpty(exchange, 204);
+    }
+    
+    private void listRooms(HttpExchange exchange) throws IOException {
+        List<Room> rooms = roomDAO.findRooms(roomQuery(queryParameters(exchange)));
+        sendJson(exchange, 200, json -> {
+            json.beginObject().name("rooms").beginArray();
+            for (Room room : rooms) {
+                writeRoom(json, room);
+            }
+            json.endArray().endObject();
+        });
+    }
+    
+    private void getRoom(HttpExchange exchange, int roomNo) throws IOException {
+        Room room = roomDAO.getRoom(roomNo);
+        if (room == null) {
+            throw new ApiException(404, "Room " + roomNo + " not found");
+        }
+        sendJson(exchange, 200, json -> writeRoom(json, room));
+    }
+    
+    /**
+     * Rooms matching the filters that are free for every night of the stay
+     */
+    private void availability(HttpExchange exchange) throws IOException, SQLException {
+        Map<String, String> query = queryParameters(exchange);
+        LocalDate checkIn = requiredDate(query, "checkIn");
+        LocalDate checkOut = requiredDate(query, "checkOut");
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (nights <= 0) {
+            throw new ApiException(400, "checkOut must be after checkIn");
+        }
+        if (nights > MAX_STAY_NIGHTS) {
+            throw new ApiException(400, "Stays are limited to " + MAX_STAY_NIGHTS + " nights");
+        }
+        List<Room> candidates = roomDAO.findRooms(roomQuery(query));
+        Set<Integer> free = bookingManager.getAvailableRooms(checkIn, checkOut);
+        List<Room> available = new ArrayList<>(Math.min(candidates.size(), free.size()));
+        for (Room room : candidates) {
+            if (free.contains(room.getRoomNo())) {
+                available.add(room);
+            }
+        }
+        sendJson(exchange, 200, json -> {
+            json.beginObject()
+                .name("checkIn").value(checkIn)
+                .name("checkOut").value(checkOut)
+                .name("nights").value(nights)
+                .name("rooms").beginArray();
+            for (Room room : available) {
+                writeRoom(json, room);
+            }
+            json.endArray().endObject();
+        });
+    }
+    
+    /**
+     * A page of bookings in check-in order, or with q, the bookings matching a search
+     */
+    private void listBookings(HttpExchange exchange) throws IOException, SQLException {
+        Map<String, String> query = queryParameters(exchange);
+        String status = query.get("status");
+        String search = query.get("q");
+        int limit = optionalInt(query, "limit", BookingManager.DEFAULT_PAGE_SIZE);
+        if (limit <= 0 || limit > MAX_SEARCH_RESULTS) {
+            throw new ApiException(400, "limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        List<Booking> bookings;
+        BookingPage.Cursor next = null;
+        if (search != null) {
+            bookings = bookingManager.searchBookings(search, status, limit);
+        } else {
+            BookingPage page = bookingManager.getBookingsPage(status, parseCursor(query.get("after")), limit);
+            bookings = page.getBookings();
+            next = page.hasMore() ? page.getNextCursor() : null;
+        }
+        String nextCursor = next == null ? null : next.toString();
+        sendJson(exchange, 200, json -> {
+            json.beginObject().name("bookings").beginArray();
+            for (Booking booking : bookings) {
+                writeBooking(json, booking);
+            }
+            json.endArray().name("next").value(nextCursor).endObject();
+        });
+    }
+    
+    private void getBooking(HttpExchange exchange, int bookingId) throws IOException, SQLException {
+        Booking booking = findBooking(bookingId);
+        sendJson(exchange, 200, json -> writeBooking(json, booking));
+    }
+    
+    private void createBooking(HttpExchange exchange) throws IOException, SQLException, BookingConflictException {
+        Map<String, Object> body = readBody(exchange);
+        Booking booking = new Booking();
+        booking.setRoomId(requiredInt(body, "roomId"));
+        booking.setCustomerName(requiredString(body, "customerName"));
+        booking.setCustomerEmail(optionalString(body, "customerEmail"));
+        booking.setCustomerPhone(optionalString(body, "customerPhone"));
+        if (body.get("customerId") != null) {
+            booking.setCustomerId(requiredInt(body, "customerId"));
+        }
+        LocalDate checkIn = parseDate("checkIn", requiredString(body, "checkIn"));
+        LocalDate checkOut = parseDate("checkOut", requiredString(body, "checkOut"));
+        if (ChronoUnit.DAYS.between(checkIn, checkOut) > MAX_STAY_NIGHTS) {
+            throw new ApiException(400, "Stays are limited to " + MAX_STAY_NIGHTS + " nights");
+        }
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        Booking created = bookingManager.createBooking(booking);
+        exchange.getResponseHeaders().set("Location", "/api/bookings/" + created.getBookingId());
+        sendJson(exchange, 201, json -> writeBooking(json, created));
+    }
+    
+    private void changeStatus(HttpExchange exchange, int bookingId, String action) throws IOException, SQLException {
+        boolean changed;
+        String done;
+        switch (action) {
+            case "check-in":
+                changed = bookingManager.checkInBooking(bookingId);
+                done = "checked in";
+                break;
+            case "check-out":
+                changed = bookingManager.checkOutBooking(bookingId);
+                done = "checked out";
+                break;
+            case "cancel":
+                changed = bookingManager.cancelBooking(bookingId);
+                done = "cancelled";
+                break;
+            default:
+                throw new ApiException(404, "Not found");
+        }
+        // Read back either way: the new state on success, or why it failed
+        Booking booking = findBooking(bookingId);
+        if (!changed) {
+            throw new ApiException(409, "Booking " + bookingId + " is " + booking.getStatus() + " and cannot be " + done);
+        }
+        sendJson(exchange, 200, json -> writeBooking(json, booking));
+    }
+    
+    private Booking findBooking(int bookingId) throws SQLException {
+        List<Booking> found = bookingManager.getBookingsByIds(Collections.singletonList(bookingId));
+        if (found.isEmpty()) {
+            throw new ApiException(404, "Booking " + bookingId + " not found");
+        }
+        return found.get(0);
+    }
+    
+    // Serialization
+    
+    private static void writeRoom(JsonWriter json, Room room) throws IOException {
+        json.beginObject()
+            .name("roomNo").value(room.getRoomNo())
+            .name("type").value(room.getRoomType() == null ? null : room.getRoomType().name())
+            .name("status").value(room.getStatus())
+            .name("floor").value(room.getFloor())
+            .name("price").value(room.getPrice())
+            .name("amenities").beginArray();
+        for (Amenity amenity : room.getAmenitySet()) {
+            json.value(amenity.name());
+        }
+        json.endArray().endObject();
+    }
+    
+    private static void writeBooking(JsonWriter json, Booking booking) throws IOException {
+        json.beginObject()
+            .name("bookingId").value(booking.getBookingId())
+            .name("customerId").value(booking.getCustomerId())
+            .name("roomId").value(booking.getRoomId())
+            .name("customerName").value(booking.getCustomerName())
+            .name("customerEmail").value(booking.getCustomerEmail())
+            .name("customerPhone").value(booking.getCustomerPhone())
+            .name("checkIn").value(booking.getCheckInDate())
+            .name("checkOut").value(booking.getCheckOutDate())
+            .name("status").value(booking.getStatus())
+            .name("totalAmount").value(booking.getTotalAmount())
+            .name("bookingDate").value(booking.getBookingDate())
+            .endObject();
+    }
+    
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+    
+    /**
+     * Send a JSON response
+     * The length is not known up front, so the body goes out chunked as it is written.
+     */
+    private static void sendJson(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, 0);
+        try (JsonWriter json = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 8192))) {
+            body.write(json);
+        }
+    }
+    
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+    
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            if (status == 401) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+            }
+            sendJson(exchange, status, json -> json.beginObject().name("error").value(message).endObject());
+        } catch (IOException | IllegalStateException e) {
+            // Headers already sent or the client is gone; closing the exchange is all that is left
+        }
+    }
+    
+    // Request parsing
+    
+    private static void requireMethod(String method, String allowed) {
+        if (!method.equals(allowed)) {
+            throw new ApiException(405, "Use " + allowed);
+        }
+    }
+    
+    private static User requireStaff(HttpExchange exchange) {
+        String token = bearerToken(exchange);
+        User user = token == null ? null : AuthenticationService.getSessionUser(token);
+        if (user == null) {
+            throw new ApiException(401, "Log in first");
+        }
+        if (user.isCustomer()) {
+            throw new ApiException(403, "Staff only");
+        }
+        return user;
+    }
+    
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return header.substring(7).trim();
+    }
+    
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new ApiException(413, "Request body is larger than " + MAX_BODY_BYTES + " bytes");
+        }
+        try {
+            return JsonParser.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Bad JSON: " + e.getMessage());
+        }
+    }
+    
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        String raw = exchange.getRequestURI().getRawQuery();
+        Map<String, String> parameters = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return parameters;
+        }
+        try {
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+                String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                parameters.putIfAbsent(name, value);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Bad query string");
+        }
+        return parameters;
+    }
+    
+    private static RoomQuery roomQuery(Map<String, String> query) {
+        RoomQuery q = new RoomQuery();
+        try {
+            if (query.containsKey("type")) {
+                q.type(RoomType.valueOf(query.get("type").toUpperCase(Locale.ROOT)));
+            }
+            if (query.containsKey("status")) {
+                q.status(query.get("status"));
+            }
+            if (query.containsKey("floor")) {
+                q.floor(Integer.parseInt(query.get("floor")));
+            }
+            if (query.containsKey("minFloor") || query.containsKey("maxFloor")) {
+                q.floors(optionalInt(query, "minFloor", Integer.MIN_VALUE), optionalInt(query, "maxFloor", Integer.MAX_VALUE));
+            }
+            if (query.containsKey("minPrice")) {
+                q.minPrice(Double.parseDouble(query.get("minPrice")));
+            }
+            if (query.containsKey("maxPrice")) {
+                q.maxPrice(Double.parseDouble(query.get("maxPrice")));
+            }
+            if (query.containsKey("amenities") && !query.get("amenities").isEmpty()) {
+                String[] names = query.get("amenities").split(",");
+                Amenity[] amenities = new Amenity[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    amenities[i] = Amenity.valueOf(names[i].trim().toUpperCase(Locale.ROOT));
+                }
+                q.amenities(amenities);
+            }
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException included
+            throw new ApiException(400, "Bad room filter: " + e.getMessage());
+        }
+        return q;
+    }
+    
+    private static int optionalInt(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, name + " must be a number");
+        }
+    }
+    
+    private static LocalDate requiredDate(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new ApiException(400, name + " is required");
+        }
+        return parseDate(name, value);
+    }
+    
+    private static LocalDate parseDate(String name, String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, name + " must be a date like 2024-05-31");
+        }
+    }
+    
+    // "2024-05-31/1234", as printed by BookingPage.Cursor
+    private static BookingPage.Cursor parseCursor(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        int slash = value.indexOf('/');
+        try {
+            return new BookingPage.Cursor(LocalDate.parse(value.substring(0, slash)),
+                Integer.parseInt(value.substring(slash + 1)));
+        } catch (RuntimeException e) {
+            throw new ApiException(400, "Bad cursor: " + value);
+        }
+    }
+    
+    private static int parseId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Not found");
+        }
+    }
+    
+    private static String requiredString(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof String) || ((String) value).isEmpty()) {
+            throw new ApiException(400, name + " is required");
+        }
+        return (String) value;
+    }
+    
+    private static String optionalString(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new ApiException(400, name + " must be a string");
+        }
+        return (String) value;
+    }
+    
+    private static int requiredInt(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof Long) || (Long) value != ((Long) value).intValue()) {
+            throw new ApiException(400, name + " must be a whole number");
+        }
+        return ((Long) value).intValue();
+    }
+    
+    private static String describe(HttpExchange exchange) {
+        return exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath();
+    }
+    
+    /**
+     * A request the server refuses, with the status to answer it with
+     */
+    private static final class ApiException extends RuntimeException {
+        private final int status;
+        
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
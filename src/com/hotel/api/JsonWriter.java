@@ -0,0 +1,201 @@
+package com.hotel.api;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Streaming JSON writer
+ * Values go straight to the underlying writer as they are added, so a response
+ * is never built up as one string. Commas and nesting are tracked here; the
+ * caller only has to pair every begin with its end and name every object member.
+ *
+ *   json.beginObject().name("id").value(42).name("tags").beginArray().value("a").endArray().endObject();
+ */
+public final class JsonWriter implements Closeable, Flushable {
+    
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private final Writer out;
+    private int depth;
+    // No element written yet at the current depth; a closed container always leaves its parent non-empty
+    private boolean first = true;
+    private boolean afterName;
+    
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+    
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        out.write('{');
+        depth++;
+        first = true;
+        return this;
+    }
+    
+    public JsonWriter endObject() throws IOException {
+        return end('}');
+    }
+    
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        out.write('[');
+        depth++;
+        first = true;
+        return this;
+    }
+    
+    public JsonWriter endArray() throws IOException {
+        return end(']');
+    }
+    
+    /**
+     * Name of the next object member
+     */
+    public JsonWriter name(String name) throws IOException {
+        if (afterName || depth == 0) {
+            throw new IllegalStateException("Member name out of place: " + name);
+        }
+        separate();
+        writeString(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+    
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+    
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+    
+    /**
+     * A number; NaN and infinities have no JSON form and are written as null
+     */
+    public JsonWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return nullValue();
+        }
+        beforeValue();
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.write(Long.toString((long) value));
+        } else {
+            out.write(Double.toString(value));
+        }
+        return this;
+    }
+    
+    /**
+     * An exact decimal, such as an amount of money, written without exponent
+     */
+    public JsonWriter value(BigDecimal value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        out.write(value.toPlainString());
+        return this;
+    }
+    
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+    
+    /**
+     * A date as an ISO-8601 string (2024-05-31)
+     */
+    public JsonWriter value(LocalDate value) throws IOException {
+        return value(value == null ? null : value.toString());
+    }
+    
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        out.write("null");
+        return this;
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+    
+    private JsonWriter end(char bracket) throws IOException {
+        if (depth == 0 || afterName) {
+            throw new IllegalStateException("Unbalanced " + bracket);
+        }
+        out.write(bracket);
+        depth--;
+        first = false;
+        return this;
+    }
+    
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+        } else {
+            separate();
+        }
+    }
+    
+    private void separate() throws IOException {
+        if (!first) {
+            out.write(',');
+        }
+        first = false;
+    }
+    
+    private void writeString(String s) throws IOException {
+        out.write('"');
+        int start = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            String escape;
+            if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == '\n') {
+                escape = "\\n";
+            } else if (c == '\r') {
+                escape = "\\r";
+            } else if (c == '\t') {
+                escape = "\\t";
+            } else if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                escape = "\\u" + HEX[c >> 12 & 0xF] + HEX[c >> 8 & 0xF] + HEX[c >> 4 & 0xF] + HEX[c & 0xF];
+            } else {
+                continue;
+            }
+            // Runs of plain characters go out in one write
+            if (i > start) {
+                out.write(s, start, i - start);
+            }
+            out.write(escape);
+            start = i + 1;
+        }
+        if (length > start) {
+            out.write(s, start, length - start);
+        }
+        out.write('"');
+    }
+}
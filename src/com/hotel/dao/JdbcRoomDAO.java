@@ -0,0 +1,505 @@
+package com.hotel.dao;
+import com.hotel.models.Amenity;
+import com.hotel.models.Room;
+import com.hotel.models.RoomType;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+//RoomDAO backed by the rooms table.
+//Reads are answered from the in-memory indexes,loaded once from the database.
+//Writes update memory at once and are queued:repeated edits of one room are
+//coalesced into its latest state,and the queue is written in JDBC batches every
+//FLUSH_INTERVAL_MILLIS,as soon as BATCH_SIZE rooms are waiting,and on JVM shutdown.
+//A save only rewrites the columns the user changed,and a change the database
+//refuses is reported to the WriteFailureListener,which can revert() the room.
+public class JdbcRoomDAO extends RoomDAO implements AutoCloseable
+{
+    public static final long FLUSH_INTERVAL_MILLIS = 500;
+    public static final int BATCH_SIZE = 500;
+    private static final String SELECT_COLUMNS =
+        "SELECT room_id, room_type, price_per_night, capacity, amenities, amenity_mask, status, floor FROM rooms";
+    private static final String SELECT_ROOMS = SELECT_COLUMNS + " ORDER BY room_id";
+    private static final String SELECT_ROOM = SELECT_COLUMNS + " WHERE room_id = ?";
+    private static final String UPSERT_ROOM =
+        "INSERT INTO rooms (room_id, room_number, room_type, price_per_night, capacity, amenities, amenity_mask, status, floor) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE room_type = VALUES(room_type), " +
+        "price_per_night = VALUES(price_per_night), capacity = VALUES(capacity), amenities = VALUES(amenities), " +
+        "amenity_mask = VALUES(amenity_mask), status = VALUES(status), floor = VALUES(floor)";
+    private static final String DELETE_ROOM = "DELETE FROM rooms WHERE room_id = ?";
+    //statuses offered by RoomManagementPanel;the table stores them as e.g. OUT_OF_ORDER
+    private static final String[] STATUSES = {"Available", "Occupied", "Maintenance", "Cleaning", "Out of Order"};
+    //queued in place of a room that was deleted
+    private static final Room DELETED = new Room(0, null, null, 0, 0, 0);
+    private static final String[] AMENITY_NAMES = {"AC", "WiFi", "TV", "Mini Bar", "Jacuzzi"};  //by Amenity ordinal
+    //told about a queued change the database refused;called on the write-behind thread
+    public interface WriteFailureListener
+    {
+        void roomWriteFailed(int roomNo, SQLException e);
+    }
+    private final DataSource dataSource;
+    private final Map<Integer, Room> pending = new LinkedHashMap<Integer, Room>(); //room number -> latest state
+    //room number -> columns as last read from or written to the database
+    private final Map<Integer, StoredRoom> stored = new ConcurrentHashMap<Integer, StoredRoom>();
+    private volatile WriteFailureListener writeFailureListener;
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher;
+    private final Thread shutdownHook;
+    private volatile boolean closed;
+    public JdbcRoomDAO(DataSource dataSource) throws SQLException
+    {
+        this.dataSource = dataSource;
+        load();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "room-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        //the flusher is a daemon thread,so the hook writes whatever is still queued at exit
+        shutdownHook = new Thread(this::close, "room-write-behind-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+    //read every room into the in-memory indexes
+    private void load() throws SQLException
+    {
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_ROOMS))
+        {
+            while (rs.next())
+            {
+                super.addRoom(readRoom(rs));
+            }
+        }
+    }
+    //map one row,remembering its column values
+    private Room readRoom(ResultSet rs) throws SQLException
+    {
+        String typeText = rs.getString("room_type");
+        String amenitiesText = rs.getString("amenities");
+        String statusText = rs.getString("status");
+        int amenityMask = rs.getInt("amenity_mask");
+        if (amenityMask == 0)
+        {
+            //rows inserted without a mask,e.g. the sample data
+            amenityMask = Amenity.toMask(toAmenities(amenitiesText));
+        }
+        Room room = new Room(rs.getInt("room_id"),
+            toRoomType(typeText),
+            toStatus(statusText),
+            rs.getInt("floor"),
+            amenityMask,
+            rs.getDouble("price_per_night"));
+        stored.put(room.getRoomNo(), new StoredRoom(room, typeText, rs.getInt("capacity"), amenitiesText, statusText));
+        return room;
+    }
+    //called with each change the database refuses;the room stays as edited in memory
+    //until the listener reverts it
+    public void setWriteFailureListener(WriteFailureListener listener)
+    {
+        this.writeFailureListener = listener;
+    }
+    //put a room back the way the database has it,e.g. after a refused change.
+    //Changes the in-memory indexes,so call it on the thread that uses the DAO.
+    public void revert(int roomNo) throws SQLException
+    {
+        synchronized (pending)
+        {
+            if (pending.containsKey(roomNo))
+            {
+                return;     //a newer change is queued and will be written instead
+            }
+        }
+        Room room = null;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(SELECT_ROOM))
+        {
+            stmt.setInt(1, roomNo);
+            try (ResultSet rs = stmt.executeQuery())
+            {
+                if (rs.next())
+                {
+                    room = readRoom(rs);
+                }
+            }
+        }
+        if (room == null)
+        {
+            stored.remove(roomNo);
+            super.deleteRoom(roomNo);
+        }
+        else if (!super.updateRoom(room))
+        {
+            super.addRoom(room);
+        }
+    }
+    public void addRoom(Room r)
+    {
+        checkOpen();
+        super.addRoom(r);
+        enqueue(r.getRoomNo(), r);
+    }
+    public boolean updateRoom(Room r)
+    {
+        checkOpen();
+        if (!super.updateRoom(r))
+        {
+            return false;
+        }
+        enqueue(r.getRoomNo(), r);
+        return true;
+    }
+    public boolean deleteRoom(int roomNo)
+    {
+        checkOpen();
+        if (!super.deleteRoom(roomNo))
+        {
+            return false;
+        }
+        enqueue(roomNo, DELETED);
+        return true;
+    }
+    //number of rooms waiting to be written
+    public int getPendingWrites()
+    {
+        synchronized (pending)
+        {
+            return pending.size();
+        }
+    }
+    private void checkOpen()
+    {
+        if (closed)
+        {
+            throw new IllegalStateException("Room DAO is closed");
+        }
+    }
+    private void enqueue(int roomNo, Room r)
+    {
+        int size;
+        synchronized (pending)
+        {
+            pending.remove(roomNo);     //re-insert so the queue stays in order of the latest edit
+            pending.put(roomNo, r);
+            size = pending.size();
+        }
+        if (size == BATCH_SIZE && !closed)
+        {
+            flusher.execute(this::flush);
+        }
+    }
+    //write everything queued so far;safe to call from any thread
+    public void flush()
+    {
+        synchronized (flushLock)
+        {
+            Map<Integer, Room> batch;
+            synchronized (pending)
+            {
+                if (pending.isEmpty())
+                {
+                    return;
+                }
+                batch = new LinkedHashMap<Integer, Room>(pending);
+                pending.clear();
+            }
+            try
+            {
+                writeBatch(batch);
+            }
+            catch (SQLException e)
+            {
+                System.err.println("Batch write of " + batch.size() + " rooms failed, retrying one by one: " + e.getMessage());
+                writeIndividually(batch);
+            }
+        }
+    }
+    //stop the background flusher and write what is left
+    public synchronized void close()
+    {
+        if (closed)
+        {
+            return;
+        }
+        closed = true;
+        flusher.shutdown();
+        try
+        {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (Thread.currentThread() != shutdownHook)
+        {
+            try
+            {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            }
+            catch (IllegalStateException e)
+            {
+                //already shutting down
+            }
+        }
+        int left = getPendingWrites();
+        if (left > 0)
+        {
+            System.err.println(left + " room changes could not be written to the database");
+        }
+    }
+    private void writeBatch(Map<Integer, Room> batch) throws SQLException
+    {
+        try (Connection connection = dataSource.getConnection())
+        {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement upsert = connection.prepareStatement(UPSERT_ROOM);
+                 PreparedStatement delete = connection.prepareStatement(DELETE_ROOM))
+            {
+                for (Map.Entry<Integer, Room> entry : batch.entrySet())
+                {
+                    if (entry.getValue() == DELETED)
+                    {
+                        delete.setInt(1, entry.getKey());
+                        delete.addBatch();
+                    }
+                    else
+                    {
+                        bindRoom(upsert, entry.getValue());
+                        upsert.addBatch();
+                    }
+                }
+                upsert.executeBatch();
+                delete.executeBatch();
+                connection.commit();
+                for (Map.Entry<Integer, Room> entry : batch.entrySet())
+                {
+                    written(entry.getKey(), entry.getValue());
+                }
+            }
+            catch (SQLException e)
+            {
+                connection.rollback();
+                throw e;
+            }
+            finally
+            {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+    //after a failed batch:write each room on its own so one bad row
+    //(e.g. deleting a room that still has bookings) doesn't hold back the rest
+    private void writeIndividually(Map<Integer, Room> batch)
+    {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement upsert = connection.prepareStatement(UPSERT_ROOM);
+             PreparedStatement delete = connection.prepareStatement(DELETE_ROOM))
+        {
+            for (Map.Entry<Integer, Room> entry : batch.entrySet())
+            {
+                try
+                {
+                    if (entry.getValue() == DELETED)
+                    {
+                        delete.setInt(1, entry.getKey());
+                        delete.executeUpdate();
+                    }
+                    else
+                    {
+                        bindRoom(upsert, entry.getValue());
+                        upsert.executeUpdate();
+                    }
+                    written(entry.getKey(), entry.getValue());
+                }
+                catch (SQLException e)
+                {
+                    System.err.println("Dropping change to room " + entry.getKey() + ": " + e.getMessage());
+                    WriteFailureListener listener = writeFailureListener;
+                    if (listener != null)
+                    {
+                        listener.roomWriteFailed(entry.getKey(), e);
+                    }
+                }
+            }
+        }
+        catch (SQLException e)
+        {
+            //database unreachable:keep the changes for the next flush,unless newer ones were queued meanwhile
+            System.err.println("Could not write room changes, will retry: " + e.getMessage());
+            synchronized (pending)
+            {
+                Map<Integer, Room> newer = new LinkedHashMap<Integer, Room>(pending);
+                pending.clear();
+                pending.putAll(batch);
+                pending.putAll(newer);
+            }
+        }
+    }
+    private void bindRoom(PreparedStatement stmt, Room r) throws SQLException
+    {
+        StoredRoom columns = columnsFor(r);
+        stmt.setInt(1, r.getRoomNo());
+        stmt.setString(2, "R" + r.getRoomNo());
+        stmt.setString(3, columns.typeText);
+        stmt.setDouble(4, r.getPrice());
+        stmt.setInt(5, columns.capacity);
+        stmt.setString(6, columns.amenitiesText);     //kept readable for reports
+        stmt.setInt(7, r.getAmenityMask());
+        stmt.setString(8, columns.statusText);
+        stmt.setInt(9, r.getFloor());
+    }
+    //columns the user didn't change keep their stored text:a "Standard" room reads
+    //as DOUBLE but must not be saved back as "Double",nor its capacity reset
+    private StoredRoom columnsFor(Room r)
+    {
+        StoredRoom old = stored.get(r.getRoomNo());
+        boolean sameType = old != null && old.type == r.getRoomType();
+        boolean sameAmenities = old != null && old.amenityMask == r.getAmenityMask();
+        boolean sameStatus = old != null && Objects.equals(old.status, r.getStatus());
+        return new StoredRoom(r,
+            sameType ? old.typeText : fromRoomType(r.getRoomType()),
+            sameType ? old.capacity : capacityOf(r.getRoomType()),
+            sameAmenities ? old.amenitiesText : describeAmenities(r.getAmenityMask()),
+            sameStatus ? old.statusText : fromStatus(r.getStatus()));
+    }
+    //remember what a successful write left in the table
+    private void written(int roomNo, Room r)
+    {
+        if (r == DELETED)
+        {
+            stored.remove(roomNo);
+        }
+        else
+        {
+            stored.put(roomNo, columnsFor(r));
+        }
+    }
+    //the sample data uses "Standard" for what the application calls a DOUBLE room
+    private static RoomType toRoomType(String text)
+    {
+        String key = text == null ? "" : text.trim().toUpperCase(Locale.ROOT);
+        if (key.equals("STANDARD"))
+        {
+            return RoomType.DOUBLE;
+        }
+        try
+        {
+            return RoomType.valueOf(key);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println("Unknown room type '" + text + "', treating it as DOUBLE");
+            return RoomType.DOUBLE;
+        }
+    }
+    //stored in the same "Deluxe" form as the sample data
+    private static String fromRoomType(RoomType type)
+    {
+        String name = type.name();
+        return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT);
+    }
+    private static String toStatus(String text)
+    {
+        for (String status : STATUSES)
+        {
+            if (fromStatus(status).equalsIgnoreCase(text))
+            {
+                return status;
+            }
+        }
+        return text;
+    }
+    private static String fromStatus(String status)
+    {
+        return status == null ? null : status.trim().toUpperCase(Locale.ROOT).replace(' ', '_');
+    }
+    //amenities in the same "AC, TV, WiFi" form as the sample data
+    private static String describeAmenities(int mask)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (Amenity amenity : Amenity.fromMask(mask))
+        {
+            if (sb.length() > 0)
+            {
+                sb.append(", ");
+            }
+            sb.append(amenity.ordinal() < AMENITY_NAMES.length ? AMENITY_NAMES[amenity.ordinal()] : amenity.name());
+        }
+        return sb.toString();
+    }
+    //amenities as text such as "AC, TV, WiFi, Mini Bar";names without an Amenity are skipped
+    private static List<Amenity> toAmenities(String text)
+    {
+        List<Amenity> amenities = new ArrayList<Amenity>();
+        if (text == null)
+        {
+            return amenities;
+        }
+        for (String part : text.split(","))
+        {
+            String key = part.trim().toUpperCase(Locale.ROOT).replace(' ', '_');
+            for (Amenity amenity : Amenity.values())
+            {
+                if (amenity.name().equals(key))
+                {
+                    amenities.add(amenity);
+                }
+            }
+        }
+        return amenities;
+    }
+    private static int capacityOf(RoomType type)
+    {
+        switch (type)
+        {
+            case SINGLE:
+                return 1;
+            case DOUBLE:
+                return 2;
+            case DELUXE:
+                return 3;
+            case SUITE:
+                return 4;
+            default:
+                return 6;
+        }
+    }
+    //a room's columns as the table holds them
+    private static final class StoredRoom
+    {
+        final RoomType type;
+        final String typeText;
+        final int capacity;
+        final int amenityMask;
+        final String amenitiesText;
+        final String status;
+        final String statusText;
+        StoredRoom(Room room, String typeText, int capacity, String amenitiesText, String statusText)
+        {
+            this.type = room.getRoomType();
+            this.typeText = typeText;
+            this.capacity = capacity;
+            this.amenityMask = room.getAmenityMask();
+            this.amenitiesText = amenitiesText;
+            this.status = room.getStatus();
+            this.statusText = statusText;
+        }
+    }
+}
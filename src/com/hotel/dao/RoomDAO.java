@@ -1,57 +1,284 @@
 package com.hotel.dao;
-import com.hotel.models.Amenity;
 import com.hotel.models.Room;
 import com.hotel.models.RoomType;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-public class RoomDAO 
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+public class RoomDAO
 {                   //DAO = Data Access Object:store,add,update,delete data
-    private List<Room> roomList;
+    //primary index:room number -> room, in the order the rooms were added
+    private Map<Integer, IndexedRoom> rooms;
+    //secondary indexes:each bucket maps room number -> room
+    private Map<RoomType, Map<Integer, Room>> roomsByType;
+    private Map<String, Map<Integer, Room>> roomsByStatus;
+    private NavigableMap<Integer, Map<Integer, Room>> roomsByFloor;
+    private NavigableMap<Double, Map<Integer, Room>> roomsByPrice;
+    private Map<Integer, Map<Integer, Room>> roomsByAmenities;   //keyed by the exact amenity mask
     public RoomDAO()
     {
-        roomList = new ArrayList<Room>();
-    } 
+        rooms = new LinkedHashMap<Integer, IndexedRoom>();
+        roomsByType = new EnumMap<RoomType, Map<Integer, Room>>(RoomType.class);
+        roomsByStatus = new HashMap<String, Map<Integer, Room>>();
+        roomsByFloor = new TreeMap<Integer, Map<Integer, Room>>();
+        roomsByPrice = new TreeMap<Double, Map<Integer, Room>>();
+        roomsByAmenities = new HashMap<Integer, Map<Integer, Room>>();
+    }
     //each room number is unique.
-    public void addRoom(Room r) 
+    public void addRoom(Room r)
+    {
+        if (rooms.containsKey(r.getRoomNo()))
+        {
+            throw new IllegalArgumentException("Room number already exists!");
+        }
+        index(r);
+    }
+    public List<Room> getAllRooms()
+    {
+        List<Room> list = new ArrayList<Room>(rooms.size());
+        for (IndexedRoom entry : rooms.values())
+        {
+            list.add(entry.room);
+        }
+        return list;
+    }
+    //find a room by its number, null if there is none
+    public Room getRoom(int roomNo)
+    {
+        IndexedRoom entry = rooms.get(roomNo);
+        return entry == null ? null : entry.room;
+    }
+    public int size()
+    {
+        return rooms.size();
+    }
+    //update room details
+    public boolean updateRoom(Room r)
+    {
+        IndexedRoom old = rooms.get(r.getRoomNo());
+        if (old == null)
+        {
+            return false;
+        }
+        unindex(old);
+        index(r);   //replaces the primary entry in place,so the room keeps its position
+        return true;
+    }
+    //delete room details
+    public boolean deleteRoom(int roomNo)
     {
-        for (int i = 0;i<roomList.size();i++) 
+        IndexedRoom old = rooms.get(roomNo);
+        if (old == null)
         {
-            Room existing = roomList.get(i);
-            if (existing.getRoomNo() == r.getRoomNo()) 
+            return false;
+        }
+        unindex(old);
+        rooms.remove(roomNo);
+        return true;
+    }
+    //rooms matching every criterion of the query, ordered by room number.
+    //Only the most selective index is walked;the other criteria are checked per candidate.
+    public List<Room> findRooms(RoomQuery q)
+    {
+        Collection<Map<Integer, Room>> candidates = null;
+        int best = Integer.MAX_VALUE;
+        if (q.getType() != null)
+        {
+            candidates = bucketList(roomsByType.get(q.getType()));
+            best = countUpTo(candidates, best);
+        }
+        if (q.getStatus() != null)
+        {
+            Collection<Map<Integer, Room>> byStatus = bucketList(roomsByStatus.get(statusKey(q.getStatus())));
+            int count = countUpTo(byStatus, best);
+            if (count < best)
             {
-                throw new IllegalArgumentException("Room number already exists!");
+                candidates = byStatus;
+                best = count;
             }
         }
-        roomList.add(r);
+        if (q.getMinFloor() != null || q.getMaxFloor() != null)
+        {
+            Collection<Map<Integer, Room>> byFloor = range(roomsByFloor, q.getMinFloor(), q.getMaxFloor()).values();
+            int count = countUpTo(byFloor, best);
+            if (count < best)
+            {
+                candidates = byFloor;
+                best = count;
+            }
+        }
+        if (q.getMinPrice() != null || q.getMaxPrice() != null)
+        {
+            Collection<Map<Integer, Room>> byPrice = range(roomsByPrice, q.getMinPrice(), q.getMaxPrice()).values();
+            int count = countUpTo(byPrice, best);
+            if (count < best)
+            {
+                candidates = byPrice;
+                best = count;
+            }
+        }
+        List<Room> result;
+        if (q.getAmenityMask() != 0)
+        {
+            Collection<Map<Integer, Room>> byAmenities = withAllAmenities(q.getAmenityMask());
+            int count = countUpTo(byAmenities, best);
+            if (count < best)
+            {
+                candidates = byAmenities;
+                best = count;
+            }
+        }
+        if (candidates == null)
+        {
+            result = getAllRooms();   //no criteria
+        }
+        else
+        {
+            result = new ArrayList<Room>();
+            for (Map<Integer, Room> bucket : candidates)
+            {
+                for (Room r : bucket.values())
+                {
+                    if (q.matches(r))
+                    {
+                        result.add(r);
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingInt(Room::getRoomNo));
+        return result;
     }
-    public List<Room> getAllRooms() 
+    //add a room to every index, remembering the values it was indexed under
+    private void index(Room r)
     {
-        return roomList;
+        IndexedRoom entry = new IndexedRoom(r);
+        rooms.put(r.getRoomNo(), entry);
+        if (entry.type != null)
+        {
+            bucket(roomsByType, entry.type).put(r.getRoomNo(), r);
+        }
+        bucket(roomsByStatus, entry.status).put(r.getRoomNo(), r);
+        bucket(roomsByFloor, entry.floor).put(r.getRoomNo(), r);
+        bucket(roomsByPrice, entry.price).put(r.getRoomNo(), r);
+        bucket(roomsByAmenities, entry.amenityMask).put(r.getRoomNo(), r);
     }
-    //update room details
-    public boolean updateRoom(Room r) 
+    //remove a room from the secondary indexes using the values it was indexed under,
+    //even if the Room was changed since
+    private void unindex(IndexedRoom entry)
     {
-        for (int i=0;i<roomList.size();i++) 
+        int roomNo = entry.room.getRoomNo();
+        if (entry.type != null)
         {
-            if (roomList.get(i).getRoomNo() == r.getRoomNo()) 
+            removeFromBucket(roomsByType, entry.type, roomNo);
+        }
+        removeFromBucket(roomsByStatus, entry.status, roomNo);
+        removeFromBucket(roomsByFloor, entry.floor, roomNo);
+        removeFromBucket(roomsByPrice, entry.price, roomNo);
+        removeFromBucket(roomsByAmenities, entry.amenityMask, roomNo);
+    }
+    //buckets of every amenity combination that includes all of the required ones;
+    //there are at most 2^n combinations,so this is a few mask ANDs
+    private Collection<Map<Integer, Room>> withAllAmenities(int required)
+    {
+        List<Map<Integer, Room>> buckets = new ArrayList<Map<Integer, Room>>();
+        for (Map.Entry<Integer, Map<Integer, Room>> entry : roomsByAmenities.entrySet())
+        {
+            if ((entry.getKey() & required) == required)
             {
-                roomList.set(i, r);
-                return true;
+                buckets.add(entry.getValue());
             }
         }
-        return false;
+        return buckets;
     }
-    //delete room details
-    public boolean deleteRoom(int roomNo) 
+    private static <K> Map<Integer, Room> bucket(Map<K, Map<Integer, Room>> index, K key)
+    {
+        Map<Integer, Room> bucket = index.get(key);
+        if (bucket == null)
+        {
+            bucket = new LinkedHashMap<Integer, Room>();
+            index.put(key, bucket);
+        }
+        return bucket;
+    }
+    //empty buckets are dropped so range counts never walk them
+    private static <K> void removeFromBucket(Map<K, Map<Integer, Room>> index, K key, int roomNo)
+    {
+        Map<Integer, Room> bucket = index.get(key);
+        if (bucket != null && bucket.remove(roomNo) != null && bucket.isEmpty())
+        {
+            index.remove(key);
+        }
+    }
+    private static Collection<Map<Integer, Room>> bucketList(Map<Integer, Room> bucket)
+    {
+        if (bucket == null)
+        {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(bucket);
+    }
+    //sub-map between two inclusive bounds, either of which may be open
+    private static <K extends Comparable<K>> NavigableMap<K, Map<Integer, Room>> range(
+        NavigableMap<K, Map<Integer, Room>> index, K from, K to)
     {
-        for (int i = 0;i<roomList.size();i++) 
+        if (from != null && to != null)
         {
-            if (roomList.get(i).getRoomNo() == roomNo) 
+            if (from.compareTo(to) > 0)
             {
-                roomList.remove(i);
-                return true;
+                return Collections.emptyNavigableMap();
             }
+            return index.subMap(from, true, to, true);
+        }
+        if (from != null)
+        {
+            return index.tailMap(from, true);
+        }
+        return index.headMap(to, true);
+    }
+    //number of rooms in the buckets,but stop counting once it reaches limit
+    private static int countUpTo(Collection<Map<Integer, Room>> buckets, int limit)
+    {
+        int count = 0;
+        for (Map<Integer, Room> bucket : buckets)
+        {
+            count += bucket.size();
+            if (count >= limit)
+            {
+                return count;
+            }
+        }
+        return count;
+    }
+    private static String statusKey(String status)
+    {
+        return status == null ? "" : status.toUpperCase(Locale.ROOT);
+    }
+    //a room together with the values it is indexed under
+    private static class IndexedRoom
+    {
+        final Room room;
+        final RoomType type;
+        final String status;
+        final int floor;
+        final double price;
+        final int amenityMask;
+        IndexedRoom(Room r)
+        {
+            room = r;
+            type = r.getRoomType();
+            status = statusKey(r.getStatus());
+            floor = r.getFloor();
+            price = r.getPrice();
+            amenityMask = r.getAmenityMask();
         }
-        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package com.hotel.dao;
+import com.hotel.models.Amenity;
+import com.hotel.models.Room;
+import com.hotel.models.RoomType;
+//Criteria for RoomDAO.findRooms:every criterion left unset matches all rooms.
+//e.g. new RoomQuery().type(RoomType.SUITE).floors(3, 5).maxPrice(8000).amenities(Amenity.WIFI, Amenity.AC)
+public class RoomQuery
+{
+    private RoomType type;
+    private String status;
+    private Integer minFloor;
+    private Integer maxFloor;
+    private Double minPrice;
+    private Double maxPrice;
+    private int amenityMask;
+    public RoomQuery type(RoomType type)
+    {
+        this.type = type;
+        return this;
+    }
+    public RoomQuery status(String status)
+    {
+        this.status = status;
+        return this;
+    }
+    //floors from..to, both inclusive
+    public RoomQuery floors(int from, int to)
+    {
+        this.minFloor = from;
+        this.maxFloor = to;
+        return this;
+    }
+    public RoomQuery floor(int floor)
+    {
+        return floors(floor, floor);
+    }
+    //prices are inclusive bounds
+    public RoomQuery minPrice(double minPrice)
+    {
+        this.minPrice = minPrice;
+        return this;
+    }
+    public RoomQuery maxPrice(double maxPrice)
+    {
+        this.maxPrice = maxPrice;
+        return this;
+    }
+    //rooms having all of these amenities
+    public RoomQuery amenities(Amenity... amenities)
+    {
+        this.amenityMask = Amenity.toMask(amenities);
+        return this;
+    }
+    public RoomType getType()
+    {
+        return type;
+    }
+    public String getStatus()
+    {
+        return status;
+    }
+    public Integer getMinFloor()
+    {
+        return minFloor;
+    }
+    public Integer getMaxFloor()
+    {
+        return maxFloor;
+    }
+    public Double getMinPrice()
+    {
+        return minPrice;
+    }
+    public Double getMaxPrice()
+    {
+        return maxPrice;
+    }
+    //required amenities as bits,0 if none
+    public int getAmenityMask()
+    {
+        return amenityMask;
+    }
+    //check one room against every criterion
+    public boolean matches(Room r)
+    {
+        return (type == null || r.getRoomType() == type)
+            && (status == null || (r.getStatus() != null && r.getStatus().equalsIgnoreCase(status)))
+            && (minFloor == null || r.getFloor() >= minFloor)
+            && (maxFloor == null || r.getFloor() <= maxFloor)
+            && (minPrice == null || r.getPrice() >= minPrice)
+            && (maxPrice == null || r.getPrice() <= maxPrice)
+            && r.hasAllAmenities(amenityMask);
+    }
+    public String toString()
+    {
+        return "RoomQuery[type=" + type + ", status=" + status + ", floors=" + minFloor + ".." + maxFloor
+            + ", price=" + minPrice + ".." + maxPrice + ", amenities=" + Amenity.describe(amenityMask) + "]";
+    }
+}
@@ -0,0 +1,181 @@
+package com.hotel.dao;
+import com.hotel.models.Amenity;
+import com.hotel.models.Room;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+//Word-prefix index for the room search box.
+//Each room is indexed under its number, type, status words and amenity names.
+//A query matches the rooms where every word of the query starts one of those tokens,
+//e.g. "suite wi" finds suites with WiFi and "10" finds rooms 10,101,1005...
+//Rooms get a dense slot number,so each token's rooms are a BitSet and a query is a few ORs and ANDs.
+//Room numbers are unique,so they map straight to their slot instead of having a BitSet each.
+public class RoomSearchIndex
+{
+    private NavigableMap<String, BitSet> slotsByToken;   //sorted,so a prefix is a sub-map
+    private NavigableMap<String, Integer> slotByNumber;   //room number as text -> slot
+    private Map<Integer, Integer> slotByRoom;
+    private int[] roomBySlot;
+    private String[][] tokensBySlot;
+    private BitSet usedSlots;
+    private int freeSlotHint;   //no free slot below this
+    public RoomSearchIndex()
+    {
+        slotsByToken = new TreeMap<String, BitSet>();
+        slotByNumber = new TreeMap<String, Integer>();
+        slotByRoom = new HashMap<Integer, Integer>();
+        roomBySlot = new int[16];
+        tokensBySlot = new String[16][];
+        usedSlots = new BitSet();
+    }
+    //replace the whole index
+    public void rebuild(Collection<Room> rooms)
+    {
+        slotsByToken.clear();
+        slotByNumber.clear();
+        slotByRoom.clear();
+        usedSlots.clear();
+        freeSlotHint = 0;
+        Arrays.fill(tokensBySlot, null);
+        for (Room r : rooms)
+        {
+            add(r);
+        }
+    }
+    //add a room,or re-index it if it is already present
+    public void add(Room r)
+    {
+        remove(r.getRoomNo());
+        int slot = usedSlots.nextClearBit(freeSlotHint);
+        freeSlotHint = slot + 1;
+        if (slot == roomBySlot.length)
+        {
+            roomBySlot = Arrays.copyOf(roomBySlot, slot * 2);
+            tokensBySlot = Arrays.copyOf(tokensBySlot, slot * 2);
+        }
+        String[] tokens = tokensOf(r);
+        usedSlots.set(slot);
+        slotByRoom.put(r.getRoomNo(), slot);
+        roomBySlot[slot] = r.getRoomNo();
+        tokensBySlot[slot] = tokens;
+        slotByNumber.put(String.valueOf(r.getRoomNo()), slot);
+        for (String token : tokens)
+        {
+            BitSet slots = slotsByToken.get(token);
+            if (slots == null)
+            {
+                slots = new BitSet();
+                slotsByToken.put(token, slots);
+            }
+            slots.set(slot);
+        }
+    }
+    public void remove(int roomNo)
+    {
+        Integer slot = slotByRoom.remove(roomNo);
+        if (slot == null)
+        {
+            return;
+        }
+        for (String token : tokensBySlot[slot])
+        {
+            BitSet slots = slotsByToken.get(token);
+            slots.clear(slot);
+            if (slots.isEmpty())
+            {
+                slotsByToken.remove(token);
+            }
+        }
+        tokensBySlot[slot] = null;
+        slotByNumber.remove(String.valueOf(roomNo));
+        usedSlots.clear(slot);
+        freeSlotHint = Math.min(freeSlotHint, slot);
+    }
+    public int size()
+    {
+        return slotByRoom.size();
+    }
+    //room numbers matching every word of the query;a blank query matches every room
+    public Set<Integer> search(String query)
+    {
+        BitSet result = (BitSet) usedSlots.clone();
+        for (String word : words(query))
+        {
+            BitSet matches = new BitSet();
+            //every token starting with word sorts between word and word + the highest char
+            String end = word + Character.MAX_VALUE;
+            for (BitSet slots : slotsByToken.subMap(word, true, end, true).values())
+            {
+                matches.or(slots);
+            }
+            for (int slot : slotByNumber.subMap(word, true, end, true).values())
+            {
+                matches.set(slot);
+            }
+            result.and(matches);
+            if (result.isEmpty())
+            {
+                break;
+            }
+        }
+        Set<Integer> rooms = new HashSet<Integer>(result.cardinality() * 2);
+        for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1))
+        {
+            rooms.add(roomBySlot[slot]);
+        }
+        return rooms;
+    }
+    private static String[] tokensOf(Room r)
+    {
+        List<String> tokens = new ArrayList<String>();
+        if (r.getRoomType() != null)
+        {
+            tokens.add(r.getRoomType().name().toLowerCase(Locale.ROOT));
+        }
+        tokens.addAll(words(r.getStatus()));
+        for (Amenity amenity : Amenity.values())
+        {
+            if (r.hasAmenity(amenity))
+            {
+                String name = amenity.name().toLowerCase(Locale.ROOT);
+                tokens.add(name);                           //"mini_bar"
+                tokens.addAll(words(name.replace('_', ' ')));   //"mini","bar"
+            }
+        }
+        return new HashSet<String>(tokens).toArray(new String[0]);
+    }
+    //lower-case words split at spaces and commas
+    private static List<String> words(String text)
+    {
+        List<String> words = new ArrayList<String>();
+        if (text == null)
+        {
+            return words;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++)
+        {
+            boolean separator = i == lower.length() || Character.isWhitespace(lower.charAt(i)) || lower.charAt(i) == ',';
+            if (separator && start >= 0)
+            {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+            else if (!separator && start < 0)
+            {
+                start = i;
+            }
+        }
+        return words;
+    }
+}
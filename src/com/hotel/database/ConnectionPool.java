@@ -0,0 +1,495 @@
+package com.hotel.database;
+
+import com.hotel.metrics.JdbcMetrics;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Bounded JDBC connection pool exposed as a DataSource
+ * Callers borrow with getConnection() and return the connection by closing it,
+ * normally through try-with-resources.
+ *
+ * - At most maxSize connections are handed out; further callers wait up to the borrow timeout
+ * - Connections idle for longer than the validation interval are checked with isValid() on borrow
+ * - A housekeeping thread evicts idle connections above minSize and tops the pool back up
+ * - With a leak threshold set (hotel.pool.leakThresholdMillis, off by default), connections
+ *   held longer are reported with the borrower's stack trace; the trace is only captured then
+ * - Statements are timed per SQL string and slow ones logged; see getJdbcMetrics()
+ */
+public class ConnectionPool implements DataSource {
+    
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    
+    private volatile long borrowTimeoutMillis = 5000;
+    private volatile long validationIntervalMillis = 1000;
+    private volatile int validationTimeoutSeconds = 2;
+    private volatile long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(10);
+    private volatile long leakThresholdMillis = Long.getLong("hotel.pool.leakThresholdMillis", 0);
+    
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+    
+    // Pool metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder validationFailureCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final JdbcMetrics jdbcMetrics = new JdbcMetrics();
+    
+    public ConnectionPool(String url, String username, String password, int minSize, int maxSize) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, 30, 30, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Open minSize connections up front instead of on first use
+     */
+    public void warmUp() throws SQLException {
+        while (totalConnections.get() < minSize) {
+            idleConnections.offerLast(createConnection());
+        }
+    }
+    
+    /**
+     * Borrow a connection from the pool
+     * Closing the returned connection hands it back to the pool.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis
+                    + " ms waiting for a database connection (" + getActiveConnections() + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        
+        try {
+            PooledConnection pooled = takeValidConnection();
+            pooled.borrowedAt = System.currentTimeMillis();
+            // Capturing a stack trace on every borrow is costly, so only do it when someone is looking
+            pooled.borrower = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowedConnections.add(pooled);
+            borrowCount.increment();
+            long waitNanos = System.nanoTime() - start;
+            totalWaitNanos.add(waitNanos);
+            jdbcMetrics.recordPoolWait(waitNanos);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use the pool's credentials");
+    }
+    
+    private PooledConnection takeValidConnection() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            validationFailureCount.increment();
+            destroy(pooled);
+        }
+        return createConnection();
+    }
+    
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsed < validationIntervalMillis) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        totalConnections.incrementAndGet();
+        createdCount.increment();
+        return new PooledConnection(physical);
+    }
+    
+    /**
+     * Return a connection to the pool, resetting any state the borrower left behind
+     */
+    private void release(PooledConnection pooled) {
+        borrowedConnections.remove(pooled);
+        boolean reusable = !closed;
+        try {
+            if (pooled.physical.isClosed()) {
+                reusable = false;
+            } else if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                pooled.physical.clearWarnings();
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        
+        if (reusable) {
+            pooled.lastUsed = System.currentTimeMillis();
+            idleConnections.offerFirst(pooled);
+        } else {
+            destroy(pooled);
+        }
+        permits.release();
+    }
+    
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        destroyedCount.increment();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Evict stale idle connections, refill to minSize and report leaks
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        
+        Iterator<PooledConnection> it = idleConnections.descendingIterator();
+        while (it.hasNext() && totalConnections.get() > minSize) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsed > idleTimeoutMillis && idleConnections.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+        
+        try {
+            if (!closed) {
+                while (totalConnections.get() < minSize && permits.availablePermits() > 0) {
+                    idleConnections.offerLast(createConnection());
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Connection pool could not refill to minimum size: " + e.getMessage());
+        }
+        
+        long leakThreshold = leakThresholdMillis;
+        if (leakThreshold <= 0) {
+            return;
+        }
+        for (PooledConnection pooled : borrowedConnections) {
+            Throwable borrower = pooled.borrower;
+            // Borrowed before detection was switched on: no trace to report
+            if (borrower != null && !pooled.leakReported && now - pooled.borrowedAt > leakThreshold) {
+                pooled.leakReported = true;
+                leakCount.increment();
+                System.err.println("Possible connection leak: connection held for "
+                    + (now - pooled.borrowedAt) + " ms");
+                borrower.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * Close all idle connections and stop the housekeeping thread
+     * Borrowed connections are closed as they are returned.
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        jdbcMetrics.unregisterMBean();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+    
+    public boolean isShutdown() {
+        return closed;
+    }
+    
+    // Configuration
+    
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+    
+    public void setValidationIntervalMillis(long validationIntervalMillis) {
+        this.validationIntervalMillis = validationIntervalMillis;
+    }
+    
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+    
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+    
+    /**
+     * Report connections held longer than this; 0 switches leak detection off
+     */
+    public void setLeakThresholdMillis(long leakThresholdMillis) {
+        this.leakThresholdMillis = leakThresholdMillis;
+    }
+    
+    public int getMinSize() {
+        return minSize;
+    }
+    
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    // Metrics
+    
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+    
+    public int getActiveConnections() {
+        return borrowedConnections.size();
+    }
+    
+    public int getIdleConnections() {
+        return idleConnections.size();
+    }
+    
+    public int getThreadsAwaitingConnection() {
+        return permits.getQueueLength();
+    }
+    
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+    
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+    
+    public long getDestroyedCount() {
+        return destroyedCount.sum();
+    }
+    
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+    
+    public long getValidationFailureCount() {
+        return validationFailureCount.sum();
+    }
+    
+    public long getLeakCount() {
+        return leakCount.sum();
+    }
+    
+    /**
+     * Statement timings, row counts and slow queries for connections from this pool
+     */
+    public JdbcMetrics getJdbcMetrics() {
+        return jdbcMetrics;
+    }
+    
+    /**
+     * Average time callers spent waiting in getConnection()
+     */
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.sum();
+        return borrows == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / borrows;
+    }
+    
+    @Override
+    public String toString() {
+        return "ConnectionPool{total=" + getTotalConnections() +
+                ", active=" + getActiveConnections() +
+                ", idle=" + getIdleConnections() +
+                ", waiting=" + getThreadsAwaitingConnection() +
+                ", borrows=" + getBorrowCount() +
+                ", timeouts=" + getTimeoutCount() +
+                ", leaks=" + getLeakCount() +
+                ", avgWaitMs=" + String.format("%.3f", getAverageWaitMillis()) + '}';
+    }
+    
+    // Remaining DataSource methods
+    
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter();
+    }
+    
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        DriverManager.setLogWriter(out);
+    }
+    
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+    
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+    
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("java.util.logging is not used by the pool");
+    }
+    
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ConnectionPool does not wrap " + iface.getName());
+    }
+    
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+    
+    /**
+     * A physical connection owned by the pool
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile Throwable borrower;
+        private volatile boolean leakReported;
+        
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+        
+        /**
+         * Each borrow gets its own handle so a closed handle cannot touch the next borrower's session
+         */
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new HandleInvocationHandler(this));
+        }
+    }
+    
+    private class HandleInvocationHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean handleClosed = new AtomicBoolean();
+        
+        HandleInvocationHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+        
+        /**
+         * Not synchronized: a monitor held across the JDBC call would pin a virtual thread to its carrier
+         */
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (handleClosed.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (handleClosed.get() ? ", returned]" : "]");
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (handleClosed.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement && jdbcMetrics.isEnabled()) {
+                // createStatement(), or prepareStatement(sql, ...) / prepareCall(sql, ...)
+                String sql = method.getName().equals("createStatement") ? null : (String) args[0];
+                return InstrumentedStatement.wrap(method.getReturnType(), (Statement) result, sql, jdbcMetrics);
+            }
+            return result;
+        }
+    }
+}
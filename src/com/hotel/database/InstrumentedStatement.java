@@ -0,0 +1,235 @@
+package com.hotel.database;
+
+import com.hotel.metrics.JdbcMetrics;
+import com.hotel.metrics.JdbcStatementEvent;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Statement wrapper that reports to JdbcMetrics
+ * Executions are timed, bound parameters remembered for the slow-query log,
+ * and rows counted as the caller reads the result set. Each execution is also
+ * a JdbcStatementEvent for Flight Recorder.
+ */
+final class InstrumentedStatement implements InvocationHandler {
+    
+    private final Statement target;
+    private final String preparedSql;
+    private final JdbcMetrics metrics;
+    private Object[] parameters;
+    private String batchSql;
+    private String lastSql;
+    
+    private InstrumentedStatement(Statement target, String preparedSql, JdbcMetrics metrics) {
+        this.target = target;
+        this.preparedSql = preparedSql;
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Wrap a statement
+     * @param type the interface to expose: Statement, PreparedStatement or CallableStatement
+     * @param preparedSql the statement's SQL if it was prepared, otherwise null
+     */
+    static Statement wrap(Class<?> type, Statement target, String preparedSql, JdbcMetrics metrics) {
+        return (Statement) Proxy.newProxyInstance(
+            Statement.class.getClassLoader(),
+            new Class<?>[] { type },
+            new InstrumentedStatement(target, preparedSql, metrics));
+    }
+    
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "executeQuery":
+            case "executeUpdate":
+            case "executeLargeUpdate":
+            case "execute":
+            case "executeBatch":
+            case "executeLargeBatch":
+                return execute(method, args);
+            case "getResultSet":
+                // After execute(): the rows belong to the statement just run
+                Object resultSet = forward(method, args);
+                return resultSet == null ? null : CountingResultSet.wrap((ResultSet) resultSet, lastSql, metrics);
+            case "clearParameters":
+                parameters = null;
+                break;
+            case "addBatch":
+                if (batchSql == null) {
+                    batchSql = args != null && args.length == 1 ? (String) args[0] : preparedSql;
+                }
+                break;
+            case "clearBatch":
+                batchSql = null;
+                break;
+            case "unwrap":
+                if (((Class<?>) args[0]).isInstance(proxy)) {
+                    return proxy;
+                }
+                break;
+            case "isWrapperFor":
+                if (((Class<?>) args[0]).isInstance(proxy)) {
+                    return true;
+                }
+                break;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                // setInt(1, 42), setString(2, "x"), setNull(3, Types.DATE) ...
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                        && PreparedStatement.class.isAssignableFrom(method.getDeclaringClass())) {
+                    remember((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                }
+                break;
+        }
+        return forward(method, args);
+    }
+    
+    private Object forward(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private Object execute(Method method, Object[] args) throws Throwable {
+        boolean batch = method.getName().equals("executeBatch") || method.getName().equals("executeLargeBatch");
+        String sql;
+        if (batch) {
+            sql = batchSql != null ? batchSql : preparedSql;
+            batchSql = null;
+        } else {
+            sql = args != null && args.length > 0 ? (String) args[0] : preparedSql;
+        }
+        lastSql = sql;
+        JdbcStatementEvent event = new JdbcStatementEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = forward(method, args);
+        } catch (Throwable e) {
+            metrics.recordExecution(sql, System.nanoTime() - start, 0, true, parameters);
+            event.end(sql, 0, true);
+            throw e;
+        }
+        long rows = changedRows(result);
+        metrics.recordExecution(sql, System.nanoTime() - start, rows, false, parameters);
+        event.end(sql, rows, false);
+        if (result instanceof ResultSet) {
+            return CountingResultSet.wrap((ResultSet) result, sql, metrics);
+        }
+        return result;
+    }
+    
+    private void remember(int index, Object value) {
+        if (index < 1 || index > 1000) {
+            return;
+        }
+        if (parameters == null) {
+            parameters = new Object[index + 1];
+        } else if (parameters.length <= index) {
+            // Exactly as long as the highest index, so the log shows no phantom parameters
+            parameters = Arrays.copyOf(parameters, index + 1);
+        }
+        parameters[index] = value;
+    }
+    
+    private static long changedRows(Object result) {
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        long total = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                total += Math.max(0, count);
+            }
+        } else if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                total += Math.max(0, count);
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Counts next() calls that found a row and reports them once, at the end or on close
+     */
+    private static final class CountingResultSet implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private final JdbcMetrics metrics;
+        private long rows;
+        private boolean reported;
+        
+        private CountingResultSet(ResultSet target, String sql, JdbcMetrics metrics) {
+            this.target = target;
+            this.sql = sql;
+            this.metrics = metrics;
+        }
+        
+        static ResultSet wrap(ResultSet target, String sql, JdbcMetrics metrics) {
+            return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class },
+                new CountingResultSet(target, sql, metrics));
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    boolean hasRow = target.next();
+                    if (hasRow) {
+                        rows++;
+                    } else {
+                        report();
+                    }
+                    return hasRow;
+                case "close":
+                    report();
+                    target.close();
+                    return null;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        
+        private void report() {
+            if (!reported) {
+                reported = true;
+                metrics.recordRows(sql, rows);
+            }
+        }
+    }
+}
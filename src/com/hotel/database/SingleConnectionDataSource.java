@@ -0,0 +1,88 @@
+package com.hotel.database;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * DataSource over one caller-owned Connection
+ * Lets code written against a DataSource keep working when it is handed a plain
+ * Connection: close() on the borrowed handle is ignored, and the caller stays
+ * responsible for closing the real connection.
+ */
+public class SingleConnectionDataSource implements DataSource {
+    
+    private final Connection connection;
+    private final Connection handle;
+    
+    public SingleConnectionDataSource(Connection connection) {
+        this.connection = connection;
+        this.handle = (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName())) {
+                    return null;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            throw new SQLException("Database connection is not available");
+        }
+        return handle;
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+    
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+    
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+    
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+    
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+    
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+    
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("SingleConnectionDataSource does not wrap " + iface.getName());
+    }
+    
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
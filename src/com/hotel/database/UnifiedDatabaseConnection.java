@@ -8,6 +8,7 @@ import java.sql.SQLException;
  * Unified Database Connection class for the Hotel Management System
  * This class provides a centralized way to manage database connections
  * across all modules (Authentication, Room Management, Booking Management)
+ * through a shared connection pool.
  */
 public class UnifiedDatabaseConnection {
     
@@ -16,7 +17,11 @@ public class UnifiedDatabaseConnection {
     private static final String USERNAME = "root";
     private static final String PASSWORD = "NDP@2006"; // Using the password from db.properties
     
-    private static Connection connection = null;
+    // Pool configuration
+    private static final int MIN_POOL_SIZE = 2;
+    private static final int MAX_POOL_SIZE = 10;
+    
+    private static ConnectionPool dataSource = null;
     
     static {
         try {
@@ -29,21 +34,45 @@ public class UnifiedDatabaseConnection {
     }
     
     /**
-     * Get database connection (Singleton pattern)
+     * Get the shared connection pool (created on first use)
+     * @return pooled DataSource
+     */
+    public static synchronized ConnectionPool getDataSource() {
+        if (dataSource == null || dataSource.isShutdown()) {
+            dataSource = new ConnectionPool(URL, USERNAME, PASSWORD, MIN_POOL_SIZE, MAX_POOL_SIZE);
+            dataSource.getJdbcMetrics().registerMBean("hotel");
+        }
+        return dataSource;
+    }
+    
+    /**
+     * Point the shared pool at another database, e.g. for load tests
+     * The previous pool is shut down.
+     * @param pool pool to use from now on
+     */
+    public static synchronized void setDataSource(ConnectionPool pool) {
+        if (dataSource != null && dataSource != pool) {
+            dataSource.shutdown();
+        }
+        dataSource = pool;
+        if (pool != null) {
+            pool.getJdbcMetrics().registerMBean("hotel");
+        }
+    }
+    
+    /**
+     * Borrow a connection from the pool
+     * The caller must close it (try-with-resources) to return it to the pool.
      * @return Connection object
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-                System.out.println("Database connection established successfully.");
-            } catch (SQLException e) {
-                System.err.println("Failed to establish database connection: " + e.getMessage());
-                throw e;
-            }
+        try {
+            return getDataSource().getConnection();
+        } catch (SQLException e) {
+            System.err.println("Failed to establish database connection: " + e.getMessage());
+            throw e;
         }
-        return connection;
     }
     
     /**
@@ -51,8 +80,7 @@ public class UnifiedDatabaseConnection {
      * @return true if connection is successful, false otherwise
      */
     public static boolean testConnection() {
-        try {
-            Connection testConn = getConnection();
+        try (Connection testConn = getConnection()) {
             if (testConn != null && !testConn.isClosed()) {
                 System.out.println("Database connection test successful.");
                 return true;
@@ -64,22 +92,19 @@ public class UnifiedDatabaseConnection {
     }
     
     /**
-     * Close database connection
+     * Shut down the connection pool
      */
-    public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                connection = null;
-                System.out.println("Database connection closed successfully.");
-            } catch (SQLException e) {
-                System.err.println("Error closing database connection: " + e.getMessage());
-            }
+    public static synchronized void closeConnection() {
+        if (dataSource != null) {
+            System.out.println("Closing connection pool: " + dataSource);
+            dataSource.shutdown();
+            dataSource = null;
+            System.out.println("Database connection closed successfully.");
         }
     }
     
     /**
-     * Get a new connection instance (for cases where multiple connections are needed)
+     * Get a new connection instance outside the pool
      * @return New Connection object
      * @throws SQLException if connection fails
      */
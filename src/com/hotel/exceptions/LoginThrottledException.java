@@ -0,0 +1,22 @@
+package com.hotel.exceptions;
+
+/**
+ * Thrown when a login attempt is refused by the rate limiter
+ * The password was not checked and the database was not queried.
+ */
+public class LoginThrottledException extends Exception {
+    
+    private final long retryAfterMillis;
+    
+    public LoginThrottledException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+    
+    /**
+     * Time until the next attempt would be allowed
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
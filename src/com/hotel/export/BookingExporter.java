@@ -0,0 +1,488 @@
+package com.hotel.export;
+
+import com.hotel.api.JsonWriter;
+import com.hotel.database.ConnectionPool;
+import com.hotel.database.UnifiedDatabaseConnection;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import javax.sql.DataSource;
+
+/**
+ * BookingExporter - streams bookings to a file as CSV or JSON Lines
+ * Rows go from a forward-only, read-only result set straight into a reused
+ * 64 KB buffer and on to a FileChannel (through a GZIPOutputStream when asked),
+ * one row at a time. Nothing is collected, so memory stays the same whether
+ * the export has a hundred rows or ten million.
+ *
+ * - MySQL streams the result set when the fetch size is Integer.MIN_VALUE;
+ *   other drivers are given a fetch size of 1000 inside a read-only
+ *   transaction, which is what cursor-based drivers need
+ * - The file is written next to the target under a temporary name and moved
+ *   into place at the end, so a failed or cancelled export leaves nothing behind
+ * - Interrupting the exporting thread cancels the export
+ * - The connection is held for the whole export, so with the pool's leak
+ *   detection on a long one shows up once in its warnings
+ *
+ * Usage: java com.hotel.export.BookingExporter --out bookings.csv [--format csv|jsonl] [--gzip]
+ *        [--from 2024-01-01] [--to 2024-12-31] [--status CONFIRMED,CHECKED_OUT] [--jdbc url user password]
+ */
+public class BookingExporter {
+    
+    public enum Format {
+        CSV(".csv"), JSON_LINES(".jsonl");
+        
+        private final String extension;
+        
+        Format(String extension) {
+            this.extension = extension;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+    }
+    
+    /**
+     * Told how far an export has got, every PROGRESS_INTERVAL rows and at the end
+     */
+    public interface ProgressListener {
+        void rowsExported(long rows);
+    }
+    
+    public static final int PROGRESS_INTERVAL = 10_000;
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FETCH_SIZE = 1000;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] COLUMNS = {
+        "booking_id", "customer_id", "room_id", "customer_name", "customer_email", "customer_phone",
+        "check_in_date", "check_out_date", "status", "total_amount", "booking_date"
+    };
+    
+    private final DataSource dataSource;
+    
+    public BookingExporter(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+    
+    /**
+     * Bookings to export; by default all of them
+     */
+    public static class Filter {
+        private LocalDate checkInFrom;
+        private LocalDate checkInTo;
+        private final Set<String> statuses = new LinkedHashSet<>();
+        
+        /**
+         * Only bookings checking in on or after this date
+         */
+        public Filter checkInFrom(LocalDate from) {
+            this.checkInFrom = from;
+            return this;
+        }
+        
+        /**
+         * Only bookings checking in on or before this date
+         */
+        public Filter checkInTo(LocalDate to) {
+            this.checkInTo = to;
+            return this;
+        }
+        
+        /**
+         * Only bookings in one of these statuses; may be called more than once
+         */
+        public Filter status(String... statuses) {
+            for (String status : statuses) {
+                this.statuses.add(status.toUpperCase(Locale.ROOT));
+            }
+            return this;
+        }
+        
+        public LocalDate getCheckInFrom() {
+            return checkInFrom;
+        }
+        
+        public LocalDate getCheckInTo() {
+            return checkInTo;
+        }
+        
+        public Set<String> getStatuses() {
+            return statuses;
+        }
+    }
+    
+    /**
+     * Export to a file, replacing it if it exists
+     * @param listener told the running row count, or null
+     * @return rows exported
+     */
+    public long export(Filter filter, Format format, boolean gzip, Path target, ProgressListener listener)
+            throws SQLException, IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".part");
+        boolean done = false;
+        try {
+            long rows;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                rows = export(filter, format, gzip, channel, listener);
+                channel.force(false);
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            done = true;
+            return rows;
+        } finally {
+            if (!done) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+    
+    /**
+     * Export to a channel, which is left open
+     * @return rows exported
+     */
+    public long export(Filter filter, Format format, boolean gzip, WritableByteChannel channel,
+                       ProgressListener listener) throws SQLException, IOException {
+        List<Object> parameters = new ArrayList<>();
+        String query = buildQuery(filter, parameters);
+        try (Connection connection = dataSource.getConnection()) {
+            boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+            // PostgreSQL and friends only honour the fetch size inside a transaction
+            boolean ownTransaction = !mysql && connection.getAutoCommit();
+            boolean readOnly = connection.isReadOnly();
+            if (ownTransaction) {
+                connection.setReadOnly(true);
+                connection.setAutoCommit(false);
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(mysql ? Integer.MIN_VALUE : FETCH_SIZE);
+                for (int i = 0; i < parameters.size(); i++) {
+                    stmt.setObject(i + 1, parameters.get(i));
+                }
+                ResultSet rs = stmt.executeQuery();
+                long rows;
+                try {
+                    rows = writeRows(rs, format, gzip, channel, listener);
+                } catch (IOException | SQLException | RuntimeException e) {
+                    abandon(stmt, rs);
+                    throw e;
+                }
+                rs.close();
+                return rows;
+            } finally {
+                if (ownTransaction) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                    connection.setReadOnly(readOnly);
+                }
+            }
+        }
+    }
+    
+    private static String buildQuery(Filter filter, List<Object> parameters) {
+        StringBuilder query = new StringBuilder("SELECT ").append(String.join(", ", COLUMNS)).append(" FROM bookings");
+        List<String> conditions = new ArrayList<>();
+        if (filter.getCheckInFrom() != null) {
+            conditions.add("check_in_date >= ?");
+            parameters.add(Date.valueOf(filter.getCheckInFrom()));
+        }
+        if (filter.getCheckInTo() != null) {
+            conditions.add("check_in_date <= ?");
+            parameters.add(Date.valueOf(filter.getCheckInTo()));
+        }
+        if (!filter.getStatuses().isEmpty()) {
+            conditions.add("status IN (" + String.join(", ", Collections.nCopies(filter.getStatuses().size(), "?")) + ")");
+            parameters.addAll(filter.getStatuses());
+        }
+        if (!conditions.isEmpty()) {
+            query.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        // Served by idx_bookings_page, so the server streams rows instead of sorting them first
+        return query.append(" ORDER BY check_in_date, booking_id").toString();
+    }
+    
+    private static long writeRows(ResultSet rs, Format format, boolean gzip, WritableByteChannel channel,
+                                  ProgressListener listener) throws SQLException, IOException {
+        ChannelSink sink = new ChannelSink(channel, gzip);
+        StringWriter line = new StringWriter(512);
+        StringBuffer text = line.getBuffer();
+        if (format == Format.CSV) {
+            text.append(String.join(",", COLUMNS)).append("\r\n");
+            sink.write(text);
+        }
+        long rows = 0;
+        while (rs.next()) {
+            text.setLength(0);
+            int bookingId = rs.getInt(1);
+            int customerId = rs.getInt(2);
+            Integer customer = rs.wasNull() ? null : customerId;
+            int roomId = rs.getInt(3);
+            String name = rs.getString(4);
+            String email = rs.getString(5);
+            String phone = rs.getString(6);
+            LocalDate checkIn = rs.getObject(7, LocalDate.class);
+            LocalDate checkOut = rs.getObject(8, LocalDate.class);
+            String status = rs.getString(9);
+            BigDecimal total = rs.getBigDecimal(10);
+            LocalDateTime booked = rs.getObject(11, LocalDateTime.class);
+            if (format == Format.CSV) {
+                text.append(bookingId).append(',');
+                if (customer != null) {
+                    text.append(customerId);
+                }
+                text.append(',').append(roomId).append(',');
+                appendCsv(text, name).append(',');
+                appendCsv(text, email).append(',');
+                appendCsv(text, phone).append(',');
+                appendCsv(text, checkIn == null ? null : checkIn.toString()).append(',');
+                appendCsv(text, checkOut == null ? null : checkOut.toString()).append(',');
+                appendCsv(text, status).append(',');
+                appendCsv(text, total == null ? null : total.toPlainString()).append(',');
+                if (booked != null) {
+                    TIMESTAMP.formatTo(booked, text);
+                }
+                text.append("\r\n");
+            } else {
+                JsonWriter json = new JsonWriter(line);
+                json.beginObject()
+                    .name("bookingId").value(bookingId)
+                    .name("customerId");
+                if (customer != null) {
+                    json.value(customerId);
+                } else {
+                    json.nullValue();
+                }
+                json.name("roomId").value(roomId)
+                    .name("customerName").value(name)
+                    .name("customerEmail").value(email)
+                    .name("customerPhone").value(phone)
+                    .name("checkIn").value(checkIn)
+                    .name("checkOut").value(checkOut)
+                    .name("status").value(status)
+                    .name("totalAmount").value(total)
+                    .name("bookingDate").value(booked == null ? null : TIMESTAMP.format(booked))
+                    .endObject();
+                text.append('\n');
+            }
+            sink.write(text);
+            rows++;
+            if (rows % PROGRESS_INTERVAL == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Export cancelled after " + rows + " rows");
+                }
+                if (listener != null) {
+                    listener.rowsExported(rows);
+                }
+            }
+        }
+        sink.finish();
+        if (listener != null) {
+            listener.rowsExported(rows);
+        }
+        return rows;
+    }
+    
+    // RFC 4180: quote fields holding a comma, quote or line break, doubling the quotes
+    private static StringBuffer appendCsv(StringBuffer text, String value) {
+        if (value == null) {
+            return text;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return text.append(value);
+        }
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                text.append('"');
+            }
+            text.append(c);
+        }
+        return text.append('"');
+    }
+    
+    // Cancel before closing: closing a streaming MySQL result set first reads every remaining row
+    private static void abandon(PreparedStatement stmt, ResultSet rs) {
+        try {
+            stmt.cancel();
+        } catch (SQLException e) {
+            System.err.println("Could not cancel export query: " + e.getMessage());
+        }
+        try {
+            rs.close();
+        } catch (SQLException e) {
+            System.err.println("Could not close export result set: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * UTF-8 encodes rows into one reused buffer and writes it out when full,
+     * straight to the channel or through gzip
+     */
+    private static final class ChannelSink {
+        private final WritableByteChannel channel;
+        private final GZIPOutputStream gzip;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        // A stray surrogate in a guest's name becomes '?' rather than failing the export
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        
+        ChannelSink(WritableByteChannel channel, boolean gzip) throws IOException {
+            this.channel = channel;
+            this.gzip = gzip ? new FastGzip(Channels.newOutputStream(channel)) : null;
+        }
+        
+        void write(CharSequence text) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, false);
+                if (result.isUnderflow()) {
+                    return;
+                }
+                if (result.isOverflow()) {
+                    drain();
+                } else {
+                    result.throwException();
+                }
+            }
+        }
+        
+        void finish() throws IOException {
+            while (encoder.encode(CharBuffer.allocate(0), buffer, true).isOverflow()) {
+                drain();
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                drain();
+            }
+            drain();
+            if (gzip != null) {
+                // Writes the trailer but leaves the channel open for the caller
+                gzip.finish();
+                gzip.flush();
+            }
+        }
+        
+        private void drain() throws IOException {
+            buffer.flip();
+            if (gzip != null) {
+                gzip.write(buffer.array(), 0, buffer.limit());
+            } else {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            buffer.clear();
+        }
+    }
+    
+    /**
+     * Gzip at a lower level than the default: exports are written once and read
+     * rarely, and level 6 would make compression, not the database, the bottleneck
+     */
+    private static final class FastGzip extends GZIPOutputStream {
+        FastGzip(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Filter filter = new Filter();
+        Format format = Format.CSV;
+        boolean gzip = false;
+        Path out = null;
+        String[] jdbc = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--out": out = Paths.get(args[++i]); break;
+                    case "--format":
+                        String name = args[++i].toLowerCase(Locale.ROOT);
+                        if (!name.equals("csv") && !name.equals("jsonl")) {
+                            throw new IllegalArgumentException("--format is csv or jsonl");
+                        }
+                        format = name.equals("csv") ? Format.CSV : Format.JSON_LINES;
+                        break;
+                    case "--gzip": gzip = true; break;
+                    case "--from": filter.checkInFrom(LocalDate.parse(args[++i])); break;
+                    case "--to": filter.checkInTo(LocalDate.parse(args[++i])); break;
+                    case "--status": filter.status(args[++i].split(",")); break;
+                    case "--jdbc":
+                        if (i + 3 >= args.length) {
+                            throw new IllegalArgumentException("--jdbc expects url, user and password");
+                        }
+                        jdbc = new String[] {args[i + 1], args[i + 2], args[i + 3]};
+                        i += 3;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (out == null) {
+                throw new IllegalArgumentException("--out is required");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java com.hotel.export.BookingExporter --out file [--format csv|jsonl] [--gzip] "
+                + "[--from yyyy-mm-dd] [--to yyyy-mm-dd] [--status S1,S2] [--jdbc url user password]");
+            System.exit(2);
+        }
+        ConnectionPool pool = jdbc != null
+            ? new ConnectionPool(jdbc[0], jdbc[1], jdbc[2], 1, 1)
+            : UnifiedDatabaseConnection.getDataSource();
+        long start = System.nanoTime();
+        long rows = new BookingExporter(pool).export(filter, format, gzip, out,
+            count -> System.out.printf("  %,d rows%n", count));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Exported %,d bookings to %s in %.1f s (%,.0f rows/s, %,d bytes)%n",
+            rows, out, seconds, rows / seconds, Files.size(out));
+        pool.shutdown();
+    }
+}
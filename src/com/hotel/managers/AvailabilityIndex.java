@@ -0,0 +1,287 @@
+package com.hotel.managers;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * AvailabilityIndex - in-memory room availability for a window of days
+ * Every room gets an ordinal (its position in the sorted room list) and every
+ * day keeps a bitset of booked ordinals, so range and "first free room"
+ * queries are word-level OR operations instead of per-room set mutation.
+ * A booking occupies the nights [checkIn, checkOut).
+ */
+public class AvailabilityIndex {
+    private final int[] roomIds;                     // sorted, index = ordinal
+    private final HashMap<Integer, Integer> ordinals;
+    private final LocalDate startDate;
+    private final int dayCount;
+    private final int wordCount;
+    private final long lastWordMask;
+    private final long[][] bookedRooms;              // [day][word], bit set = booked
+    private int loadedRows;                          // database rows read to build the index
+
+    /**
+     * @param roomIds all rooms tracked by the index
+     * @param startDate first day of the window
+     * @param dayCount number of days in the window
+     */
+    public AvailabilityIndex(Collection<Integer> roomIds, LocalDate startDate, int dayCount) {
+        if (dayCount <= 0) {
+            throw new IllegalArgumentException("Day count must be positive");
+        }
+        this.roomIds = roomIds.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        this.ordinals = new HashMap<>(this.roomIds.length * 2);
+        for (int i = 0; i < this.roomIds.length; i++) {
+            ordinals.put(this.roomIds[i], i);
+        }
+        this.startDate = startDate;
+        this.dayCount = dayCount;
+        this.wordCount = Math.max(1, (this.roomIds.length + 63) >>> 6);
+        int tailBits = this.roomIds.length & 63;
+        if (this.roomIds.length == 0) {
+            this.lastWordMask = 0L;
+        } else {
+            this.lastWordMask = tailBits == 0 ? -1L : (1L << tailBits) - 1;
+        }
+        this.bookedRooms = new long[dayCount][wordCount];
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Last day covered by the window (inclusive)
+     */
+    public LocalDate getEndDate() {
+        return startDate.plusDays(dayCount - 1);
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    public int getRoomCount() {
+        return roomIds.length;
+    }
+    
+    /**
+     * Database rows (rooms and bookings) read to build the index
+     */
+    public int getLoadedRows() {
+        return loadedRows;
+    }
+    
+    void setLoadedRows(int loadedRows) {
+        this.loadedRows = loadedRows;
+    }
+
+    /**
+     * Check whether every night of [checkIn, checkOut) falls inside the window
+     */
+    public boolean covers(LocalDate checkIn, LocalDate checkOut) {
+        long first = ChronoUnit.DAYS.between(startDate, checkIn);
+        long end = ChronoUnit.DAYS.between(startDate, checkOut);
+        return first >= 0 && end <= dayCount && end > first;
+    }
+
+    /**
+     * Mark a room as booked for the nights [checkIn, checkOut) that fall inside the window
+     */
+    public synchronized void markBooked(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        Integer ordinal = ordinals.get(roomId);
+        if (ordinal == null) {
+            return;
+        }
+        int word = ordinal >>> 6;
+        long bit = 1L << ordinal;
+        for (int day = firstDay(checkIn), end = endDay(checkOut); day < end; day++) {
+            bookedRooms[day][word] |= bit;
+        }
+    }
+
+    /**
+     * Release a room for the nights [checkIn, checkOut) that fall inside the window
+     */
+    public synchronized void markReleased(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        Integer ordinal = ordinals.get(roomId);
+        if (ordinal == null) {
+            return;
+        }
+        int word = ordinal >>> 6;
+        long bit = ~(1L << ordinal);
+        for (int day = firstDay(checkIn), end = endDay(checkOut); day < end; day++) {
+            bookedRooms[day][word] &= bit;
+        }
+    }
+
+    /**
+     * Check if a room is free for every night of [checkIn, checkOut)
+     * The range must be covered by the window.
+     */
+    public synchronized boolean isAvailable(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        requireCovered(checkIn, checkOut);
+        Integer ordinal = ordinals.get(roomId);
+        if (ordinal == null) {
+            return false;
+        }
+        int word = ordinal >>> 6;
+        long bit = 1L << ordinal;
+        for (int day = firstDay(checkIn), end = endDay(checkOut); day < end; day++) {
+            if ((bookedRooms[day][word] & bit) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the lowest room ID that is free for every night of [checkIn, checkOut)
+     * @return room ID, or -1 if every room is taken
+     */
+    public synchronized int findFirstFreeRoom(LocalDate checkIn, LocalDate checkOut) {
+        long[] free = freeWords(checkIn, checkOut);
+        for (int w = 0; w < free.length; w++) {
+            if (free[w] != 0) {
+                return roomIds[(w << 6) + Long.numberOfTrailingZeros(free[w])];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Rooms free for every night of [checkIn, checkOut)
+     */
+    public synchronized Set<Integer> getAvailableRooms(LocalDate checkIn, LocalDate checkOut) {
+        return new RoomSet(roomIds, ordinals, freeWords(checkIn, checkOut));
+    }
+
+    /**
+     * Available rooms for every day of the window, in date order
+     * Each day is a read-only snapshot backed by a copy of that day's bitset.
+     */
+    public synchronized Map<LocalDate, Set<Integer>> getGrid() {
+        Map<LocalDate, Set<Integer>> grid = new LinkedHashMap<>();
+        LocalDate date = startDate;
+        for (int day = 0; day < dayCount; day++) {
+            long[] free = new long[wordCount];
+            for (int w = 0; w < wordCount; w++) {
+                free[w] = ~bookedRooms[day][w];
+            }
+            free[wordCount - 1] &= lastWordMask;
+            grid.put(date, new RoomSet(roomIds, ordinals, free));
+            date = date.plusDays(1);
+        }
+        return grid;
+    }
+
+    private long[] freeWords(LocalDate checkIn, LocalDate checkOut) {
+        requireCovered(checkIn, checkOut);
+        long[] booked = new long[wordCount];
+        for (int day = firstDay(checkIn), end = endDay(checkOut); day < end; day++) {
+            long[] dayWords = bookedRooms[day];
+            for (int w = 0; w < wordCount; w++) {
+                booked[w] |= dayWords[w];
+            }
+        }
+        for (int w = 0; w < wordCount; w++) {
+            booked[w] = ~booked[w];
+        }
+        booked[wordCount - 1] &= lastWordMask;
+        return booked;
+    }
+
+    private void requireCovered(LocalDate checkIn, LocalDate checkOut) {
+        if (!covers(checkIn, checkOut)) {
+            throw new IllegalArgumentException("Dates " + checkIn + " to " + checkOut
+                + " are outside the availability window " + startDate + " to " + getEndDate());
+        }
+    }
+
+    private int firstDay(LocalDate checkIn) {
+        return (int) Math.max(0, ChronoUnit.DAYS.between(startDate, checkIn));
+    }
+
+    private int endDay(LocalDate checkOut) {
+        return (int) Math.min(dayCount, ChronoUnit.DAYS.between(startDate, checkOut));
+    }
+
+    /**
+     * Read-only set of room IDs backed by a free-room bitset
+     */
+    private static class RoomSet extends AbstractSet<Integer> {
+        private final int[] roomIds;
+        private final Map<Integer, Integer> ordinals;
+        private final long[] words;
+        private final int size;
+
+        RoomSet(int[] roomIds, Map<Integer, Integer> ordinals, long[] words) {
+            this.roomIds = roomIds;
+            this.ordinals = ordinals;
+            this.words = words;
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            this.size = count;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Integer ordinal = ordinals.get(o);
+            return ordinal != null && (words[ordinal >>> 6] & (1L << ordinal)) != 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<Integer>() {
+                private int next = nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public Integer next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int roomId = roomIds[next];
+                    next = nextSetBit(next + 1);
+                    return roomId;
+                }
+            };
+        }
+
+        private int nextSetBit(int from) {
+            int w = from >>> 6;
+            if (w >= words.length) {
+                return -1;
+            }
+            long word = words[w] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return (w << 6) + Long.numberOfTrailingZeros(word);
+                }
+                if (++w == words.length) {
+                    return -1;
+                }
+                word = words[w];
+            }
+        }
+    }
+}
@@ -2,118 +2,527 @@ package com.hotel.managers;
 
 import com.hotel.models.Booking;
 import com.hotel.exceptions.BookingConflictException;
+import com.hotel.database.SingleConnectionDataSource;
+import com.hotel.metrics.BookingOperationEvent;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 // Explicitly import java.sql.Date to resolve ambiguity
 import java.sql.Date;
+import javax.sql.DataSource;
 
 /**
  * BookingManager class for handling all booking operations
  * Demonstrates Collections (HashMap), Date & Time API, Exception Handling
+ *
+ * Validation, creation, status changes and availability lookups are reported as
+ * com.hotel.BookingOperation Flight Recorder events, e.g. with
+ * -XX:StartFlightRecording:filename=hotel.jfr and then
+ * jfr print --events com.hotel.BookingOperation hotel.jfr
  */
 public class BookingManager {
-    private Connection connection;
-    private HashMap<Integer, List<Booking>> roomBookingsCache; // Collections: HashMap
+    private DataSource dataSource;
+    private final RoomBookingCache roomBookingsCache; // active stays per room, checked before the database
+    private final RefreshingIndex<AvailabilityIndex> availabilityIndex; // patched as bookings change, reloaded when stale
+    private volatile int availabilityHorizonDays = DEFAULT_AVAILABILITY_HORIZON_DAYS;
+    private final RefreshingIndex<BookingSearchIndex> searchIndex; // patched as bookings change, rebuilt when stale
+    private final List<BookingStatusListener> statusListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean roomNightsPresent; // set once the ledger table has been seen
     
+    private final ReentrantLock[] roomLocks; // striped per-room locks for the create path
+    
+    public static final int DEFAULT_AVAILABILITY_HORIZON_DAYS = 30;
+    private static final int ROOM_LOCK_STRIPES = 64;
+    private static final int ROOM_CACHE_MAX_ROOMS = 10_000;
+    private static final long ROOM_CACHE_TTL_MILLIS = 5 * 60 * 1000;
+    private static final long AVAILABILITY_INDEX_MAX_AGE_MILLIS = 15_000;
+    
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final long SEARCH_INDEX_MAX_AGE_MILLIS = 60_000;
+    private static final String BOOKING_COLUMNS = "booking_id, customer_id, room_id, customer_name, customer_email, " +
+                                                  "customer_phone, check_in_date, check_out_date, status, total_amount, booking_date";
+    
+    /**
+     * Create a manager that borrows a pooled connection for each operation
+     */
+    public BookingManager(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.roomBookingsCache = new RoomBookingCache(ROOM_CACHE_MAX_ROOMS, ROOM_CACHE_TTL_MILLIS);
+        this.roomLocks = new ReentrantLock[ROOM_LOCK_STRIPES];
+        for (int i = 0; i < roomLocks.length; i++) {
+            roomLocks[i] = new ReentrantLock();
+        }
+        // Rebuilt every few seconds to pick up bookings made by other processes, and at once
+        // when the day rolls over or the horizon changes
+        this.availabilityIndex = new RefreshingIndex<>(
+            () -> loadAvailabilityIndex(LocalDate.now(), availabilityHorizonDays + 1),
+            index -> index.getStartDate().equals(LocalDate.now()) && index.getDayCount() == availabilityHorizonDays + 1,
+            AVAILABILITY_INDEX_MAX_AGE_MILLIS);
+        // Rebuilt in full, which also picks up late-committing inserts and status changes from other processes
+        this.searchIndex = new RefreshingIndex<>(this::loadSearchIndex, index -> true, SEARCH_INDEX_MAX_AGE_MILLIS);
+    }
+    
+    /**
+     * Create a manager that shares one caller-owned connection
+     */
     public BookingManager(Connection connection) {
-        this.connection = connection;
-        this.roomBookingsCache = new HashMap<>();
+        this(new SingleConnectionDataSource(connection));
     }
     
     /**
      * Get all bookings from database
+     * Reads the whole table; prefer getBookingsPage for anything user-facing.
      * @return List of all bookings
      */
     public List<Booking> getAllBookings() throws SQLException {
-        List<Booking> bookings = new ArrayList<>();
-        String query = "SELECT * FROM bookings ORDER BY check_in_date DESC";
+        String query = "SELECT " + BOOKING_COLUMNS + " FROM bookings ORDER BY check_in_date DESC";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()) {
+            return BookingRowMapper.mapAll(rs);
+        }
+    }
+    
+    /**
+     * Get one page of bookings, newest check-in first
+     * Keyset pagination: the page starts strictly after the cursor in
+     * (check_in_date, booking_id) order, so every page costs the same index
+     * range scan no matter how deep the caller has scrolled.
+     * @param status only bookings with this status, or null for all
+     * @param after cursor from the previous page, or null for the first page
+     * @param pageSize number of bookings per page
+     */
+    public BookingPage getBookingsPage(String status, BookingPage.Cursor after, int pageSize) throws SQLException {
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        StringBuilder query = new StringBuilder("SELECT ").append(BOOKING_COLUMNS).append(" FROM bookings");
+        List<String> conditions = new ArrayList<>();
+        if (status != null) {
+            conditions.add("status = ?");
+        }
+        if (after != null) {
+            conditions.add("(check_in_date < ? OR (check_in_date = ? AND booking_id < ?))");
+        }
+        if (!conditions.isEmpty()) {
+            query.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        // One extra row tells whether another page follows
+        query.append(" ORDER BY check_in_date DESC, booking_id DESC LIMIT ?");
+        
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query.toString())) {
+            int param = 1;
+            if (status != null) {
+                stmt.setString(param++, status);
+            }
+            if (after != null) {
+                stmt.setDate(param++, Date.valueOf(after.getCheckInDate()));
+                stmt.setDate(param++, Date.valueOf(after.getCheckInDate()));
+                stmt.setInt(param++, after.getBookingId());
+            }
+            stmt.setInt(param, pageSize + 1);
             
-            while (rs.next()) {
-                Booking booking = new Booking(
-                    rs.getInt("booking_id"),
-                    rs.getInt("customer_id"),
-                    rs.getInt("room_id"),
-                    rs.getString("customer_name"),
-                    rs.getString("customer_email"),
-                    rs.getString("customer_phone"),
-                    rs.getDate("check_in_date").toLocalDate(),
-                    rs.getDate("check_out_date").toLocalDate(),
-                    rs.getString("status"),
-                    rs.getDouble("total_amount"),
-                    rs.getDate("booking_date").toLocalDate()
-                );
+            List<Booking> bookings;
+            try (ResultSet rs = stmt.executeQuery()) {
+                bookings = BookingRowMapper.mapAll(rs);
+            }
+            if (bookings.size() <= pageSize) {
+                return new BookingPage(bookings, null);
+            }
+            bookings.remove(pageSize);
+            return new BookingPage(bookings, BookingPage.Cursor.after(bookings.get(pageSize - 1)));
+        }
+    }
+    
+    /**
+     * Get one page of all bookings, newest check-in first
+     */
+    public BookingPage getBookingsPage(BookingPage.Cursor after, int pageSize) throws SQLException {
+        return getBookingsPage(null, after, pageSize);
+    }
+    
+    /**
+     * Search bookings by a fragment of the customer's name, email or phone, or the booking ID
+     * Matches come from the in-memory search index; the rows themselves are
+     * read from the database, so the returned bookings are current.
+     * @param status only bookings with this status, or null for all
+     * @param limit maximum number of bookings returned
+     * @return matching bookings, prefix matches first
+     */
+    public List<Booking> searchBookings(String query, String status, int limit) throws SQLException {
+        List<Integer> ids = searchIndex.get().search(query, status, limit);
+        List<Booking> bookings = getBookingsByIds(ids);
+        if (status != null) {
+            // The index may lag behind status changes made by other processes
+            bookings.removeIf(booking -> !status.equals(booking.getStatus()));
+        }
+        return bookings;
+    }
+    
+    /**
+     * Get bookings by ID, in the order the IDs are given
+     */
+    public List<Booking> getBookingsByIds(List<Integer> bookingIds) throws SQLException {
+        List<Booking> bookings = new ArrayList<>();
+        if (bookingIds.isEmpty()) {
+            return bookings;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(bookingIds.size(), "?"));
+        String query = "SELECT " + BOOKING_COLUMNS + " FROM bookings WHERE booking_id IN (" + placeholders + ")";
+        
+        Map<Integer, Booking> byId = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (int i = 0; i < bookingIds.size(); i++) {
+                stmt.setInt(i + 1, bookingIds.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                for (Booking booking : BookingRowMapper.mapAll(rs)) {
+                    byId.put(booking.getBookingId(), booking);
+                }
+            }
+        }
+        for (int bookingId : bookingIds) {
+            Booking booking = byId.get(bookingId);
+            if (booking != null) {
                 bookings.add(booking);
             }
         }
         return bookings;
     }
     
+    /**
+     * Build a search index over the searchable columns of every booking
+     */
+    private BookingSearchIndex loadSearchIndex() throws SQLException {
+        BookingSearchIndex index = new BookingSearchIndex();
+        String query = "SELECT booking_id, customer_name, customer_email, customer_phone, status FROM bookings";
+        
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            BookingRowMapper mapper = BookingRowMapper.forResultSet(rs);
+            while (rs.next()) {
+                index.add(mapper.map(rs));
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Register a listener for check-in, check-out and cancellation
+     */
+    public void addBookingStatusListener(BookingStatusListener listener) {
+        statusListeners.add(listener);
+    }
+    
+    public void removeBookingStatusListener(BookingStatusListener listener) {
+        statusListeners.remove(listener);
+    }
+    
+    /**
+     * Patch the search index after a status change, if it has been built,
+     * then tell the listeners
+     */
+    private void statusChanged(int bookingId, String status) {
+        searchIndex.patch(index -> index.updateStatus(bookingId, status));
+        for (BookingStatusListener listener : statusListeners) {
+            listener.bookingStatusChanged(bookingId, status);
+        }
+    }
+    
     /**
      * Check room availability for given dates
+     * Answered from the room's cached stays; the database is only read on a cache miss.
      * Demonstrates Date & Time API usage
      */
     public boolean isRoomAvailable(int roomId, LocalDate checkIn, LocalDate checkOut) throws SQLException {
+        BookingOperationEvent event = new BookingOperationEvent("isRoomAvailable");
+        event.begin();
+        long rows = 0;
+        String outcome = BookingOperationEvent.FAILED;
+        try {
+            boolean available;
+            if (checkIn.isBefore(LocalDate.now())) {
+                // The cache only holds stays that have not ended yet
+                available = !hasOverlappingBooking(roomId, checkIn, checkOut);
+                rows = 1;
+            } else {
+                RoomBookingCache.RoomIntervals intervals = roomBookingsCache.get(roomId);
+                if (intervals == null) {
+                    long stamp = roomBookingsCache.currentStamp();
+                    intervals = loadRoomIntervals(roomId);
+                    roomBookingsCache.put(roomId, intervals, stamp);
+                    rows = intervals.size();
+                }
+                available = !intervals.overlaps(checkIn, checkOut);
+            }
+            outcome = available ? BookingOperationEvent.OK : BookingOperationEvent.CONFLICT;
+            return available;
+        } finally {
+            event.end(0, roomId, 0, rows, outcome);
+        }
+    }
+    
+    private boolean hasOverlappingBooking(int roomId, LocalDate checkIn, LocalDate checkOut) throws SQLException {
         String query = "SELECT COUNT(*) FROM bookings WHERE room_id = ? AND status IN ('CONFIRMED', 'CHECKED_IN') " +
                       "AND NOT (check_out_date <= ? OR check_in_date >= ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, roomId);
             stmt.setDate(2, Date.valueOf(checkIn));
             stmt.setDate(3, Date.valueOf(checkOut));
             
-            ResultSet rs = stmt.executeQuery();
-            rs.next();
-            return rs.getInt(1) == 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1) > 0;
+            }
+        }
+    }
+    
+    /**
+     * Load a room's active stays that have not yet ended
+     * Any stay overlapping a window that starts today or later ends after today.
+     */
+    private RoomBookingCache.RoomIntervals loadRoomIntervals(int roomId) throws SQLException {
+        List<LocalDate> checkIns = new ArrayList<>();
+        List<LocalDate> checkOuts = new ArrayList<>();
+        String query = "SELECT check_in_date, check_out_date FROM bookings WHERE room_id = ? " +
+                      "AND status IN ('CONFIRMED', 'CHECKED_IN') AND check_out_date > ?";
+        
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, roomId);
+            stmt.setDate(2, Date.valueOf(LocalDate.now()));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    checkIns.add(rs.getDate(1).toLocalDate());
+                    checkOuts.add(rs.getDate(2).toLocalDate());
+                }
+            }
         }
+        return RoomBookingCache.RoomIntervals.of(checkIns, checkOuts);
     }
     
     /**
-     * Get availability grid for next 30 days
+     * Get the per-room booking cache (for hit-rate reporting)
+     */
+    public RoomBookingCache getRoomBookingsCache() {
+        return roomBookingsCache;
+    }
+    
+    /**
+     * Get availability grid for the configured horizon (30 days by default)
      * Demonstrates Date & Time API and Collections
      */
     public Map<LocalDate, Set<Integer>> getAvailabilityGrid() throws SQLException {
-        Map<LocalDate, Set<Integer>> availability = new HashMap<>();
-        LocalDate startDate = LocalDate.now();
-        LocalDate endDate = startDate.plusDays(30);
-        
-        // Initialize all dates with all rooms available
-        Set<Integer> allRooms = getAllRoomIds();
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            availability.put(date, new HashSet<>(allRooms));
+        BookingOperationEvent event = new BookingOperationEvent("getAvailabilityGrid");
+        event.begin();
+        AvailabilityIndex previous = availabilityIndex.peek();
+        long rows = 0;
+        String outcome = BookingOperationEvent.FAILED;
+        try {
+            AvailabilityIndex index = availabilityIndex.get();
+            if (index != previous) {
+                rows = index.getLoadedRows();
+            }
+            Map<LocalDate, Set<Integer>> grid = index.getGrid();
+            outcome = BookingOperationEvent.OK;
+            return grid;
+        } finally {
+            event.end(0, 0, 0, rows, outcome);
         }
-        
-        // Remove booked rooms from availability
+    }
+    
+    /**
+     * Get the rooms free for every night of the given stay
+     */
+    public Set<Integer> getAvailableRooms(LocalDate checkIn, LocalDate checkOut) throws SQLException {
+        return indexFor(checkIn, checkOut).getAvailableRooms(checkIn, checkOut);
+    }
+    
+    /**
+     * Find the lowest-numbered room free for every night of the given stay
+     * @return room ID, or -1 if no room is free
+     */
+    public int findFirstAvailableRoom(LocalDate checkIn, LocalDate checkOut) throws SQLException {
+        return indexFor(checkIn, checkOut).findFirstFreeRoom(checkIn, checkOut);
+    }
+    
+    public int getAvailabilityHorizonDays() {
+        return availabilityHorizonDays;
+    }
+    
+    /**
+     * Set how many days past today the availability grid covers
+     */
+    public void setAvailabilityHorizonDays(int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("Availability horizon must be at least one day");
+        }
+        // The index for the old horizon is no longer usable, so the next lookup reloads it
+        availabilityHorizonDays = days;
+    }
+    
+    /**
+     * Use the shared index when it covers the stay, otherwise load one just for it
+     */
+    private AvailabilityIndex indexFor(LocalDate checkIn, LocalDate checkOut) throws SQLException {
+        if (!checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        AvailabilityIndex index = availabilityIndex.get();
+        if (index.covers(checkIn, checkOut)) {
+            return index;
+        }
+        return loadAvailabilityIndex(checkIn, (int) ChronoUnit.DAYS.between(checkIn, checkOut));
+    }
+    
+    /**
+     * Build an availability index from the active bookings overlapping the window
+     */
+    private AvailabilityIndex loadAvailabilityIndex(LocalDate startDate, int dayCount) throws SQLException {
+        AvailabilityIndex index = new AvailabilityIndex(getAllRoomIds(), startDate, dayCount);
+        LocalDate endDate = startDate.plusDays(dayCount);
         String query = "SELECT room_id, check_in_date, check_out_date FROM bookings " +
                       "WHERE status IN ('CONFIRMED', 'CHECKED_IN') " +
-                      "AND check_out_date > ? AND check_in_date <= ?";
+                      "AND check_out_date > ? AND check_in_date < ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setDate(1, Date.valueOf(startDate));
             stmt.setDate(2, Date.valueOf(endDate));
             
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                int roomId = rs.getInt("room_id");
-                LocalDate bookingStart = rs.getDate("check_in_date").toLocalDate();
-                LocalDate bookingEnd = rs.getDate("check_out_date").toLocalDate();
-                
-                // Remove room from availability for booking period
-                LocalDate current = bookingStart.isBefore(startDate) ? startDate : bookingStart;
-                LocalDate last = bookingEnd.isAfter(endDate) ? endDate : bookingEnd.minusDays(1);
-                
-                while (!current.isAfter(last)) {
-                    availability.get(current).remove(roomId);
-                    current = current.plusDays(1);
+            int rows = index.getRoomCount();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    index.markBooked(rs.getInt(1),
+                        rs.getDate(2).toLocalDate(),
+                        rs.getDate(3).toLocalDate());
+                    rows++;
                 }
             }
+            index.setLoadedRows(rows);
         }
+        return index;
+    }
+    
+    /**
+     * Move a booking out of the active statuses and drop its room_nights ledger
+     * rows in one transaction, then patch the availability index and invalidate
+     * the room's cached stays
+     * @param update UPDATE taking the booking ID, guarded by the statuses it may leave
+     */
+    private boolean releaseBooking(String operation, String update, int bookingId, String status) throws SQLException {
+        BookingOperationEvent event = new BookingOperationEvent(operation);
+        event.begin();
+        int roomId = 0;
+        long rows = 0;
+        String outcome = BookingOperationEvent.FAILED;
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            Booking released = null;
+            try (PreparedStatement stmt = connection.prepareStatement(update)) {
+                stmt.setInt(1, bookingId);
+                if (stmt.executeUpdate() > 0) {
+                    released = deleteRoomNights(connection, bookingId);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            
+            if (released == null) {
+                outcome = BookingOperationEvent.UNCHANGED;
+                return false;
+            }
+            rows = 1;
+            roomId = released.getRoomId();
+            roomBookingsCache.invalidate(roomId);
+            LocalDate checkIn = released.getCheckInDate();
+            LocalDate checkOut = released.getCheckOutDate();
+            int room = roomId;
+            availabilityIndex.patch(index -> index.markReleased(room, checkIn, checkOut));
+            statusChanged(bookingId, status);
+            outcome = BookingOperationEvent.OK;
+            return true;
+        } finally {
+            event.end(bookingId, roomId, 1, rows, outcome);
+        }
+    }
+    
+    /**
+     * Drop a booking's room_nights ledger rows on the caller's transaction
+     * @return the booking's room and dates
+     */
+    private Booking deleteRoomNights(Connection connection, int bookingId) throws SQLException {
+        Booking booking = new Booking();
+        String query = "SELECT room_id, check_in_date, check_out_date FROM bookings WHERE booking_id = ?";
         
-        return availability;
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, bookingId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                booking.setRoomId(rs.getInt(1));
+                booking.setCheckInDate(rs.getDate(2).toLocalDate());
+                booking.setCheckOutDate(rs.getDate(3).toLocalDate());
+            }
+        }
+        if (hasRoomNights(connection)) {
+            try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM room_nights WHERE booking_id = ?")) {
+                stmt.setInt(1, bookingId);
+                stmt.executeUpdate();
+            }
+        }
+        return booking;
+    }
+    
+    /**
+     * Whether the room_nights ledger exists
+     * simple_schema.sql has no ledger, nor does a full schema that has not run
+     * add_room_nights_ledger.sql; their status changes have no nights to free.
+     * Only a positive answer is remembered, so a migration run while the
+     * application is up is picked up by the next status change.
+     */
+    private boolean hasRoomNights(Connection connection) throws SQLException {
+        if (roomNightsPresent) {
+            return true;
+        }
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = metaData.storesUpperCaseIdentifiers() ? "ROOM_NIGHTS" : "room_nights";
+        try (ResultSet rs = metaData.getTables(connection.getCatalog(), null, table, new String[]{"TABLE"})) {
+            roomNightsPresent = rs.next();
+        }
+        return roomNightsPresent;
+    }
+    
+    /**
+     * Invalidate the cached stays of the room a booking belongs to
+     */
+    private int invalidateRoomOf(Connection connection, int bookingId) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT room_id FROM bookings WHERE booking_id = ?")) {
+            stmt.setInt(1, bookingId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int roomId = rs.getInt(1);
+                    roomBookingsCache.invalidate(roomId);
+                    return roomId;
+                }
+            }
+        }
+        return 0;
     }
     
     /**
@@ -122,8 +531,37 @@ public class BookingManager {
      */
     public void validateBooking(int roomId, LocalDate checkIn, LocalDate checkOut) 
             throws BookingConflictException {
+        BookingOperationEvent event = new BookingOperationEvent("validateBooking");
+        event.begin();
+        String outcome = BookingOperationEvent.CONFLICT;
+        try {
+            validateDates(checkIn, checkOut);
+            
+            // Check for overlapping bookings
+            try {
+                if (!isRoomAvailable(roomId, checkIn, checkOut)) {
+                    throw new BookingConflictException(
+                        "Room " + roomId + " is not available for the selected dates");
+                }
+            } catch (SQLException e) {
+                outcome = BookingOperationEvent.FAILED;
+                throw new BookingConflictException("Error checking room availability", e);
+            }
+            outcome = BookingOperationEvent.OK;
+        } finally {
+            // Rows read, if any, belong to the nested isRoomAvailable event
+            event.end(0, roomId, 1, 0, outcome);
+        }
+    }
+    
+    /**
+     * Validate that a stay starts today or later and lasts at least one night
+     */
+    private void validateDates(LocalDate checkIn, LocalDate checkOut) throws BookingConflictException {
+        if (checkIn == null || checkOut == null) {
+            throw new BookingConflictException("Check-in and check-out dates are required");
+        }
         
-        // Validate dates
         if (checkIn.isBefore(LocalDate.now())) {
             throw new BookingConflictException("Check-in date cannot be in the past");
         }
@@ -131,27 +569,253 @@ public class BookingManager {
         if (checkOut.isBefore(checkIn) || checkOut.equals(checkIn)) {
             throw new BookingConflictException("Check-out date must be after check-in date");
         }
+    }
+    
+    /**
+     * Create a booking without risking a double booking
+     * The availability check and the insert run in one transaction while the
+     * room is locked both in-process and in the database.
+     * @return the stored booking with its generated ID
+     */
+    public Booking createBooking(Booking booking) throws BookingConflictException, SQLException {
+        return createBookings(Collections.singletonList(booking)).get(0);
+    }
+    
+    /**
+     * Create several bookings atomically: either all of them are stored or none
+     * 
+     * - Rooms are locked through a fixed set of lock stripes, always in ascending
+     *   stripe order, so concurrent batches cannot deadlock in-process
+     * - Each room row is then locked with SELECT ... FOR UPDATE (again in ascending
+     *   room order), which serializes writers from other processes
+     * - Every booked night is written to the room_nights ledger, whose primary key
+     *   (room_id, night) rejects an overlap even if a writer skipped the locks
+     */
+    public List<Booking> createBookings(List<Booking> bookings) throws BookingConflictException, SQLException {
+        if (bookings.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        // Check for overlapping bookings
+        BookingOperationEvent event = new BookingOperationEvent(bookings.size() == 1 ? "createBooking" : "createBookings");
+        event.begin();
+        long rows = 0;
+        String outcome = BookingOperationEvent.FAILED;
         try {
-            if (!isRoomAvailable(roomId, checkIn, checkOut)) {
+            rows = doCreateBookings(bookings);
+            outcome = BookingOperationEvent.OK;
+            return bookings;
+        } catch (BookingConflictException e) {
+            outcome = BookingOperationEvent.CONFLICT;
+            throw e;
+        } finally {
+            Booking first = bookings.get(0);
+            boolean single = bookings.size() == 1;
+            event.end(single ? first.getBookingId() : 0, single ? first.getRoomId() : 0, bookings.size(), rows, outcome);
+        }
+    }
+    
+    /**
+     * @return rows written: one per booking plus one per booked night
+     */
+    private long doCreateBookings(List<Booking> bookings) throws BookingConflictException, SQLException {
+        // Validate the batch before touching any lock; a cached overlap fails fast without a round trip
+        TreeMap<Integer, List<Booking>> bookingsByRoom = new TreeMap<>();
+        for (Booking booking : bookings) {
+            validateDates(booking.getCheckInDate(), booking.getCheckOutDate());
+            RoomBookingCache.RoomIntervals cached = roomBookingsCache.get(booking.getRoomId());
+            if (cached != null && cached.overlaps(booking.getCheckInDate(), booking.getCheckOutDate())) {
                 throw new BookingConflictException(
-                    "Room " + roomId + " is not available for the selected dates");
+                    "Room " + booking.getRoomId() + " is not available for the selected dates");
+            }
+            bookingsByRoom.computeIfAbsent(booking.getRoomId(), k -> new ArrayList<>()).add(booking);
+        }
+        for (List<Booking> roomBookings : bookingsByRoom.values()) {
+            for (int i = 0; i < roomBookings.size(); i++) {
+                for (int j = i + 1; j < roomBookings.size(); j++) {
+                    if (overlaps(roomBookings.get(i), roomBookings.get(j))) {
+                        throw new BookingConflictException("Room " + roomBookings.get(i).getRoomId()
+                            + " is booked twice for overlapping dates in the same request");
+                    }
+                }
+            }
+        }
+        
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (int roomId : bookingsByRoom.keySet()) {
+            stripes.add(lockStripe(roomId));
+        }
+        for (int stripe : stripes) {
+            roomLocks[stripe].lock();
+        }
+        long rows;
+        try {
+            rows = insertBookings(bookingsByRoom, bookings);
+            for (Booking booking : bookings) {
+                roomBookingsCache.addBooking(booking.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate());
+            }
+        } finally {
+            for (int stripe : stripes.descendingSet()) {
+                roomLocks[stripe].unlock();
+            }
+        }
+        
+        availabilityIndex.patch(index -> {
+            for (Booking booking : bookings) {
+                index.markBooked(booking.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate());
+            }
+        });
+        searchIndex.patch(index -> {
+            for (Booking booking : bookings) {
+                index.add(booking);
+            }
+        });
+        return rows;
+    }
+    
+    private long insertBookings(TreeMap<Integer, List<Booking>> bookingsByRoom, List<Booking> bookings)
+            throws BookingConflictException, SQLException {
+        String lockRoom = "SELECT price_per_night FROM rooms WHERE room_id = ? FOR UPDATE";
+        String overlapCheck = "SELECT COUNT(*) FROM bookings WHERE room_id = ? AND status IN ('CONFIRMED', 'CHECKED_IN') " +
+                             "AND NOT (check_out_date <= ? OR check_in_date >= ?)";
+        String insertBooking = "INSERT INTO bookings (customer_id, room_id, customer_name, customer_email, customer_phone, " +
+                              "check_in_date, check_out_date, status, total_amount, booking_date) " +
+                              "VALUES (?, ?, ?, ?, ?, ?, ?, 'CONFIRMED', ?, ?)";
+        String insertNight = "INSERT INTO room_nights (room_id, night, booking_id) VALUES (?, ?, ?)";
+        
+        try (Connection connection = dataSource.getConnection()) {
+            // A caller-owned connection stays open after this, so leave it as it was found
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement lockStmt = connection.prepareStatement(lockRoom);
+                 PreparedStatement overlapStmt = connection.prepareStatement(overlapCheck);
+                 PreparedStatement bookingStmt = connection.prepareStatement(insertBooking, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement nightStmt = connection.prepareStatement(insertNight)) {
+                
+                Map<Integer, Double> nightlyRates = new HashMap<>();
+                for (Map.Entry<Integer, List<Booking>> entry : bookingsByRoom.entrySet()) {
+                    int roomId = entry.getKey();
+                    lockStmt.setInt(1, roomId);
+                    try (ResultSet rs = lockStmt.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new BookingConflictException("Room " + roomId + " does not exist");
+                        }
+                        nightlyRates.put(roomId, rs.getDouble(1));
+                    }
+                    
+                    for (Booking booking : entry.getValue()) {
+                        overlapStmt.setInt(1, roomId);
+                        overlapStmt.setDate(2, Date.valueOf(booking.getCheckInDate()));
+                        overlapStmt.setDate(3, Date.valueOf(booking.getCheckOutDate()));
+                        try (ResultSet rs = overlapStmt.executeQuery()) {
+                            rs.next();
+                            if (rs.getInt(1) > 0) {
+                                throw new BookingConflictException(
+                                    "Room " + roomId + " is not available for the selected dates");
+                            }
+                        }
+                    }
+                }
+                
+                LocalDate today = LocalDate.now();
+                long rows = bookings.size();
+                for (Booking booking : bookings) {
+                    long nights = ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate());
+                    if (booking.getTotalAmount() <= 0) {
+                        booking.setTotalAmount(nightlyRates.get(booking.getRoomId()) * nights);
+                    }
+                    
+                    if (booking.getCustomerId() > 0) {
+                        bookingStmt.setInt(1, booking.getCustomerId());
+                    } else {
+                        bookingStmt.setNull(1, Types.INTEGER);
+                    }
+                    bookingStmt.setInt(2, booking.getRoomId());
+                    bookingStmt.setString(3, booking.getCustomerName());
+                    bookingStmt.setString(4, booking.getCustomerEmail());
+                    bookingStmt.setString(5, booking.getCustomerPhone());
+                    bookingStmt.setDate(6, Date.valueOf(booking.getCheckInDate()));
+                    bookingStmt.setDate(7, Date.valueOf(booking.getCheckOutDate()));
+                    bookingStmt.setDouble(8, booking.getTotalAmount());
+                    bookingStmt.setTimestamp(9, Timestamp.valueOf(today.atStartOfDay()));
+                    bookingStmt.executeUpdate();
+                    
+                    try (ResultSet keys = bookingStmt.getGeneratedKeys()) {
+                        keys.next();
+                        booking.setBookingId(keys.getInt(1));
+                    }
+                    booking.setStatus("CONFIRMED");
+                    booking.setBookingDate(today);
+                    
+                    for (LocalDate night = booking.getCheckInDate(); night.isBefore(booking.getCheckOutDate()); night = night.plusDays(1)) {
+                        nightStmt.setInt(1, booking.getRoomId());
+                        nightStmt.setDate(2, Date.valueOf(night));
+                        nightStmt.setInt(3, booking.getBookingId());
+                        nightStmt.addBatch();
+                        rows++;
+                    }
+                }
+                nightStmt.executeBatch();
+                connection.commit();
+                return rows;
+            } catch (SQLException e) {
+                connection.rollback();
+                if (isDuplicateKey(e)) {
+                    throw new BookingConflictException("A selected room was booked by another request for the same dates", e);
+                }
+                throw e;
+            } catch (BookingConflictException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
             }
-        } catch (SQLException e) {
-            throw new BookingConflictException("Error checking room availability", e);
         }
     }
     
+    /**
+     * Duplicate primary key: MySQL error 1062, or the standard SQLState 23505
+     */
+    private static boolean isDuplicateKey(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            if (current.getErrorCode() == 1062 || "23505".equals(current.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean overlaps(Booking a, Booking b) {
+        return a.getCheckInDate().isBefore(b.getCheckOutDate()) && b.getCheckInDate().isBefore(a.getCheckOutDate());
+    }
+    
+    private static int lockStripe(int roomId) {
+        return Math.floorMod(Integer.hashCode(roomId) * 0x9E3779B9, ROOM_LOCK_STRIPES);
+    }
+    
     /**
      * Check-in a booking
      */
     public boolean checkInBooking(int bookingId) throws SQLException {
         String query = "UPDATE bookings SET status = 'CHECKED_IN' WHERE booking_id = ? AND status = 'CONFIRMED'";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        BookingOperationEvent event = new BookingOperationEvent("checkInBooking");
+        event.begin();
+        int roomId = 0;
+        long rows = 0;
+        String outcome = BookingOperationEvent.FAILED;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, bookingId);
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                rows = 1;
+                roomId = invalidateRoomOf(connection, bookingId);
+                statusChanged(bookingId, "CHECKED_IN");
+            }
+            outcome = updated ? BookingOperationEvent.OK : BookingOperationEvent.UNCHANGED;
+            return updated;
+        } finally {
+            event.end(bookingId, roomId, 1, rows, outcome);
         }
     }
     
@@ -159,55 +823,33 @@ public class BookingManager {
      * Check-out a booking
      */
     public boolean checkOutBooking(int bookingId) throws SQLException {
-        String query = "UPDATE bookings SET status = 'CHECKED_OUT' WHERE booking_id = ? AND status = 'CHECKED_IN'";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, bookingId);
-            return stmt.executeUpdate() > 0;
-        }
+        return releaseBooking("checkOutBooking",
+            "UPDATE bookings SET status = 'CHECKED_OUT' WHERE booking_id = ? AND status = 'CHECKED_IN'",
+            bookingId, "CHECKED_OUT");
     }
     
     /**
      * Cancel a booking
      */
     public boolean cancelBooking(int bookingId) throws SQLException {
-        String query = "UPDATE bookings SET status = 'CANCELLED' WHERE booking_id = ? AND status IN ('CONFIRMED', 'CHECKED_IN')";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, bookingId);
-            return stmt.executeUpdate() > 0;
-        }
+        return releaseBooking("cancelBooking",
+            "UPDATE bookings SET status = 'CANCELLED' WHERE booking_id = ? AND status IN ('CONFIRMED', 'CHECKED_IN')",
+            bookingId, "CANCELLED");
     }
     
     /**
      * Get bookings by status
      */
     public List<Booking> getBookingsByStatus(String status) throws SQLException {
-        List<Booking> bookings = new ArrayList<>();
-        String query = "SELECT * FROM bookings WHERE status = ? ORDER BY check_in_date DESC";
+        String query = "SELECT " + BOOKING_COLUMNS + " FROM bookings WHERE status = ? ORDER BY check_in_date DESC";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, status);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                Booking booking = new Booking(
-                    rs.getInt("booking_id"),
-                    rs.getInt("customer_id"),
-                    rs.getInt("room_id"),
-                    rs.getString("customer_name"),
-                    rs.getString("customer_email"),
-                    rs.getString("customer_phone"),
-                    rs.getDate("check_in_date").toLocalDate(),
-                    rs.getDate("check_out_date").toLocalDate(),
-                    rs.getString("status"),
-                    rs.getDouble("total_amount"),
-                    rs.getDate("booking_date").toLocalDate()
-                );
-                bookings.add(booking);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return BookingRowMapper.mapAll(rs);
             }
         }
-        return bookings;
     }
     
     /**
@@ -217,7 +859,8 @@ public class BookingManager {
         Set<Integer> roomIds = new HashSet<>();
         String query = "SELECT room_id FROM rooms";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()) {
             
             while (rs.next()) {
@@ -231,61 +874,29 @@ public class BookingManager {
      * Get bookings for today's check-ins
      */
     public List<Booking> getTodayCheckIns() throws SQLException {
-        List<Booking> bookings = new ArrayList<>();
-        String query = "SELECT * FROM bookings WHERE check_in_date = ? AND status = 'CONFIRMED'";
+        String query = "SELECT " + BOOKING_COLUMNS + " FROM bookings WHERE check_in_date = ? AND status = 'CONFIRMED'";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setDate(1, Date.valueOf(LocalDate.now()));
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                Booking booking = new Booking(
-                    rs.getInt("booking_id"),
-                    rs.getInt("customer_id"),
-                    rs.getInt("room_id"),
-                    rs.getString("customer_name"),
-                    rs.getString("customer_email"),
-                    rs.getString("customer_phone"),
-                    rs.getDate("check_in_date").toLocalDate(),
-                    rs.getDate("check_out_date").toLocalDate(),
-                    rs.getString("status"),
-                    rs.getDouble("total_amount"),
-                    rs.getDate("booking_date").toLocalDate()
-                );
-                bookings.add(booking);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return BookingRowMapper.mapAll(rs);
             }
         }
-        return bookings;
     }
     
     /**
      * Get bookings for today's check-outs
      */
     public List<Booking> getTodayCheckOuts() throws SQLException {
-        List<Booking> bookings = new ArrayList<>();
-        String query = "SELECT * FROM bookings WHERE check_out_date = ? AND status = 'CHECKED_IN'";
+        String query = "SELECT " + BOOKING_COLUMNS + " FROM bookings WHERE check_out_date = ? AND status = 'CHECKED_IN'";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setDate(1, Date.valueOf(LocalDate.now()));
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                Booking booking = new Booking(
-                    rs.getInt("booking_id"),
-                    rs.getInt("customer_id"),
-                    rs.getInt("room_id"),
-                    rs.getString("customer_name"),
-                    rs.getString("customer_email"),
-                    rs.getString("customer_phone"),
-                    rs.getDate("check_in_date").toLocalDate(),
-                    rs.getDate("check_out_date").toLocalDate(),
-                    rs.getString("status"),
-                    rs.getDouble("total_amount"),
-                    rs.getDate("booking_date").toLocalDate()
-                );
-                bookings.add(booking);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return BookingRowMapper.mapAll(rs);
             }
         }
-        return bookings;
     }
 }
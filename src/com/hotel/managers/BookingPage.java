@@ -0,0 +1,65 @@
+package com.hotel.managers;
+
+import com.hotel.models.Booking;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BookingPage - one page of bookings, newest check-in first
+ * Bookings are ordered by (check-in date, booking ID) descending. Pass
+ * getNextCursor() back to BookingManager.getBookingsPage to read the next page;
+ * it is null once the last page has been read.
+ */
+public class BookingPage {
+    
+    private final List<Booking> bookings;
+    private final Cursor nextCursor;
+    
+    public BookingPage(List<Booking> bookings, Cursor nextCursor) {
+        this.bookings = Collections.unmodifiableList(bookings);
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+    
+    public Cursor getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+    
+    /**
+     * Position after a given booking in page order
+     */
+    public static final class Cursor {
+        private final LocalDate checkInDate;
+        private final int bookingId;
+        
+        public Cursor(LocalDate checkInDate, int bookingId) {
+            this.checkInDate = checkInDate;
+            this.bookingId = bookingId;
+        }
+        
+        public static Cursor after(Booking booking) {
+            return new Cursor(booking.getCheckInDate(), booking.getBookingId());
+        }
+        
+        public LocalDate getCheckInDate() {
+            return checkInDate;
+        }
+        
+        public int getBookingId() {
+            return bookingId;
+        }
+        
+        @Override
+        public String toString() {
+            return checkInDate + "/" + bookingId;
+        }
+    }
+}
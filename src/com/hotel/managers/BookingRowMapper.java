@@ -0,0 +1,125 @@
+package com.hotel.managers;
+
+import com.hotel.models.Booking;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BookingRowMapper - maps bookings rows to Booking objects
+ * Column positions are looked up once from the ResultSet metadata, so each row
+ * is read by index, and dates come back as LocalDate without a String or
+ * java.sql.Date in between. Columns the query did not select (for example
+ * customer_id and booking_date in the simple schema) are left at their defaults.
+ */
+public final class BookingRowMapper {
+    
+    private final int bookingId;
+    private final int customerId;
+    private final int roomId;
+    private final int customerName;
+    private final int customerEmail;
+    private final int customerPhone;
+    private final int checkInDate;
+    private final int checkOutDate;
+    private final int status;
+    private final int totalAmount;
+    private final int bookingDate;
+    
+    private BookingRowMapper(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        bookingId = indexOf(labels, "booking_id");
+        customerId = indexOf(labels, "customer_id");
+        roomId = indexOf(labels, "room_id");
+        customerName = indexOf(labels, "customer_name");
+        customerEmail = indexOf(labels, "customer_email");
+        customerPhone = indexOf(labels, "customer_phone");
+        checkInDate = indexOf(labels, "check_in_date");
+        checkOutDate = indexOf(labels, "check_out_date");
+        status = indexOf(labels, "status");
+        totalAmount = indexOf(labels, "total_amount");
+        bookingDate = indexOf(labels, "booking_date");
+    }
+    
+    /**
+     * Resolve the column positions of a result set
+     */
+    public static BookingRowMapper forResultSet(ResultSet rs) throws SQLException {
+        return new BookingRowMapper(rs.getMetaData());
+    }
+    
+    /**
+     * Map every remaining row of a result set
+     */
+    public static List<Booking> mapAll(ResultSet rs) throws SQLException {
+        BookingRowMapper mapper = forResultSet(rs);
+        List<Booking> bookings = new ArrayList<>();
+        while (rs.next()) {
+            bookings.add(mapper.map(rs));
+        }
+        return bookings;
+    }
+    
+    /**
+     * Map the current row
+     */
+    public Booking map(ResultSet rs) throws SQLException {
+        Booking booking = new Booking();
+        if (bookingId > 0) {
+            booking.setBookingId(rs.getInt(bookingId));
+        }
+        if (customerId > 0) {
+            booking.setCustomerId(rs.getInt(customerId));
+        }
+        if (roomId > 0) {
+            booking.setRoomId(rs.getInt(roomId));
+        }
+        if (customerName > 0) {
+            booking.setCustomerName(rs.getString(customerName));
+        }
+        if (customerEmail > 0) {
+            booking.setCustomerEmail(rs.getString(customerEmail));
+        }
+        if (customerPhone > 0) {
+            booking.setCustomerPhone(rs.getString(customerPhone));
+        }
+        if (checkInDate > 0) {
+            booking.setCheckInDate(rs.getObject(checkInDate, LocalDate.class));
+        }
+        if (checkOutDate > 0) {
+            booking.setCheckOutDate(rs.getObject(checkOutDate, LocalDate.class));
+        }
+        if (status > 0) {
+            booking.setStatus(rs.getString(status));
+        }
+        if (totalAmount > 0) {
+            booking.setTotalAmount(rs.getDouble(totalAmount));
+        }
+        if (bookingDate > 0) {
+            // booking_date is a TIMESTAMP
+            LocalDateTime bookedAt = rs.getObject(bookingDate, LocalDateTime.class);
+            booking.setBookingDate(bookedAt != null ? bookedAt.toLocalDate() : null);
+        }
+        return booking;
+    }
+    
+    /**
+     * 1-based position of a column, or 0 if the query did not select it
+     */
+    private static int indexOf(String[] labels, String column) {
+        for (int i = 0; i < labels.length; i++) {
+            if (column.equalsIgnoreCase(labels[i])) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+}
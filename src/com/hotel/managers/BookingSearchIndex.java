@@ -0,0 +1,308 @@
+package com.hotel.managers;
+
+import com.hotel.models.Booking;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BookingSearchIndex - in-memory index for front-desk guest lookup
+ * Finds bookings by any fragment of the customer's name, email or phone, or
+ * by booking ID, without scanning every booking.
+ *
+ * - Every trigram of the searchable text has a posting list of booking IDs
+ * - The first one to three characters of every word have their own posting
+ *   lists, which serve short queries and rank prefix matches first
+ * - Posting lists are sorted int arrays, intersected lazily from the newest
+ *   booking down, so a query stops as soon as it has enough results
+ * - Candidates are confirmed against the text, since shared trigrams alone
+ *   don't prove a match; queries under three characters match word prefixes only
+ */
+public class BookingSearchIndex {
+    
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<Long, IntSet> trigrams = new HashMap<>(); // any position in a field
+    private final Map<Long, IntSet> wordStarts = new HashMap<>(); // first 1-3 characters of a word
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    /**
+     * Add a booking, or re-index it if it is already present
+     */
+    public void add(Booking booking) {
+        Entry entry = new Entry(booking.getBookingId(), booking.getStatus(),
+            normalize(booking.getCustomerName()),
+            normalize(booking.getCustomerEmail()),
+            normalize(booking.getCustomerPhone()));
+        
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(entry.bookingId, entry);
+            if (previous != null) {
+                unindex(previous);
+            }
+            for (long key : entry.trigramKeys()) {
+                trigrams.computeIfAbsent(key, k -> new IntSet()).add(entry.bookingId);
+            }
+            for (long key : entry.wordStartKeys()) {
+                wordStarts.computeIfAbsent(key, k -> new IntSet()).add(entry.bookingId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Record a status change; the searchable text is unaffected
+     */
+    public void updateStatus(int bookingId, String status) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(bookingId);
+            if (entry != null) {
+                entry.status = status;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(int bookingId) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.remove(bookingId);
+            if (entry != null) {
+                unindex(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Find bookings matching a fragment of name, email, phone or booking ID
+     * @param query text typed by the user
+     * @param status only bookings with this status, or null for any
+     * @param limit maximum number of IDs returned
+     * @return matching booking IDs: word-prefix matches first, then infix
+     *         matches, each newest first
+     */
+    public List<Integer> search(String query, String status, int limit) {
+        String q = normalize(query);
+        List<Integer> results = new ArrayList<>();
+        if (q.isEmpty() || limit <= 0) {
+            return results;
+        }
+        
+        lock.readLock().lock();
+        try {
+            // Prefix matches: the word-start gram plus every later trigram of the query
+            List<IntSet> prefixLists = new ArrayList<>();
+            prefixLists.add(wordStarts.get(gram(q, 0, Math.min(q.length(), 3))));
+            for (int i = 1; i + 3 <= q.length(); i++) {
+                prefixLists.add(trigrams.get(gram(q, i, 3)));
+            }
+            collect(prefixLists, q, Entry.PREFIX, status, limit, results);
+            
+            // Infix matches: every trigram of the query
+            if (q.length() >= 3 && results.size() < limit) {
+                Set<Long> keys = new HashSet<>();
+                List<IntSet> infixLists = new ArrayList<>();
+                for (int i = 0; i + 3 <= q.length(); i++) {
+                    if (keys.add(gram(q, i, 3))) {
+                        infixLists.add(trigrams.get(gram(q, i, 3)));
+                    }
+                }
+                collect(infixLists, q, Entry.INFIX, status, limit, results);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Walk the intersection of the posting lists from the highest ID down,
+     * adding confirmed matches of the wanted kind until the limit is reached
+     */
+    private void collect(List<IntSet> lists, String q, int wanted, String status, int limit, List<Integer> results) {
+        if (lists.contains(null)) {
+            return; // some gram never occurs, so nothing can match
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        IntSet driver = lists.get(0);
+        // IDs are visited in descending order, so each probe can narrow its list's search range
+        int[] upper = new int[lists.size()];
+        for (int j = 1; j < lists.size(); j++) {
+            upper[j] = lists.get(j).size;
+        }
+        
+        for (int i = driver.size - 1; i >= 0 && results.size() < limit; i--) {
+            int bookingId = driver.values[i];
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                int pos = Arrays.binarySearch(lists.get(j).values, 0, upper[j], bookingId);
+                inAll = pos >= 0;
+                upper[j] = inAll ? pos : -pos - 1;
+            }
+            if (!inAll) {
+                continue;
+            }
+            Entry entry = entries.get(bookingId);
+            if ((status == null || status.equals(entry.status)) && entry.match(q) == wanted) {
+                results.add(bookingId);
+            }
+        }
+    }
+    
+    private void unindex(Entry entry) {
+        for (long key : entry.trigramKeys()) {
+            removePosting(trigrams, key, entry.bookingId);
+        }
+        for (long key : entry.wordStartKeys()) {
+            removePosting(wordStarts, key, entry.bookingId);
+        }
+    }
+    
+    private static void removePosting(Map<Long, IntSet> postings, long key, int bookingId) {
+        IntSet ids = postings.get(key);
+        if (ids != null && ids.remove(bookingId) && ids.size == 0) {
+            postings.remove(key);
+        }
+    }
+    
+    /**
+     * Pack up to three characters starting at i, plus the length, into one key
+     */
+    private static long gram(String s, int i, int length) {
+        long key = length;
+        for (int k = 0; k < length; k++) {
+            key = (key << 16) | s.charAt(i + k);
+        }
+        return key;
+    }
+    
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Searchable text of one booking
+     */
+    private static final class Entry {
+        static final int NONE = 0;
+        static final int INFIX = 1;
+        static final int PREFIX = 2;
+        
+        final int bookingId;
+        final String[] fields;
+        final String[] tokens;
+        String status;
+        
+        Entry(int bookingId, String status, String name, String email, String phone) {
+            this.bookingId = bookingId;
+            this.status = status;
+            this.fields = new String[] { name, email, phone, String.valueOf(bookingId) };
+            
+            Set<String> words = new HashSet<>();
+            for (String field : fields) {
+                if (!field.isEmpty()) {
+                    words.add(field);
+                }
+            }
+            for (String part : (name + " " + email).split("[\\s@._+-]+")) {
+                if (!part.isEmpty()) {
+                    words.add(part);
+                }
+            }
+            this.tokens = words.toArray(new String[0]);
+        }
+        
+        Set<Long> trigramKeys() {
+            Set<Long> keys = new HashSet<>();
+            for (String field : fields) {
+                for (int i = 0; i + 3 <= field.length(); i++) {
+                    keys.add(gram(field, i, 3));
+                }
+            }
+            return keys;
+        }
+        
+        Set<Long> wordStartKeys() {
+            Set<Long> keys = new HashSet<>();
+            for (String token : tokens) {
+                for (int length = 1; length <= Math.min(3, token.length()); length++) {
+                    keys.add(gram(token, 0, length));
+                }
+            }
+            return keys;
+        }
+        
+        int match(String q) {
+            for (String token : tokens) {
+                if (token.startsWith(q)) {
+                    return PREFIX;
+                }
+            }
+            for (String field : fields) {
+                if (field.contains(q)) {
+                    return INFIX;
+                }
+            }
+            return NONE;
+        }
+    }
+    
+    /**
+     * Sorted set of ints backed by a growable array
+     * Booking IDs mostly arrive in ascending order, so adds are usually appends.
+     */
+    private static final class IntSet {
+        int[] values = new int[4];
+        int size;
+        
+        void add(int value) {
+            if (size > 0 && values[size - 1] < value) {
+                insertAt(size, value);
+                return;
+            }
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos < 0) {
+                insertAt(-pos - 1, value);
+            }
+        }
+        
+        boolean remove(int value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+        
+        private void insertAt(int pos, int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = value;
+            size++;
+        }
+    }
+}
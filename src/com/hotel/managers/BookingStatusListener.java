@@ -0,0 +1,16 @@
+package com.hotel.managers;
+
+/**
+ * BookingStatusListener - notified when a booking changes status
+ * Lets a view patch the one affected row instead of reloading every booking.
+ * Called on the thread that made the change, after it was committed; Swing
+ * listeners must hand the update over to the Event Dispatch Thread.
+ */
+public interface BookingStatusListener {
+    
+    /**
+     * @param bookingId the booking that changed
+     * @param status its new status
+     */
+    void bookingStatusChanged(int bookingId, String status);
+}
@@ -0,0 +1,126 @@
+package com.hotel.managers;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * RefreshingIndex - an in-memory index rebuilt from the database once it is older than maxAgeMillis
+ * Other processes write to the same tables, so patching the index with this
+ * process's own writes is not enough; a periodic rebuild bounds how stale it gets.
+ *
+ * - Loads run on the caller's thread but outside any shared monitor; only callers
+ *   with no usable index wait for one, everyone else keeps reading the old copy
+ * - A finished load is published with a volatile write
+ * - Patches made while a load is running are applied to the old copy and replayed
+ *   onto the new one, so a write that the load's query missed is not lost
+ * - A failed refresh is logged and the old copy is kept until the next attempt
+ */
+final class RefreshingIndex<T> {
+    
+    interface Loader<T> {
+        T load() throws SQLException;
+    }
+    
+    private final Loader<T> loader;
+    private final Predicate<T> usable;
+    private final long maxAgeMillis;
+    private final ReentrantLock loadLock = new ReentrantLock();
+    
+    private volatile T current;
+    private volatile long loadedAt;
+    private List<Consumer<T>> pendingPatches; // guarded by this; non-null while a load runs
+    
+    /**
+     * @param usable false for an index that must not be served at all (e.g. one for
+     *               a window that has moved on), which makes the next get() wait for a load
+     */
+    RefreshingIndex(Loader<T> loader, Predicate<T> usable, long maxAgeMillis) {
+        this.loader = loader;
+        this.usable = usable;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+    
+    /**
+     * Get the index, loading it if there is none and refreshing it if it is too old
+     */
+    T get() throws SQLException {
+        T index = current;
+        if (index != null && usable.test(index)) {
+            if (System.currentTimeMillis() - loadedAt <= maxAgeMillis || !loadLock.tryLock()) {
+                // Fresh, or another thread is already refreshing it
+                return index;
+            }
+            try {
+                if (current == index) {
+                    return load();
+                }
+                return current;
+            } catch (SQLException e) {
+                System.err.println("Error refreshing index, serving the previous copy: " + e.getMessage());
+                return index;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        
+        loadLock.lock();
+        try {
+            index = current;
+            if (index != null && usable.test(index)) {
+                return index;
+            }
+            return load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+    
+    /**
+     * The index as it is now, without loading; null if none has been loaded
+     */
+    T peek() {
+        return current;
+    }
+    
+    /**
+     * Apply a change made by this process to the current index, and to the one
+     * being loaded if a load is running
+     */
+    synchronized void patch(Consumer<T> change) {
+        if (current != null) {
+            change.accept(current);
+        }
+        if (pendingPatches != null) {
+            pendingPatches.add(change);
+        }
+    }
+    
+    private T load() throws SQLException {
+        long startedAt = System.currentTimeMillis();
+        synchronized (this) {
+            pendingPatches = new ArrayList<>();
+        }
+        T loaded;
+        try {
+            loaded = loader.load();
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                pendingPatches = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (Consumer<T> change : pendingPatches) {
+                change.accept(loaded);
+            }
+            pendingPatches = null;
+            current = loaded;
+            loadedAt = startedAt;
+        }
+        return loaded;
+    }
+}
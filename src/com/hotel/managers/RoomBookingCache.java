@@ -0,0 +1,229 @@
+package com.hotel.managers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RoomBookingCache - write-through cache of each room's active booking intervals
+ * A room's CONFIRMED/CHECKED_IN stays are kept sorted by check-in day, so an
+ * overlap check is one binary search instead of a database round trip.
+ *
+ * - At most maxRooms rooms are cached; on overflow the least recently used are evicted
+ * - Entries older than the time-to-live are reloaded, which bounds staleness
+ *   when another process writes to the same database
+ * - New bookings are added in place; status changes invalidate the room
+ */
+public class RoomBookingCache {
+    
+    private final int maxRooms;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<Integer, RoomIntervals> entries = new ConcurrentHashMap<>();
+    
+    // Bumped on every write so a load that raced with a write is not cached
+    private final AtomicLong modificationStamp = new AtomicLong();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    public RoomBookingCache(int maxRooms, long ttlMillis) {
+        if (maxRooms <= 0) {
+            throw new IllegalArgumentException("Cache must hold at least one room");
+        }
+        this.maxRooms = maxRooms;
+        this.ttlMillis = ttlMillis;
+    }
+    
+    /**
+     * Get a room's cached intervals
+     * @return intervals, or null if the room is not cached or its entry expired
+     */
+    public RoomIntervals get(int roomId) {
+        RoomIntervals intervals = entries.get(roomId);
+        long now = System.currentTimeMillis();
+        if (intervals == null || now - intervals.loadedAt > ttlMillis) {
+            misses.increment();
+            return null;
+        }
+        intervals.lastAccess = now;
+        hits.increment();
+        return intervals;
+    }
+    
+    /**
+     * Stamp to take before loading a room from the database
+     */
+    public long currentStamp() {
+        return modificationStamp.get();
+    }
+    
+    /**
+     * Cache freshly loaded intervals unless a write happened since the stamp was taken
+     */
+    public void put(int roomId, RoomIntervals intervals, long stamp) {
+        if (modificationStamp.get() != stamp) {
+            return;
+        }
+        entries.put(roomId, intervals);
+        if (entries.size() > maxRooms) {
+            evictLeastRecentlyUsed();
+        }
+    }
+    
+    /**
+     * Write-through for a newly stored booking
+     */
+    public void addBooking(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        modificationStamp.incrementAndGet();
+        entries.computeIfPresent(roomId, (id, intervals) -> intervals.with(checkIn, checkOut));
+    }
+    
+    /**
+     * Drop a room so its next lookup reloads from the database
+     */
+    public void invalidate(int roomId) {
+        modificationStamp.incrementAndGet();
+        entries.remove(roomId);
+    }
+    
+    public void invalidateAll() {
+        modificationStamp.incrementAndGet();
+        entries.clear();
+    }
+    
+    /**
+     * Evict roughly a tenth of the cache, oldest access first, so the scan is amortized
+     */
+    private synchronized void evictLeastRecentlyUsed() {
+        int excess = entries.size() - maxRooms;
+        if (excess <= 0) {
+            return;
+        }
+        int toEvict = Math.max(excess, maxRooms / 10);
+        List<Map.Entry<Integer, RoomIntervals>> snapshot = new ArrayList<>(entries.entrySet());
+        snapshot.sort((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess));
+        for (int i = 0; i < toEvict && i < snapshot.size(); i++) {
+            if (entries.remove(snapshot.get(i).getKey(), snapshot.get(i).getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public long getHitCount() {
+        return hits.sum();
+    }
+    
+    public long getMissCount() {
+        return misses.sum();
+    }
+    
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+    
+    /**
+     * Immutable, sorted set of one room's active stays
+     * Stays are [checkIn, checkOut) in epoch days. maxEnd[i] is the latest
+     * check-out among stays 0..i, so the check stays correct even if legacy
+     * data already contains overlapping stays.
+     */
+    public static final class RoomIntervals {
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnd;
+        private final long loadedAt;
+        private volatile long lastAccess;
+        
+        private RoomIntervals(long[] starts, long[] ends, long loadedAt) {
+            this.starts = starts;
+            this.ends = ends;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+            this.maxEnd = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnd[i] = max;
+            }
+        }
+        
+        /**
+         * Build from unsorted stays
+         */
+        public static RoomIntervals of(List<LocalDate> checkIns, List<LocalDate> checkOuts) {
+            int n = checkIns.size();
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> checkIns.get(a).compareTo(checkIns.get(b)));
+            
+            long[] starts = new long[n];
+            long[] ends = new long[n];
+            for (int i = 0; i < n; i++) {
+                starts[i] = checkIns.get(order[i]).toEpochDay();
+                ends[i] = checkOuts.get(order[i]).toEpochDay();
+            }
+            return new RoomIntervals(starts, ends, System.currentTimeMillis());
+        }
+        
+        /**
+         * Check if any stay shares a night with [checkIn, checkOut)
+         */
+        public boolean overlaps(LocalDate checkIn, LocalDate checkOut) {
+            long in = checkIn.toEpochDay();
+            long out = checkOut.toEpochDay();
+            // Rightmost stay starting before the new check-out
+            int low = 0;
+            int high = starts.length - 1;
+            int last = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < out) {
+                    last = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return last >= 0 && maxEnd[last] > in;
+        }
+        
+        public int size() {
+            return starts.length;
+        }
+        
+        /**
+         * Copy with one more stay, keeping the original load time for TTL purposes
+         */
+        RoomIntervals with(LocalDate checkIn, LocalDate checkOut) {
+            long start = checkIn.toEpochDay();
+            int pos = Arrays.binarySearch(starts, start);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            int n = starts.length;
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            newStarts[pos] = start;
+            newEnds[pos] = checkOut.toEpochDay();
+            System.arraycopy(starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(ends, pos, newEnds, pos + 1, n - pos);
+            RoomIntervals copy = new RoomIntervals(newStarts, newEnds, loadedAt);
+            copy.lastAccess = System.currentTimeMillis();
+            return copy;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.hotel.managers;
 
+import com.hotel.database.SingleConnectionDataSource;
 import com.hotel.models.Booking;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
 
 /**
  * Simple BookingManager class - demonstrates basic concepts
@@ -11,13 +15,29 @@ import java.util.ArrayList;
  * 3. Simple exception handling with try-catch
  */
 public class SimpleBookingManager {
-    private Connection connection;
+    private DataSource dataSource;
     private ArrayList<Booking> bookingList; // Using ArrayList (Collections)
+    private final BookingManager statusManager; // status changes share its transactional path
+    private final List<BookingStatusListener> statusListeners = new CopyOnWriteArrayList<>();
     
-    // Constructor
-    public SimpleBookingManager(Connection connection) {
-        this.connection = connection;
+    // Optional cache for getTotalBookingsCount (disabled by default)
+    private volatile long countCacheMillis = 0;
+    private volatile int cachedCount = -1;
+    private volatile long cachedCountAt;
+    
+    private static final String BOOKING_COLUMNS = "booking_id, room_id, customer_name, customer_email, customer_phone, " +
+                                                  "check_in_date, check_out_date, status, total_amount";
+    
+    // Constructor - borrows a pooled connection for each operation
+    public SimpleBookingManager(DataSource dataSource) {
+        this.dataSource = dataSource;
         this.bookingList = new ArrayList<>(); // Initialize ArrayList
+        this.statusManager = new BookingManager(dataSource);
+    }
+    
+    // Constructor - shares one caller-owned connection
+    public SimpleBookingManager(Connection connection) {
+        this(new SingleConnectionDataSource(connection));
     }
     
     /**
@@ -26,27 +46,17 @@ public class SimpleBookingManager {
      */
     public ArrayList<Booking> getAllBookings() {
         bookingList.clear(); // Clear existing data
-        String query = "SELECT * FROM bookings ORDER BY booking_id";
+        String query = "SELECT " + BOOKING_COLUMNS + " FROM bookings ORDER BY booking_id";
         
-        try {
+        try (Connection connection = dataSource.getConnection()) {
             Statement stmt = connection.createStatement();
             ResultSet rs = stmt.executeQuery(query);
             
+            // Column positions are resolved once, then each row is read by index
+            BookingRowMapper mapper = BookingRowMapper.forResultSet(rs);
             while (rs.next()) {
-                // Create new booking object
-                Booking booking = new Booking();
-                booking.setBookingId(rs.getInt("booking_id"));
-                booking.setRoomId(rs.getInt("room_id"));
-                booking.setCustomerName(rs.getString("customer_name"));
-                booking.setCustomerEmail(rs.getString("customer_email"));
-                booking.setCustomerPhone(rs.getString("customer_phone"));
-                booking.setCheckInDate(rs.getString("check_in_date"));
-                booking.setCheckOutDate(rs.getString("check_out_date"));
-                booking.setStatus(rs.getString("status"));
-                booking.setTotalAmount(rs.getDouble("total_amount"));
-                
                 // Add to ArrayList
-                bookingList.add(booking);
+                bookingList.add(mapper.map(rs));
             }
             
             rs.close();
@@ -61,19 +71,15 @@ public class SimpleBookingManager {
     
     /**
      * Check-in a booking
-     * Demonstrates: Basic SQL UPDATE operation
+     * Only a CONFIRMED booking can be checked in.
      */
     public boolean checkInBooking(int bookingId) {
-        String query = "UPDATE bookings SET status = 'CHECKED_IN' WHERE booking_id = ?";
-        
         try {
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setInt(1, bookingId);
-            
-            int rowsUpdated = stmt.executeUpdate();
-            stmt.close();
-            
-            return rowsUpdated > 0; // Return true if update successful
+            boolean updated = statusManager.checkInBooking(bookingId);
+            if (updated) {
+                fireStatusChanged(bookingId, "CHECKED_IN");
+            }
+            return updated;
             
         } catch (SQLException e) {
             System.out.println("Error checking in booking: " + e.getMessage());
@@ -83,19 +89,17 @@ public class SimpleBookingManager {
     
     /**
      * Check-out a booking
-     * Demonstrates: Basic SQL UPDATE operation
+     * Goes through BookingManager so the booking's room_nights ledger rows, where
+     * the schema has them, are freed in the same transaction; only a CHECKED_IN
+     * booking can be checked out.
      */
     public boolean checkOutBooking(int bookingId) {
-        String query = "UPDATE bookings SET status = 'CHECKED_OUT' WHERE booking_id = ?";
-        
         try {
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setInt(1, bookingId);
-            
-            int rowsUpdated = stmt.executeUpdate();
-            stmt.close();
-            
-            return rowsUpdated > 0;
+            boolean updated = statusManager.checkOutBooking(bookingId);
+            if (updated) {
+                fireStatusChanged(bookingId, "CHECKED_OUT");
+            }
+            return updated;
             
         } catch (SQLException e) {
             System.out.println("Error checking out booking: " + e.getMessage());
@@ -105,19 +109,17 @@ public class SimpleBookingManager {
     
     /**
      * Cancel a booking
-     * Demonstrates: Basic SQL UPDATE operation
+     * Goes through BookingManager so the booking's room_nights ledger rows, where
+     * the schema has them, are freed in the same transaction; only an active
+     * booking can be cancelled.
      */
     public boolean cancelBooking(int bookingId) {
-        String query = "UPDATE bookings SET status = 'CANCELLED' WHERE booking_id = ?";
-        
         try {
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setInt(1, bookingId);
-            
-            int rowsUpdated = stmt.executeUpdate();
-            stmt.close();
-            
-            return rowsUpdated > 0;
+            boolean updated = statusManager.cancelBooking(bookingId);
+            if (updated) {
+                fireStatusChanged(bookingId, "CANCELLED");
+            }
+            return updated;
             
         } catch (SQLException e) {
             System.out.println("Error cancelling booking: " + e.getMessage());
@@ -126,55 +128,132 @@ public class SimpleBookingManager {
     }
     
     /**
-     * Search bookings by customer name
-     * Demonstrates: ArrayList searching, String methods
+     * Register a listener for check-in, check-out and cancellation
+     */
+    public void addBookingStatusListener(BookingStatusListener listener) {
+        statusListeners.add(listener);
+    }
+    
+    public void removeBookingStatusListener(BookingStatusListener listener) {
+        statusListeners.remove(listener);
+    }
+    
+    private void fireStatusChanged(int bookingId, String status) {
+        for (BookingStatusListener listener : statusListeners) {
+            listener.bookingStatusChanged(bookingId, status);
+        }
+    }
+    
+    /**
+     * Search bookings by customer name (matches anywhere in the name)
+     * Demonstrates: parameterized LIKE query
+     * The comparison is case-insensitive through the column's default collation.
      */
     public ArrayList<Booking> searchBookingsByName(String customerName) {
-        ArrayList<Booking> searchResults = new ArrayList<>();
+        String query = "SELECT " + BOOKING_COLUMNS + " FROM bookings " +
+                      "WHERE customer_name LIKE ? ESCAPE '!' ORDER BY booking_id";
         
-        // Get all bookings first
-        getAllBookings();
-        
-        // Search through ArrayList
-        for (int i = 0; i < bookingList.size(); i++) {
-            Booking booking = bookingList.get(i);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, "%" + escapeLike(customerName) + "%");
+            return readBookings(stmt);
             
-            // Simple string comparison (case-insensitive)
-            if (booking.getCustomerName().toLowerCase().contains(customerName.toLowerCase())) {
-                searchResults.add(booking);
-            }
+        } catch (SQLException e) {
+            System.out.println("Error searching bookings: " + e.getMessage());
+            return new ArrayList<>();
         }
+    }
+    
+    /**
+     * Typeahead search: bookings whose customer name starts with the given text
+     * A prefix LIKE is a range scan on idx_bookings_customer_name, and the
+     * limit caps the rows read, so the cost does not grow with the table.
+     */
+    public ArrayList<Booking> searchBookingsByNamePrefix(String prefix, int limit) {
+        String query = "SELECT " + BOOKING_COLUMNS + " FROM bookings " +
+                      "WHERE customer_name LIKE ? ESCAPE '!' ORDER BY customer_name, booking_id LIMIT ?";
         
-        return searchResults;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, escapeLike(prefix) + "%");
+            stmt.setInt(2, limit);
+            return readBookings(stmt);
+            
+        } catch (SQLException e) {
+            System.out.println("Error searching bookings: " + e.getMessage());
+            return new ArrayList<>();
+        }
     }
     
     /**
      * Get bookings by status
-     * Demonstrates: ArrayList filtering
+     * Demonstrates: WHERE clause filtering in the database
      */
     public ArrayList<Booking> getBookingsByStatus(String status) {
-        ArrayList<Booking> filteredBookings = new ArrayList<>();
-        
-        // Get all bookings first
-        getAllBookings();
+        String query = "SELECT " + BOOKING_COLUMNS + " FROM bookings WHERE status = ? ORDER BY booking_id";
         
-        // Filter by status
-        for (Booking booking : bookingList) { // Enhanced for loop
-            if (booking.getStatus().equals(status)) {
-                filteredBookings.add(booking);
-            }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, status);
+            return readBookings(stmt);
+            
+        } catch (SQLException e) {
+            System.out.println("Error getting bookings: " + e.getMessage());
+            return new ArrayList<>();
         }
-        
-        return filteredBookings;
     }
     
     /**
      * Count total bookings
-     * Demonstrates: ArrayList size() method
+     * Demonstrates: COUNT(*) aggregate, optionally cached for countCacheMillis
      */
     public int getTotalBookingsCount() {
-        getAllBookings();
-        return bookingList.size();
+        long now = System.currentTimeMillis();
+        if (cachedCount >= 0 && now - cachedCountAt < countCacheMillis) {
+            return cachedCount;
+        }
+        
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT COUNT(*) FROM bookings");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            int count = rs.getInt(1);
+            if (countCacheMillis > 0) {
+                cachedCount = count;
+                cachedCountAt = now;
+            }
+            return count;
+            
+        } catch (SQLException e) {
+            System.out.println("Error counting bookings: " + e.getMessage());
+            return 0;
+        }
+    }
+    
+    /**
+     * Cache the total count for the given time (0 disables the cache)
+     */
+    public void setCountCacheMillis(long countCacheMillis) {
+        this.countCacheMillis = countCacheMillis;
+        this.cachedCount = -1;
+    }
+    
+    private ArrayList<Booking> readBookings(PreparedStatement stmt) throws SQLException {
+        ArrayList<Booking> bookings = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            BookingRowMapper mapper = BookingRowMapper.forResultSet(rs);
+            while (rs.next()) {
+                bookings.add(mapper.map(rs));
+            }
+        }
+        return bookings;
+    }
+    
+    /**
+     * Escape LIKE wildcards so user input is matched literally
+     */
+    private static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
     
     /**
@@ -0,0 +1,67 @@
+package com.hotel.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one BookingManager operation
+ * The event's duration covers the whole call, including waits for room locks
+ * and pooled connections; the JDBC statements it ran appear as nested
+ * com.hotel.JdbcStatement events on the same thread.
+ *
+ * Usage: begin() before the work, then end(...) exactly once. While no recording
+ * has the event enabled, both calls are no-ops the JIT can remove.
+ */
+@Name("com.hotel.BookingOperation")
+@Label("Booking Operation")
+@Category({ "Hotel", "Booking" })
+@Description("A booking validation, creation, status change or availability lookup")
+public class BookingOperationEvent extends jdk.jfr.Event {
+    
+    public static final String OK = "OK";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String UNCHANGED = "UNCHANGED";
+    public static final String FAILED = "FAILED";
+    
+    @Label("Operation")
+    String operation;
+    
+    @Label("Booking ID")
+    @Description("Booking the operation acted on, 0 if none or several")
+    int bookingId;
+    
+    @Label("Room ID")
+    @Description("Room the operation acted on, 0 if none or several")
+    int roomId;
+    
+    @Label("Bookings")
+    @Description("Bookings in the request")
+    int bookingCount;
+    
+    @Label("Rows Touched")
+    @Description("Database rows read or written, 0 when answered from memory")
+    long rowsTouched;
+    
+    @Label("Outcome")
+    String outcome;
+    
+    public BookingOperationEvent(String operation) {
+        this.operation = operation;
+    }
+    
+    /**
+     * Commit the event if a recording wants it
+     */
+    public void end(int bookingId, int roomId, int bookingCount, long rowsTouched, String outcome) {
+        if (shouldCommit()) {
+            this.bookingId = bookingId;
+            this.roomId = roomId;
+            this.bookingCount = bookingCount;
+            this.rowsTouched = rowsTouched;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
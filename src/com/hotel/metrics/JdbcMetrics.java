@@ -0,0 +1,367 @@
+package com.hotel.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Timings for the SQL run through one connection pool
+ * Fed by the pool's instrumented connections, so callers need no changes.
+ *
+ * - Per statement: latency histogram, executions, errors and rows
+ * - Time spent waiting for a pooled connection
+ * - Statements slower than the threshold are logged to System.err with their
+ *   bound parameters (hidden for statements that mention a password) and kept
+ *   in a short history
+ *
+ * The threshold defaults to the hotel.jdbc.slowQueryMillis system property, or 200 ms.
+ */
+public class JdbcMetrics implements JdbcMetricsMXBean {
+    
+    /** Statements beyond this many distinct SQL strings are counted together */
+    public static final int MAX_STATEMENTS = 500;
+    public static final String OTHER_STATEMENTS = "(other statements)";
+    
+    private static final int SLOW_QUERY_HISTORY = 100;
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final LatencyHistogram poolWait = new LatencyHistogram();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+    private final LongAdder slowQueryCount = new LongAdder();
+    private volatile long slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("hotel.jdbc.slowQueryMillis", 200));
+    private volatile boolean enabled = true;
+    private ObjectName registeredName;
+    
+    /**
+     * Record the time a borrower waited for a connection
+     */
+    public void recordPoolWait(long nanos) {
+        poolWait.record(nanos);
+    }
+    
+    /**
+     * Record one execution of a statement
+     * @param sql the statement text
+     * @param nanos time the driver took to execute it
+     * @param rows rows changed, for updates; rows read are added later by recordRows
+     * @param failed whether the driver threw
+     * @param parameters bound parameters by index (element 0 unused), or null
+     */
+    public void recordExecution(String sql, long nanos, long rows, boolean failed, Object[] parameters) {
+        StatementStats stats = statsFor(sql);
+        stats.latency.record(nanos);
+        if (failed) {
+            stats.errors.increment();
+        }
+        if (rows > 0) {
+            stats.rows.add(rows);
+        }
+        if (nanos >= slowQueryNanos) {
+            SlowQuery slow = new SlowQuery(System.currentTimeMillis(), sql, describe(sql, parameters),
+                nanos / 1_000_000.0, Thread.currentThread().getName());
+            slowQueryCount.increment();
+            synchronized (slowQueries) {
+                slowQueries.addFirst(slow);
+                if (slowQueries.size() > SLOW_QUERY_HISTORY) {
+                    slowQueries.removeLast();
+                }
+            }
+            System.err.println("Slow query: " + slow);
+        }
+    }
+    
+    /**
+     * Add rows read from a statement's result set
+     */
+    public void recordRows(String sql, long rows) {
+        if (rows > 0) {
+            statsFor(sql).rows.add(rows);
+        }
+    }
+    
+    private StatementStats statsFor(String sql) {
+        String key = sql == null ? OTHER_STATEMENTS : sql;
+        StatementStats stats = statements.get(key);
+        if (stats == null) {
+            // Statements built by concatenation could otherwise grow the map without bound
+            if (statements.size() >= MAX_STATEMENTS) {
+                key = OTHER_STATEMENTS;
+            }
+            stats = statements.computeIfAbsent(key, k -> new StatementStats());
+        }
+        return stats;
+    }
+    
+    /**
+     * Live figures for one statement, or null if it has not run
+     */
+    public StatementStats getStatementStats(String sql) {
+        return statements.get(sql);
+    }
+    
+    public LatencyHistogram getPoolWaitHistogram() {
+        return poolWait;
+    }
+    
+    /**
+     * The most recent slow queries, newest first
+     */
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+    
+    // JdbcMetricsMXBean
+    
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Turn instrumentation of newly created statements on or off
+     */
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    @Override
+    public long getSlowQueryThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowQueryNanos);
+    }
+    
+    @Override
+    public void setSlowQueryThresholdMillis(long millis) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+    
+    @Override
+    public long getExecutionCount() {
+        long total = 0;
+        for (StatementStats stats : statements.values()) {
+            total += stats.latency.getCount();
+        }
+        return total;
+    }
+    
+    @Override
+    public long getErrorCount() {
+        long total = 0;
+        for (StatementStats stats : statements.values()) {
+            total += stats.errors.sum();
+        }
+        return total;
+    }
+    
+    @Override
+    public long getRowCount() {
+        long total = 0;
+        for (StatementStats stats : statements.values()) {
+            total += stats.rows.sum();
+        }
+        return total;
+    }
+    
+    @Override
+    public long getSlowQueryCount() {
+        return slowQueryCount.sum();
+    }
+    
+    @Override
+    public double getPoolWaitMeanMillis() {
+        return poolWait.getMeanNanos() / 1_000_000.0;
+    }
+    
+    @Override
+    public double getPoolWaitP99Millis() {
+        return poolWait.getPercentileMillis(99);
+    }
+    
+    @Override
+    public double getPoolWaitMaxMillis() {
+        return poolWait.getMaxNanos() / 1_000_000.0;
+    }
+    
+    @Override
+    public List<StatementSummary> getStatements() {
+        List<StatementSummary> summaries = new ArrayList<>(statements.size());
+        for (Map.Entry<String, StatementStats> entry : statements.entrySet()) {
+            summaries.add(entry.getValue().summarize(entry.getKey()));
+        }
+        summaries.sort(Comparator.comparingDouble(StatementSummary::getTotalMillis).reversed());
+        return summaries;
+    }
+    
+    @Override
+    public List<String> getRecentSlowQueries() {
+        List<String> lines = new ArrayList<>();
+        for (SlowQuery slow : getSlowQueries()) {
+            lines.add(slow.toString());
+        }
+        return lines;
+    }
+    
+    @Override
+    public void reset() {
+        statements.clear();
+        poolWait.reset();
+        slowQueryCount.reset();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+    
+    /**
+     * Register with the platform MBean server as com.hotel:type=JdbcMetrics,name=&lt;name&gt;
+     * Whatever was registered under that name before is replaced.
+     */
+    public synchronized void registerMBean(String name) {
+        unregisterMBean();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("com.hotel:type=JdbcMetrics,name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+            registeredName = objectName;
+        } catch (JMException e) {
+            System.err.println("Could not register JDBC metrics with JMX: " + e.getMessage());
+        }
+    }
+    
+    public synchronized void unregisterMBean() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(registeredName)) {
+                server.unregisterMBean(registeredName);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not unregister JDBC metrics: " + e.getMessage());
+        }
+        registeredName = null;
+    }
+    
+    /**
+     * Text report of the statements taking the most time in total
+     */
+    public String report(int limit) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Pool wait: mean %.3f ms, p99 %.3f ms, max %.3f ms%n",
+            getPoolWaitMeanMillis(), getPoolWaitP99Millis(), getPoolWaitMaxMillis()));
+        List<StatementSummary> summaries = getStatements();
+        for (int i = 0; i < Math.min(limit, summaries.size()); i++) {
+            sb.append(summaries.get(i)).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+    
+    private static String describe(String sql, Object[] parameters) {
+        if (parameters == null || parameters.length <= 1) {
+            return "";
+        }
+        if (sql != null && sql.toLowerCase(Locale.ROOT).contains("password")) {
+            return "(hidden)";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i < parameters.length; i++) {
+            if (i > 1) {
+                sb.append(", ");
+            }
+            String value = String.valueOf(parameters[i]);
+            sb.append(value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value);
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Live counters for one statement
+     */
+    public static class StatementStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+        
+        public long getErrors() {
+            return errors.sum();
+        }
+        
+        public long getRows() {
+            return rows.sum();
+        }
+        
+        StatementSummary summarize(String sql) {
+            long executions = latency.getCount();
+            double mean = latency.getMeanNanos() / 1_000_000.0;
+            return new StatementSummary(sql, executions, errors.sum(), rows.sum(), mean * executions, mean,
+                latency.getPercentileMillis(50), latency.getPercentileMillis(99), latency.getMaxNanos() / 1_000_000.0);
+        }
+    }
+    
+    /**
+     * One statement that ran longer than the threshold
+     */
+    public static class SlowQuery {
+        private final long timestamp;
+        private final String sql;
+        private final String parameters;
+        private final double millis;
+        private final String thread;
+        
+        SlowQuery(long timestamp, String sql, String parameters, double millis, String thread) {
+            this.timestamp = timestamp;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.millis = millis;
+            this.thread = thread;
+        }
+        
+        public long getTimestamp() {
+            return timestamp;
+        }
+        
+        public String getSql() {
+            return sql;
+        }
+        
+        public String getParameters() {
+            return parameters;
+        }
+        
+        public double getMillis() {
+            return millis;
+        }
+        
+        public String getThread() {
+            return thread;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s %.1f ms [%s] %s%s", Instant.ofEpochMilli(timestamp), millis, thread, sql,
+                parameters.isEmpty() ? "" : " with (" + parameters + ")");
+        }
+    }
+}
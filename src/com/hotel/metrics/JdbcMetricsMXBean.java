@@ -0,0 +1,43 @@
+package com.hotel.metrics;
+
+import java.util.List;
+
+/**
+ * JMX view of JdbcMetrics, registered as com.hotel:type=JdbcMetrics,name=...
+ */
+public interface JdbcMetricsMXBean {
+    
+    boolean isEnabled();
+    
+    void setEnabled(boolean enabled);
+    
+    long getSlowQueryThresholdMillis();
+    
+    void setSlowQueryThresholdMillis(long millis);
+    
+    long getExecutionCount();
+    
+    long getErrorCount();
+    
+    long getRowCount();
+    
+    long getSlowQueryCount();
+    
+    double getPoolWaitMeanMillis();
+    
+    double getPoolWaitP99Millis();
+    
+    double getPoolWaitMaxMillis();
+    
+    /**
+     * Per-statement figures, the statements taking the most time in total first
+     */
+    List<StatementSummary> getStatements();
+    
+    /**
+     * The most recent slow queries, newest first
+     */
+    List<String> getRecentSlowQueries();
+    
+    void reset();
+}
@@ -0,0 +1,38 @@
+package com.hotel.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one statement execution through the connection pool
+ * The duration is the driver's execute call; rows read later from the result
+ * set are not included.
+ */
+@Name("com.hotel.JdbcStatement")
+@Label("JDBC Statement")
+@Category({ "Hotel", "Database" })
+@Description("A statement executed on a pooled connection")
+@StackTrace(false)
+public class JdbcStatementEvent extends jdk.jfr.Event {
+    
+    @Label("SQL")
+    String sql;
+    
+    @Label("Rows Changed")
+    long rowsChanged;
+    
+    @Label("Failed")
+    boolean failed;
+    
+    public void end(String sql, long rowsChanged, boolean failed) {
+        if (shouldCommit()) {
+            this.sql = sql;
+            this.rowsChanged = rowsChanged;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
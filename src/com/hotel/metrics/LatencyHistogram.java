@@ -0,0 +1,150 @@
+package com.hotel.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent latency histogram with logarithmic buckets, in the manner of HdrHistogram
+ * Each power of two is split into 32 buckets, so a percentile is accurate to about 3%
+ * and the histogram takes a fixed 15 KB however many values it holds.
+ *
+ * - record() is lock-free: an atomic increment and two striped adders
+ * - Values are nanoseconds; anything from 0 to Long.MAX_VALUE can be recorded
+ * - Percentiles are reported as the upper bound of their bucket, capped at the maximum
+ */
+public class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    
+    /**
+     * Record one value
+     * @param nanos latency in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+    
+    /**
+     * Time a task and record how long it took
+     */
+    public void time(Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            record(System.nanoTime() - start);
+        }
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    public long getMaxNanos() {
+        return max.get();
+    }
+    
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+    
+    /**
+     * Value below which the given share of recorded values fall
+     * @param percentile 0 to 100, e.g. 99.9
+     * @return nanoseconds, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+    
+    /**
+     * Convenience for reports: a percentile in milliseconds
+     */
+    public double getPercentileMillis(double percentile) {
+        return getValueAtPercentile(percentile) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+    
+    /**
+     * Add every value recorded in another histogram to this one
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = other.counts.get(i);
+            if (n != 0) {
+                counts.addAndGet(i, n);
+            }
+        }
+        count.add(other.count.sum());
+        sum.add(other.sum.sum());
+        max.accumulate(other.max.get());
+    }
+    
+    /**
+     * Forget everything recorded so far
+     * Values recorded while the reset runs may be partly kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.3f ms, p50=%.3f ms, p99=%.3f ms, max=%.3f ms",
+            getCount(), getMeanNanos() / 1e6, getPercentileMillis(50), getPercentileMillis(99), getMaxNanos() / 1e6);
+    }
+    
+    // Values below 32 get a bucket each; above that, the top 5 bits after the leading one pick the bucket
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+    
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        long width = 1L << shift;
+        return lowest + width - 1 < 0 ? Long.MAX_VALUE : lowest + width - 1;
+    }
+}
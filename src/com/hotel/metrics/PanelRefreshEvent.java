@@ -0,0 +1,51 @@
+package com.hotel.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a panel reload, from the user's action on the EDT
+ * until the result is on screen
+ * The duration therefore includes queueing behind other background tasks, the
+ * database work and applying the rows to the table model.
+ */
+@Name("com.hotel.PanelRefresh")
+@Label("Panel Refresh")
+@Category({ "Hotel", "UI" })
+@Description("Background load of a panel's data and its display")
+@StackTrace(false)
+public class PanelRefreshEvent extends jdk.jfr.Event {
+    
+    @Label("Panel")
+    String panel;
+    
+    @Label("Action")
+    String action;
+    
+    @Label("Rows")
+    @Description("Rows added to or shown in the table")
+    int rows;
+    
+    @Label("Outcome")
+    String outcome;
+    
+    public PanelRefreshEvent(String panel, String action) {
+        this.panel = panel;
+        this.action = action;
+    }
+    
+    /**
+     * Commit the event if a recording wants it
+     * @param outcome OK or FAILED
+     */
+    public void end(int rows, String outcome) {
+        if (shouldCommit()) {
+            this.rows = rows;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
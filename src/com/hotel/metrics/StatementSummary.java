@@ -0,0 +1,79 @@
+package com.hotel.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Point-in-time figures for one SQL statement
+ */
+public class StatementSummary {
+    
+    private final String sql;
+    private final long executions;
+    private final long errors;
+    private final long rows;
+    private final double totalMillis;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+    
+    @ConstructorProperties({"sql", "executions", "errors", "rows", "totalMillis", "meanMillis", "p50Millis",
+                            "p99Millis", "maxMillis"})
+    public StatementSummary(String sql, long executions, long errors, long rows, double totalMillis,
+                            double meanMillis, double p50Millis, double p99Millis, double maxMillis) {
+        this.sql = sql;
+        this.executions = executions;
+        this.errors = errors;
+        this.rows = rows;
+        this.totalMillis = totalMillis;
+        this.meanMillis = meanMillis;
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+    
+    public String getSql() {
+        return sql;
+    }
+    
+    public long getExecutions() {
+        return executions;
+    }
+    
+    public long getErrors() {
+        return errors;
+    }
+    
+    /**
+     * Rows read from result sets plus rows reported changed by updates
+     */
+    public long getRows() {
+        return rows;
+    }
+    
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+    
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+    
+    public double getP50Millis() {
+        return p50Millis;
+    }
+    
+    public double getP99Millis() {
+        return p99Millis;
+    }
+    
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%8d x  mean %8.3f  p99 %8.3f  max %8.3f ms  total %10.1f ms  %8d rows  %s",
+            executions, meanMillis, p99Millis, maxMillis, totalMillis, rows, sql);
+    }
+}
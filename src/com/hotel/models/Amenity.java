@@ -1,6 +1,76 @@
 package com.hotel.models;
 
+import java.util.Collection;
+import java.util.EnumSet;
+
 public enum Amenity 
 {                   //a fixed set of constants.
-    AC, WIFI, TV
+    AC, WIFI, TV, MINI_BAR, JACUZZI;    //new amenities go at the end:each one's bit is its ordinal
+
+    public static final int ALL = (1 << values().length) - 1;   //mask of every amenity
+    private static final String[] NAMES = new String[ALL + 1];
+
+    //bit of this amenity in an amenity mask
+    public int mask() 
+    {
+        return 1 << ordinal();
+    }
+
+    public static int toMask(Collection<Amenity> amenities) 
+    {
+        int mask = 0;
+        if (amenities != null) 
+        {
+            for (Amenity amenity : amenities) 
+            {
+                mask |= amenity.mask();
+            }
+        }
+        return mask;
+    }
+
+    public static int toMask(Amenity... amenities) 
+    {
+        int mask = 0;
+        for (Amenity amenity : amenities) 
+        {
+            mask |= amenity.mask();
+        }
+        return mask;
+    }
+
+    public static EnumSet<Amenity> fromMask(int mask) 
+    {
+        EnumSet<Amenity> amenities = EnumSet.noneOf(Amenity.class);
+        for (Amenity amenity : values()) 
+        {
+            if ((mask & amenity.mask()) != 0) 
+            {
+                amenities.add(amenity);
+            }
+        }
+        return amenities;
+    }
+
+    //"AC, WIFI, TV" for a mask;there are only 2^n masks,so each String is built once
+    public static String describe(int mask) 
+    {
+        mask &= ALL;
+        String names = NAMES[mask];
+        if (names == null) 
+        {
+            StringBuilder sb = new StringBuilder();
+            for (Amenity amenity : fromMask(mask)) 
+            {
+                if (sb.length() > 0) 
+                {
+                    sb.append(", ");
+                }
+                sb.append(amenity.name());
+            }
+            names = sb.toString();
+            NAMES[mask] = names;
+        }
+        return names;
+    }
 }
@@ -1,22 +1,27 @@
 package com.hotel.models;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
 public class Room 
 {
     private int roomNo;        //Stores the room number
     private RoomType roomType; //Stores the room type:Single,Double...                                        
     private String status;     //Stores the room status:available,occupied...
     private int floor;         //Stores the room floor
-    private List<Amenity> amenities; //Stores the room amenities:AC,WiFi...
+    private int amenityMask;   //Stores the room amenities:AC,WiFi... one bit per Amenity
     private double price;      //Stores the room price
 
     public Room(int roomNo, RoomType roomType, String status, int floor, List<Amenity> amenities, double price) 
+    {
+        this(roomNo, roomType, status, floor, Amenity.toMask(amenities), price);
+    }
+    public Room(int roomNo, RoomType roomType, String status, int floor, int amenityMask, double price) 
     {
         this.roomNo = roomNo;
         this.roomType = roomType;
         this.status = status;
         this.floor = floor;
-        this.amenities = amenities;
+        this.amenityMask = amenityMask & Amenity.ALL;
         this.price = price;
     }
     // Getter Methods:return the value.
@@ -38,15 +43,31 @@ public class Room
     }
     public List<Amenity> getAmenitiesList() 
     {                                   //Returns room amenities list
-        return amenities; 
+        return new ArrayList<Amenity>(Amenity.fromMask(amenityMask)); 
+    }
+    public EnumSet<Amenity> getAmenitySet() 
+    {                                   //Returns room amenities as a set
+        return Amenity.fromMask(amenityMask); 
+    }
+    public int getAmenityMask() 
+    {                                   //Returns room amenities as bits,see Amenity.mask()
+        return amenityMask; 
+    }
+    public boolean hasAmenity(Amenity amenity) 
+    {                                   //Checks a single amenity
+        return (amenityMask & amenity.mask()) != 0; 
+    }
+    public boolean hasAllAmenities(int mask) 
+    {                                   //Checks that every amenity in mask is present
+        return (amenityMask & mask) == mask; 
     }
     public double getPrice() 
     {                                   //Returns room price
         return price; 
     }
     public String getAmenities() 
-    {                                   //Returns room amenities,Convert Amenities List into a String
-        return amenities.stream().map(Enum::name).collect(Collectors.joining(", "));
+    {                                   //Returns room amenities as a String,e.g. "AC, WIFI"
+        return Amenity.describe(amenityMask);
     }
     // Setter Methods:change/update the value.
     public void setRoomType(RoomType roomType) 
@@ -63,7 +84,11 @@ public class Room
     }
     public void setAmenities(List<Amenity> amenities) 
     {                                   //Sets room amenities
-        this.amenities = amenities; 
+        this.amenityMask = Amenity.toMask(amenities); 
+    }
+    public void setAmenityMask(int amenityMask) 
+    {                                   //Sets room amenities from bits
+        this.amenityMask = amenityMask & Amenity.ALL; 
     }
     public void setPrice(double price) 
     {                                   //Sets room price
@@ -1,36 +1,217 @@
 package com.hotel.services;
 
 import com.hotel.database.UnifiedDatabaseConnection;
+import com.hotel.exceptions.LoginThrottledException;
 import com.hotel.models.User;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Authentication Service for the Hotel Management System
  * Handles user login, registration, and session management
+ *
+ * Passwords are verified in the application with PasswordHasher (PBKDF2) on a
+ * bounded pool of verifier threads, so a burst of logins at shift change
+ * queues instead of starving the rest of the application of CPU. Legacy
+ * SHA2(password, 256) hashes are upgraded on the next successful login.
+ * User rows, and usernames known not to exist, are cached briefly in a UserCache.
+ *
+ * Logged-in users are kept in a SessionStore keyed by token, so one process
+ * can serve many users at once. The desktop application's own login is one
+ * of those sessions (getCurrentUser / setCurrentUser).
+ *
+ * Attempts first pass a LoginRateLimiter keyed by username and client source;
+ * a refused attempt fails with LoginThrottledException before any hashing or
+ * database access. Callers without a client address use LOCAL_SOURCE.
+ *
+ * Tuning (system properties):
+ * - hotel.auth.pbkdf2Iterations: work factor for new hashes (600000)
+ * - hotel.auth.verifyThreads: verifier threads (one per CPU)
+ * - hotel.session.idleMinutes: idle time after which a session expires (30)
+ * - hotel.session.maxHours: absolute session lifetime (12)
+ * - hotel.auth.userAttempts / hotel.auth.userRefillSeconds: burst and refill per username (5 / 60)
+ * - hotel.auth.sourceAttempts / hotel.auth.sourceRefillSeconds: burst and refill per source (30 / 2)
  */
 public class AuthenticationService {
     
-    private static User currentUser = null;
+    /** Source of logins made in this process, e.g. on the desktop login form */
+    public static final String LOCAL_SOURCE = "local";
+    
+    private static final long SESSION_SWEEP_MILLIS = 60_000;
+    private static final SessionStore<User> sessions = new SessionStore<>(
+        TimeUnit.MINUTES.toMillis(Long.getLong("hotel.session.idleMinutes", 30)),
+        TimeUnit.HOURS.toMillis(Long.getLong("hotel.session.maxHours", 12)),
+        SESSION_SWEEP_MILLIS);
+    private static volatile String currentSessionToken; // this desktop's own session
+    
+    private static final int VERIFY_QUEUE_CAPACITY = 256;
+    private static final int USER_CACHE_MAX_USERS = 10_000;
+    private static final long USER_CACHE_TTL_MILLIS = 60_000;
+    private static final long USER_CACHE_NEGATIVE_TTL_MILLIS = 5_000;
+    private static final String USER_COLUMNS = "user_id, username, password, role, full_name, email, phone, created_at";
+    
+    private static final PasswordHasher passwordHasher =
+        new PasswordHasher(Integer.getInteger("hotel.auth.pbkdf2Iterations", PasswordHasher.DEFAULT_ITERATIONS));
+    private static final UserCache userCache =
+        new UserCache(USER_CACHE_MAX_USERS, USER_CACHE_TTL_MILLIS, USER_CACHE_NEGATIVE_TTL_MILLIS);
+    private static final ThreadPoolExecutor verifyPool = createVerifyPool(
+        Integer.getInteger("hotel.auth.verifyThreads", Runtime.getRuntime().availableProcessors()));
+    
+    private static final int RATE_LIMITER_MAX_BUCKETS = 100_000;
+    private static volatile LoginRateLimiter rateLimiter = new LoginRateLimiter(
+        new LoginRateLimiter.Limit(Integer.getInteger("hotel.auth.userAttempts", 5),
+            TimeUnit.SECONDS.toMillis(Long.getLong("hotel.auth.userRefillSeconds", 60))),
+        new LoginRateLimiter.Limit(Integer.getInteger("hotel.auth.sourceAttempts", 30),
+            TimeUnit.SECONDS.toMillis(Long.getLong("hotel.auth.sourceRefillSeconds", 2))),
+        RATE_LIMITER_MAX_BUCKETS);
+    
+    static {
+        rateLimiter.registerMBean();
+    }
     
     /**
      * Authenticate user with username and password
+     * Blocks until a verifier thread has checked the password. No session is
+     * started; see login() and setCurrentUser().
      * @param username User's username
      * @param password User's password
      * @return User object if authentication successful, null otherwise
      */
     public static User authenticate(String username, String password) {
-        try (Connection conn = UnifiedDatabaseConnection.getConnection()) {
-            String sql = "SELECT * FROM users WHERE username = ? AND password = SHA2(?, 256)";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, username);
-            stmt.setString(2, password);
-            
-            ResultSet rs = stmt.executeQuery();
+        return authenticate(username, password, LOCAL_SOURCE);
+    }
+    
+    /**
+     * Authenticate an attempt from the given client source
+     * @param source where the attempt comes from, e.g. the client's address
+     * @return User object if authentication successful, null otherwise (including when throttled)
+     */
+    public static User authenticate(String username, String password, String source) {
+        try {
+            return authenticateAsync(username, password, source).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            System.err.println("Authentication error: " + cause.getMessage());
+            return null;
+        }
+    }
+    
+    public static CompletableFuture<User> authenticateAsync(String username, String password) {
+        return authenticateAsync(username, password, LOCAL_SOURCE);
+    }
+    
+    /**
+     * Authenticate on a verifier thread
+     * The future completes with the user, or null for a wrong username or password.
+     * It fails with LoginThrottledException if the rate limiter refuses the
+     * attempt, or if the database is unreachable or too many logins are already queued.
+     */
+    public static CompletableFuture<User> authenticateAsync(String username, String password, String source) {
+        long retryAfterMillis = rateLimiter.tryAcquire(username, source);
+        if (retryAfterMillis > 0) {
+            CompletableFuture<User> throttled = new CompletableFuture<>();
+            throttled.completeExceptionally(new LoginThrottledException(
+                "Too many login attempts, try again in " + ((retryAfterMillis + 999) / 1000) + " s", retryAfterMillis));
+            return throttled;
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return verifyLogin(username, password);
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                }
+            }, verifyPool);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<User> busy = new CompletableFuture<>();
+            busy.completeExceptionally(new RejectedExecutionException("Too many logins in progress, please retry"));
+            return busy;
+        }
+    }
+    
+    private static User verifyLogin(String username, String password) throws SQLException {
+        User user = findUser(username);
+        if (user == null) {
+            // Spend the same time as for a wrong password, so unknown usernames can't be told apart
+            passwordHasher.verify(password, DummyHash.VALUE);
+            System.out.println("Authentication failed for user: " + username);
+            return null;
+        }
+        if (!passwordHasher.verify(password, user.getPassword())) {
+            System.out.println("Authentication failed for user: " + username);
+            return null;
+        }
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            user = upgradeHash(username, user, password);
+        }
+        
+        rateLimiter.recordSuccess(username);
+        User result = copyOf(user);
+        System.out.println("User authenticated successfully: " + username);
+        return result;
+    }
+    
+    /**
+     * Replace a legacy or weaker hash after the password was verified
+     * The update only applies if the stored hash is still the one just checked.
+     * @param username the name the user logged in with, i.e. the cache key
+     */
+    private static User upgradeHash(String username, User user, String password) {
+        String newHash = passwordHasher.hash(password);
+        String sql = "UPDATE users SET password = ? WHERE user_id = ? AND password = ?";
+        try (Connection conn = UnifiedDatabaseConnection.getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, newHash);
+            stmt.setInt(2, user.getUserId());
+            stmt.setString(3, user.getPassword());
+            userCache.invalidate(username);
+            if (stmt.executeUpdate() > 0) {
+                User upgraded = copyOf(user);
+                upgraded.setPassword(newHash);
+                userCache.put(username, upgraded, userCache.currentStamp());
+                return upgraded;
+            }
+        } catch (SQLException e) {
+            System.err.println("Could not upgrade password hash for " + user.getUsername() + ": " + e.getMessage());
+        }
+        return user;
+    }
+    
+    /**
+     * Look a user up by username, from the cache when possible
+     * @return the user, or null if the username does not exist
+     */
+    private static User findUser(String username) throws SQLException {
+        UserCache.Entry entry = userCache.get(username);
+        if (entry != null) {
+            return entry.getUser();
+        }
+        long stamp = userCache.currentStamp();
+        User user = loadUser(username);
+        userCache.put(username, user, stamp);
+        return user;
+    }
+    
+    private static User loadUser(String username) throws SQLException {
+        String sql = "SELECT " + USER_COLUMNS + " FROM users WHERE username = ?";
+        try (Connection conn = UnifiedDatabaseConnection.getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            // Trimmed like the cache key, so " bob" cannot cache a miss for "bob"
+            stmt.setString(1, username.trim());
             
-            if (rs.next()) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
                 User user = new User();
                 user.setUserId(rs.getInt("user_id"));
                 user.setUsername(rs.getString("username"));
@@ -40,30 +221,36 @@ public class AuthenticationService {
                 user.setEmail(rs.getString("email"));
                 user.setPhone(rs.getString("phone"));
                 user.setCreatedAt(rs.getString("created_at"));
-                
-                currentUser = user;
-                System.out.println("User authenticated successfully: " + username);
                 return user;
             }
-        } catch (SQLException e) {
-            System.err.println("Authentication error: " + e.getMessage());
         }
-        
-        System.out.println("Authentication failed for user: " + username);
-        return null;
+    }
+    
+    /**
+     * Cached users are shared between threads, so callers get their own copy
+     */
+    private static User copyOf(User user) {
+        User copy = new User(user.getUsername(), user.getPassword(), user.getRole(),
+                             user.getFullName(), user.getEmail(), user.getPhone());
+        copy.setUserId(user.getUserId());
+        copy.setCreatedAt(user.getCreatedAt());
+        return copy;
     }
     
     /**
      * Register a new user
+     * The password is stored as a PasswordHasher hash; on success the user's
+     * password field is replaced by that hash.
      * @param user User object with registration details
      * @return true if registration successful, false otherwise
      */
     public static boolean registerUser(User user) {
-        try (Connection conn = UnifiedDatabaseConnection.getConnection()) {
-            String sql = "INSERT INTO users (username, password, role, full_name, email, phone) VALUES (?, ?, ?, ?, ?, ?)";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+        String sql = "INSERT INTO users (username, password, role, full_name, email, phone) VALUES (?, ?, ?, ?, ?, ?)";
+        String passwordHash = passwordHasher.hash(user.getPassword());
+        try (Connection conn = UnifiedDatabaseConnection.getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, user.getUsername());
-            stmt.setString(2, user.getPassword());
+            stmt.setString(2, passwordHash);
             stmt.setString(3, user.getRole());
             stmt.setString(4, user.getFullName());
             stmt.setString(5, user.getEmail());
@@ -71,7 +258,10 @@ public class AuthenticationService {
             
             int rowsAffected = stmt.executeUpdate();
             
+            // Drop a cached "does not exist"
+            userCache.invalidate(user.getUsername());
             if (rowsAffected > 0) {
+                user.setPassword(passwordHash);
                 System.out.println("User registered successfully: " + user.getUsername());
                 return true;
             }
@@ -88,15 +278,8 @@ public class AuthenticationService {
      * @return true if username exists, false otherwise
      */
     public static boolean usernameExists(String username) {
-        try (Connection conn = UnifiedDatabaseConnection.getConnection()) {
-            String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, username);
-            
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
+        try {
+            return findUser(username) != null;
         } catch (SQLException e) {
             System.err.println("Error checking username: " + e.getMessage());
         }
@@ -104,20 +287,95 @@ public class AuthenticationService {
         return false;
     }
     
+    /**
+     * Get the cache of user rows (for hit-rate reporting)
+     */
+    public static UserCache getUserCache() {
+        return userCache;
+    }
+    
+    public static PasswordHasher getPasswordHasher() {
+        return passwordHasher;
+    }
+    
+    /**
+     * Logins queued for a verifier thread
+     */
+    public static int getPendingVerifications() {
+        return verifyPool.getQueue().size();
+    }
+    
+    /**
+     * Authenticate and start a session
+     * @return the session, whose token identifies the user from now on; null if the credentials are wrong
+     */
+    public static SessionStore.Session<User> login(String username, String password) {
+        return login(username, password, LOCAL_SOURCE);
+    }
+    
+    public static SessionStore.Session<User> login(String username, String password, String source) {
+        User user = authenticate(username, password, source);
+        return user == null ? null : sessions.create(user);
+    }
+    
+    /**
+     * Get the user of a live session, extending the session
+     * @return the user, or null if the token is unknown or expired
+     */
+    public static User getSessionUser(String token) {
+        return sessions.getPrincipal(token);
+    }
+    
+    /**
+     * End a session
+     */
+    public static void logout(String token) {
+        User user = sessions.getPrincipal(token);
+        if (sessions.invalidate(token) && user != null) {
+            System.out.println("User logged out: " + user.getUsername());
+        }
+    }
+    
+    /**
+     * End every session of a user, e.g. after the account was changed or removed
+     * @return number of sessions ended
+     */
+    public static int logoutEverywhere(int userId) {
+        return sessions.invalidateWhere(user -> user.getUserId() == userId);
+    }
+    
+    public static LoginRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+    
+    /**
+     * Replace the login rate limiter, e.g. with looser limits for load tests
+     */
+    public static void setRateLimiter(LoginRateLimiter limiter) {
+        rateLimiter = limiter;
+        limiter.registerMBean();
+    }
+    
+    public static SessionStore<User> getSessionStore() {
+        return sessions;
+    }
+    
     /**
      * Get current logged-in user
      * @return Current user or null if not logged in
      */
     public static User getCurrentUser() {
-        return currentUser;
+        return sessions.getPrincipal(currentSessionToken);
     }
     
     /**
      * Set current user (for session management)
-     * @param user User to set as current
+     * Replaces this desktop's session with a new one for the user.
+     * @param user User to set as current, or null to end the session
      */
     public static void setCurrentUser(User user) {
-        currentUser = user;
+        sessions.invalidate(currentSessionToken);
+        currentSessionToken = user == null ? null : sessions.create(user).getToken();
     }
     
     /**
@@ -125,7 +383,7 @@ public class AuthenticationService {
      * @return true if user is logged in, false otherwise
      */
     public static boolean isLoggedIn() {
-        return currentUser != null;
+        return getCurrentUser() != null;
     }
     
     /**
@@ -133,16 +391,34 @@ public class AuthenticationService {
      * @return true if current user is admin, false otherwise
      */
     public static boolean isCurrentUserAdmin() {
-        return currentUser != null && currentUser.isAdmin();
+        User user = getCurrentUser();
+        return user != null && user.isAdmin();
+    }
+    
+    private static ThreadPoolExecutor createVerifyPool(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(VERIFY_QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "auth-verify-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+    
+    /**
+     * Hash compared against for unknown usernames; computed on first use
+     */
+    private static final class DummyHash {
+        static final String VALUE = passwordHasher.hash("not a password");
     }
     
     /**
      * Logout current user
      */
     public static void logout() {
-        if (currentUser != null) {
-            System.out.println("User logged out: " + currentUser.getUsername());
-            currentUser = null;
-        }
+        String token = currentSessionToken;
+        currentSessionToken = null;
+        logout(token);
     }
 }
@@ -0,0 +1,243 @@
+package com.hotel.services;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * LoginRateLimiter - token buckets per username and per client source
+ * An attempt needs a token from both the source's bucket and the username's
+ * bucket, so a script can neither hammer one account nor spray many accounts
+ * from one place. Refused attempts cost two map lookups and a CAS.
+ *
+ * - Each bucket is one AtomicLong holding the time at which it will be full
+ *   again (the GCRA form of a token bucket), updated by compare-and-set
+ * - A successful login refills the username's bucket, so typos don't lock out
+ *   the account's owner; the source's bucket is not refilled
+ * - A full bucket behaves exactly like a missing one, so idle buckets are
+ *   dropped once a map reaches maxBuckets. If every bucket is still active,
+ *   new keys share one overflow bucket, which keeps memory bounded under a
+ *   flood of random usernames at the cost of throttling those keys together.
+ */
+public class LoginRateLimiter implements LoginRateLimiterMXBean {
+    
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    private final Limit userLimit;
+    private final Limit sourceLimit;
+    private final int maxBuckets;
+    private final ConcurrentHashMap<String, AtomicLong> userBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> sourceBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong userOverflow = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong sourceOverflow = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByUser = new LongAdder();
+    private final LongAdder rejectedBySource = new LongAdder();
+    
+    /**
+     * Burst size and refill rate of a bucket
+     */
+    public static final class Limit {
+        private final int capacity;
+        private final long refillNanos;
+        
+        /**
+         * @param capacity attempts allowed in a burst
+         * @param refillMillis time for one attempt to be earned back
+         */
+        public Limit(int capacity, long refillMillis) {
+            if (capacity < 1 || refillMillis < 1) {
+                throw new IllegalArgumentException("Capacity and refill time must be positive");
+            }
+            this.capacity = capacity;
+            this.refillNanos = TimeUnit.MILLISECONDS.toNanos(refillMillis);
+        }
+        
+        public int getCapacity() {
+            return capacity;
+        }
+        
+        public long getRefillMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(refillNanos);
+        }
+    }
+    
+    public LoginRateLimiter(Limit userLimit, Limit sourceLimit, int maxBuckets) {
+        if (maxBuckets < 1) {
+            throw new IllegalArgumentException("Limiter must track at least one bucket");
+        }
+        this.userLimit = userLimit;
+        this.sourceLimit = sourceLimit;
+        this.maxBuckets = maxBuckets;
+    }
+    
+    /**
+     * Take a token for an attempt
+     * @param username account being logged into
+     * @param source where the attempt comes from, e.g. a client address
+     * @return 0 if the attempt may proceed, otherwise milliseconds until it would be allowed
+     */
+    public long tryAcquire(String username, String source) {
+        long now = System.nanoTime();
+        long wait = take(bucket(sourceBuckets, sourceOverflow, normalize(source), now), sourceLimit, now);
+        if (wait > 0) {
+            rejectedBySource.increment();
+            return toMillis(wait);
+        }
+        wait = take(bucket(userBuckets, userOverflow, normalize(username), now), userLimit, now);
+        if (wait > 0) {
+            rejectedByUser.increment();
+            return toMillis(wait);
+        }
+        allowed.increment();
+        return 0;
+    }
+    
+    /**
+     * Forget the username's failed attempts after a successful login
+     */
+    public void recordSuccess(String username) {
+        userBuckets.remove(normalize(username));
+    }
+    
+    /**
+     * GCRA: the bucket stores when it will be full; each token pushes that
+     * time refillNanos later, and a bucket more than capacity tokens ahead is empty
+     * @return 0 if a token was taken, otherwise nanoseconds until one is available
+     */
+    private static long take(AtomicLong bucket, Limit limit, long now) {
+        long burst = (limit.capacity - 1) * limit.refillNanos;
+        while (true) {
+            long fullAt = bucket.get();
+            long start = fullAt == Long.MIN_VALUE || fullAt - now < 0 ? now : fullAt;
+            long ahead = start - now;
+            if (ahead > burst) {
+                return ahead - burst;
+            }
+            if (bucket.compareAndSet(fullAt, start + limit.refillNanos)) {
+                return 0;
+            }
+        }
+    }
+    
+    private AtomicLong bucket(ConcurrentHashMap<String, AtomicLong> buckets, AtomicLong overflow, String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxBuckets) {
+            sweep(now);
+            if (buckets.size() >= maxBuckets) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+    }
+    
+    /**
+     * Drop full buckets; runs at most once per second, on whichever thread finds a map at capacity
+     */
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        removeFull(userBuckets, now);
+        removeFull(sourceBuckets, now);
+    }
+    
+    private static void removeFull(ConcurrentHashMap<String, AtomicLong> buckets, long now) {
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            long fullAt = entry.getValue().get();
+            if (fullAt == Long.MIN_VALUE || fullAt - now <= 0) {
+                // A bucket refilled concurrently is simply recreated on its next attempt
+                buckets.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
+    private static String normalize(String key) {
+        // MySQL compares usernames case-insensitively, so "Admin" and "admin" share a bucket
+        return key == null ? "" : key.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static long toMillis(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos + 999_999));
+    }
+    
+    public Limit getUserLimit() {
+        return userLimit;
+    }
+    
+    public Limit getSourceLimit() {
+        return sourceLimit;
+    }
+    
+    // LoginRateLimiterMXBean
+    
+    @Override
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+    
+    @Override
+    public long getRejectedCount() {
+        return rejectedByUser.sum() + rejectedBySource.sum();
+    }
+    
+    @Override
+    public long getRejectedByUserCount() {
+        return rejectedByUser.sum();
+    }
+    
+    @Override
+    public long getRejectedBySourceCount() {
+        return rejectedBySource.sum();
+    }
+    
+    @Override
+    public int getTrackedUsers() {
+        return userBuckets.size();
+    }
+    
+    @Override
+    public int getTrackedSources() {
+        return sourceBuckets.size();
+    }
+    
+    @Override
+    public void reset() {
+        userBuckets.clear();
+        sourceBuckets.clear();
+        userOverflow.set(Long.MIN_VALUE);
+        sourceOverflow.set(Long.MIN_VALUE);
+        allowed.reset();
+        rejectedByUser.reset();
+        rejectedBySource.reset();
+    }
+    
+    /**
+     * Register with the platform MBean server as com.hotel:type=LoginRateLimiter
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("com.hotel:type=LoginRateLimiter");
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            System.err.println("Could not register login rate limiter with JMX: " + e.getMessage());
+        }
+    }
+}
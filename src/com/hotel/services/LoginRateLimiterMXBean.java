@@ -0,0 +1,24 @@
+package com.hotel.services;
+
+/**
+ * JMX view of LoginRateLimiter, registered as com.hotel:type=LoginRateLimiter
+ */
+public interface LoginRateLimiterMXBean {
+    
+    long getAllowedCount();
+    
+    long getRejectedCount();
+    
+    long getRejectedByUserCount();
+    
+    long getRejectedBySourceCount();
+    
+    int getTrackedUsers();
+    
+    int getTrackedSources();
+    
+    /**
+     * Forget every bucket and zero the counters
+     */
+    void reset();
+}
@@ -0,0 +1,151 @@
+package com.hotel.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PasswordHasher - salted PBKDF2-HMAC-SHA256 password hashes
+ * Hashes are stored as pbkdf2-sha256$iterations$salt$hash (Base64), so the
+ * work factor can be raised later without invalidating existing passwords.
+ *
+ * Passwords stored by MySQL's SHA2(password, 256) (64 hex digits) are still
+ * accepted; needsRehash() tells the caller to replace them after a successful login.
+ */
+public final class PasswordHasher {
+    
+    public static final String PREFIX = "pbkdf2-sha256";
+    
+    /** OWASP's recommendation for PBKDF2-HMAC-SHA256 */
+    public static final int DEFAULT_ITERATIONS = 600_000;
+    
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    private final int iterations;
+    
+    /**
+     * @param iterations PBKDF2 rounds for new hashes; each doubling doubles the cost of a login
+     */
+    public PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+    
+    public int getIterations() {
+        return iterations;
+    }
+    
+    /**
+     * Hash a password with a fresh random salt
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+    
+    /**
+     * Check a password against a stored hash, in either format
+     * Comparison takes the same time wherever the hashes differ.
+     * @return false for a wrong password or a malformed hash
+     */
+    public boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (isLegacyHash(stored)) {
+            byte[] actual = sha256Hex(password).getBytes(StandardCharsets.US_ASCII);
+            return MessageDigest.isEqual(actual, stored.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] salt = decoder.decode(parts[2]);
+            byte[] expected = decoder.decode(parts[3]);
+            if (storedIterations < 1 || expected.length == 0) {
+                return false;
+            }
+            return MessageDigest.isEqual(pbkdf2(password, salt, storedIterations, expected.length * 8), expected);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Check if a stored hash is weaker than what this hasher would produce now
+     */
+    public boolean needsRehash(String stored) {
+        if (stored == null || isLegacyHash(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || !PREFIX.equals(parts[0]) || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+    
+    /**
+     * Unsalted SHA-256 as written by SHA2(password, 256)
+     */
+    static boolean isLegacyHash(String stored) {
+        if (stored.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < stored.length(); i++) {
+            if (Character.digit(stored.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        return pbkdf2(password, salt, iterations, HASH_BITS);
+    }
+    
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations, int bits) {
+        char[] chars = password.toCharArray();
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, iterations, bits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
+    
+    private static String sha256Hex(String password) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.hotel.services;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * SessionStore - logged-in sessions keyed by an unguessable token
+ * Any number of users can be logged in at once, each holding their own token.
+ *
+ * - Lookups are a single ConcurrentHashMap read, without locks
+ * - Expiry slides: every lookup extends the session by the idle timeout, up
+ *   to an absolute maximum lifetime. The last-access time is written at most
+ *   once per second (or per tenth of the idle timeout, if shorter) per
+ *   session, so busy sessions don't contend on it.
+ * - A background sweeper removes expired sessions; lookups never return one
+ *   even if the sweeper has not run yet
+ *
+ * @param <P> what a session identifies, e.g. a User
+ */
+public class SessionStore<P> implements AutoCloseable {
+    
+    private static final int TOKEN_BYTES = 32;
+    private static final long TOUCH_GRANULARITY_MILLIS = 1000;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long touchGranularityMillis;
+    private final ConcurrentHashMap<String, Session<P>> sessions = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> sweeper;
+    
+    private final LongAdder created = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    
+    /**
+     * One logged-in session
+     */
+    public static final class Session<P> {
+        private final String token;
+        private final P principal;
+        private final long createdAt;
+        private volatile long lastAccess;
+        
+        private Session(String token, P principal, long createdAt) {
+            this.token = token;
+            this.principal = principal;
+            this.createdAt = createdAt;
+            this.lastAccess = createdAt;
+        }
+        
+        public String getToken() {
+            return token;
+        }
+        
+        public P getPrincipal() {
+            return principal;
+        }
+        
+        public long getCreatedAt() {
+            return createdAt;
+        }
+        
+        public long getLastAccess() {
+            return lastAccess;
+        }
+    }
+    
+    /**
+     * @param idleTimeoutMillis a session expires after this long without a lookup
+     * @param maxLifetimeMillis a session expires this long after login regardless of use
+     * @param sweepIntervalMillis how often expired sessions are removed
+     */
+    public SessionStore(long idleTimeoutMillis, long maxLifetimeMillis, long sweepIntervalMillis) {
+        if (idleTimeoutMillis <= 0 || maxLifetimeMillis <= 0 || sweepIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Timeouts and sweep interval must be positive");
+        }
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.touchGranularityMillis = Math.min(TOUCH_GRANULARITY_MILLIS, idleTimeoutMillis / 10);
+        this.sweeper = Sweeper.EXECUTOR.scheduleWithFixedDelay(
+            this::sweep, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Start a session
+     * @return the new session; hand its token to the client
+     */
+    public Session<P> create(P principal) {
+        if (principal == null) {
+            throw new IllegalArgumentException("A session needs a principal");
+        }
+        Session<P> session;
+        do {
+            session = new Session<>(newToken(), principal, System.currentTimeMillis());
+        } while (sessions.putIfAbsent(session.token, session) != null);
+        created.increment();
+        return session;
+    }
+    
+    /**
+     * Look up a live session and extend it
+     * @return the session, or null if the token is unknown or expired
+     */
+    public Session<P> get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session<P> session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (isExpired(session, now)) {
+            if (sessions.remove(token, session)) {
+                expired.increment();
+            }
+            return null;
+        }
+        if (now - session.lastAccess >= touchGranularityMillis) {
+            session.lastAccess = now;
+        }
+        return session;
+    }
+    
+    /**
+     * @return the principal of a live session, or null
+     */
+    public P getPrincipal(String token) {
+        Session<P> session = get(token);
+        return session == null ? null : session.principal;
+    }
+    
+    /**
+     * End a session
+     * @return true if the token belonged to a session
+     */
+    public boolean invalidate(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+    
+    /**
+     * End every session whose principal matches, e.g. all sessions of a user whose password changed
+     * @return number of sessions ended
+     */
+    public int invalidateWhere(Predicate<? super P> matches) {
+        int removed = 0;
+        for (Iterator<Session<P>> it = sessions.values().iterator(); it.hasNext(); ) {
+            if (matches.test(it.next().principal)) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+    
+    /**
+     * Remove expired sessions; runs on the sweeper thread
+     */
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (Session<P> session : sessions.values()) {
+            if (isExpired(session, now) && sessions.remove(session.token, session)) {
+                expired.increment();
+            }
+        }
+    }
+    
+    private boolean isExpired(Session<P> session, long now) {
+        return now - session.lastAccess > idleTimeoutMillis || now - session.createdAt > maxLifetimeMillis;
+    }
+    
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+    
+    /**
+     * Sessions currently held, including expired ones the sweeper has not removed yet
+     */
+    public int size() {
+        return sessions.size();
+    }
+    
+    public long getCreatedCount() {
+        return created.sum();
+    }
+    
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+    
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+    
+    /**
+     * Stop sweeping and drop every session
+     */
+    @Override
+    public void close() {
+        sweeper.cancel(false);
+        sessions.clear();
+    }
+    
+    /**
+     * One daemon thread sweeps every store
+     */
+    private static final class Sweeper {
+        static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,151 @@
+package com.hotel.services;
+
+import com.hotel.models.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * UserCache - short-lived cache of user rows by username
+ * Both outcomes of a lookup are cached: the user's row (including the password
+ * hash, so a login needs no round trip) and the fact that a username does not
+ * exist. Negative entries get their own, usually shorter, time-to-live.
+ *
+ * - Usernames are keyed trimmed and lower-cased, as MySQL compares them
+ *   case-insensitively, so "Bob" and "bob" share one entry
+ * - At most maxUsers usernames are cached; on overflow the least recently used are evicted
+ * - Writes through AuthenticationService update or drop the entry; the
+ *   time-to-live bounds staleness when another process changes the users table
+ */
+public class UserCache {
+    
+    private final int maxUsers;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    // Bumped on every write so a load that raced with a write is not cached
+    private final AtomicLong modificationStamp = new AtomicLong();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    /**
+     * Result of a cache lookup
+     */
+    public static final class Entry {
+        private final User user; // null: the username does not exist
+        private final long loadedAt;
+        private volatile long lastAccess;
+        
+        private Entry(User user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+        
+        /**
+         * @return the user, or null if the username is known not to exist
+         */
+        public User getUser() {
+            return user;
+        }
+        
+        public boolean exists() {
+            return user != null;
+        }
+    }
+    
+    public UserCache(int maxUsers, long ttlMillis, long negativeTtlMillis) {
+        if (maxUsers <= 0) {
+            throw new IllegalArgumentException("Cache must hold at least one user");
+        }
+        this.maxUsers = maxUsers;
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+    }
+    
+    /**
+     * @return the cached entry, or null if the username is not cached or its entry expired
+     */
+    public Entry get(String username) {
+        Entry entry = entries.get(normalize(username));
+        long now = System.currentTimeMillis();
+        if (entry == null || now - entry.loadedAt > (entry.user != null ? ttlMillis : negativeTtlMillis)) {
+            misses.increment();
+            return null;
+        }
+        entry.lastAccess = now;
+        hits.increment();
+        return entry;
+    }
+    
+    /**
+     * Stamp to take before loading a user from the database
+     */
+    public long currentStamp() {
+        return modificationStamp.get();
+    }
+    
+    /**
+     * Cache a freshly loaded user (null if it does not exist) unless a write happened since the stamp was taken
+     */
+    public void put(String username, User user, long stamp) {
+        if (modificationStamp.get() != stamp) {
+            return;
+        }
+        entries.put(normalize(username), new Entry(user, System.currentTimeMillis()));
+        if (entries.size() > maxUsers) {
+            evictLeastRecentlyUsed();
+        }
+    }
+    
+    /**
+     * Drop a username so its next lookup reads the database
+     */
+    public void invalidate(String username) {
+        modificationStamp.incrementAndGet();
+        entries.remove(normalize(username));
+    }
+    
+    public void invalidateAll() {
+        modificationStamp.incrementAndGet();
+        entries.clear();
+    }
+    
+    /**
+     * Evict roughly a tenth of the cache, oldest access first, so the scan is amortized
+     */
+    private synchronized void evictLeastRecentlyUsed() {
+        int excess = entries.size() - maxUsers;
+        if (excess <= 0) {
+            return;
+        }
+        int toEvict = Math.max(excess, maxUsers / 10);
+        List<Map.Entry<String, Entry>> snapshot = new ArrayList<>(entries.entrySet());
+        snapshot.sort((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess));
+        for (int i = 0; i < toEvict && i < snapshot.size(); i++) {
+            entries.remove(snapshot.get(i).getKey(), snapshot.get(i).getValue());
+        }
+    }
+    
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public long getHitCount() {
+        return hits.sum();
+    }
+    
+    public long getMissCount() {
+        return misses.sum();
+    }
+}
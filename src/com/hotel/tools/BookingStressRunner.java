@@ -0,0 +1,161 @@
+package com.hotel.tools;
+
+import com.hotel.database.ConnectionPool;
+import com.hotel.database.UnifiedDatabaseConnection;
+import com.hotel.exceptions.BookingConflictException;
+import com.hotel.managers.BookingManager;
+import com.hotel.models.Booking;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BookingStressRunner - concurrency check for BookingManager.createBooking
+ * Fires thousands of concurrent, deliberately overlapping booking requests at a
+ * local database, then asserts that no room ended up with two active bookings
+ * for the same night and reports throughput.
+ *
+ * Usage: java com.hotel.tools.BookingStressRunner [requests] [threads] [rooms] [jdbcUrl user password]
+ *
+ * Requests target a window three years ahead so they don't collide with real
+ * data, and every booking created by the run is deleted afterwards.
+ */
+public class BookingStressRunner {
+    
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int roomCount = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        
+        ConnectionPool pool;
+        if (args.length >= 6) {
+            pool = new ConnectionPool(args[3], args[4], args[5], 2, Math.min(threads, 32));
+        } else {
+            pool = UnifiedDatabaseConnection.getDataSource();
+        }
+        pool.setBorrowTimeoutMillis(TimeUnit.SECONDS.toMillis(30));
+        
+        BookingManager manager = new BookingManager(pool);
+        List<Integer> rooms = loadRoomIds(pool, roomCount);
+        if (rooms.isEmpty()) {
+            System.err.println("No rooms found - load database/schema.sql first.");
+            return;
+        }
+        
+        String marker = "Stress Run " + System.currentTimeMillis();
+        LocalDate base = LocalDate.now().plusYears(3);
+        Random random = new Random(42);
+        List<Booking> planned = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            // A short window over a handful of rooms guarantees heavy overlap
+            LocalDate checkIn = base.plusDays(random.nextInt(60));
+            Booking booking = new Booking();
+            booking.setRoomId(rooms.get(random.nextInt(rooms.size())));
+            booking.setCustomerName(marker);
+            booking.setCustomerEmail("stress" + i + "@example.com");
+            booking.setCustomerPhone("9000000000");
+            booking.setCheckInDate(checkIn);
+            booking.setCheckOutDate(checkIn.plusDays(1 + random.nextInt(5)));
+            planned.add(booking);
+        }
+        
+        System.out.println("=== Booking Stress Run ===");
+        System.out.println(requests + " requests, " + threads + " threads, " + rooms.size() + " rooms");
+        
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        for (Booking booking : planned) {
+            executor.execute(() -> {
+                try {
+                    startGate.await();
+                    manager.createBooking(booking);
+                    created.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    conflicts.incrementAndGet();
+                } catch (Exception e) {
+                    if (errors.incrementAndGet() <= 5) {
+                        System.err.println("Request failed: " + e.getMessage());
+                    }
+                }
+            });
+        }
+        
+        long start = System.nanoTime();
+        startGate.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        
+        int overlaps = countOverlaps(pool, marker);
+        
+        System.out.println("Created:    " + created.get());
+        System.out.println("Conflicts:  " + conflicts.get());
+        System.out.println("Errors:     " + errors.get());
+        System.out.printf("Elapsed:    %.2f s%n", seconds);
+        System.out.printf("Throughput: %.1f requests/s%n", requests / seconds);
+        System.out.println("Pool:       " + pool);
+        System.out.println("Overlapping booking pairs: " + overlaps);
+        
+        deleteRun(pool, marker);
+        
+        if (overlaps > 0) {
+            System.err.println("FAILED: double bookings detected");
+            System.exit(1);
+        }
+        System.out.println("PASSED: no double bookings");
+        System.exit(0);
+    }
+    
+    private static List<Integer> loadRoomIds(ConnectionPool pool, int limit) throws SQLException {
+        List<Integer> rooms = new ArrayList<>();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT room_id FROM rooms ORDER BY room_id")) {
+            stmt.setMaxRows(limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rooms.add(rs.getInt(1));
+                }
+            }
+        }
+        return rooms;
+    }
+    
+    private static int countOverlaps(ConnectionPool pool, String marker) throws SQLException {
+        String query = "SELECT COUNT(*) FROM bookings a JOIN bookings b " +
+                      "ON a.room_id = b.room_id AND a.booking_id < b.booking_id " +
+                      "AND a.check_in_date < b.check_out_date AND b.check_in_date < a.check_out_date " +
+                      "WHERE a.status IN ('CONFIRMED', 'CHECKED_IN') AND b.status IN ('CONFIRMED', 'CHECKED_IN') " +
+                      "AND (a.customer_name = ? OR b.customer_name = ?)";
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, marker);
+            stmt.setString(2, marker);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+    
+    private static void deleteRun(ConnectionPool pool, String marker) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("DELETE FROM bookings WHERE customer_name = ?")) {
+            stmt.setString(1, marker);
+            System.out.println("Cleaned up " + stmt.executeUpdate() + " stress bookings");
+        }
+    }
+}
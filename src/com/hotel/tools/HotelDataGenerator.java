@@ -0,0 +1,669 @@
+package com.hotel.tools;
+
+import com.hotel.database.ConnectionPool;
+import com.hotel.database.UnifiedDatabaseConnection;
+import com.hotel.models.Amenity;
+import com.hotel.models.RoomType;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * HotelDataGenerator - synthetic rooms, customers and bookings for load and scale testing
+ *
+ * Usage: java com.hotel.tools.HotelDataGenerator [--rooms 5000] [--bookings 10000000] [--years 5]
+ *        [--customers N] [--cancel-rate 0.08] [--seed 42] [--today yyyy-MM-dd]
+ *        [--csv outputDir | --jdbc [url user password]] [--truncate] [--batch-size 5000]
+ *
+ * Each room gets its own timeline: stays never overlap, gaps between them are
+ * shorter in high season and at weekends, and cancelled bookings are scattered
+ * over the same dates without holding the room. The window ends six months
+ * after --today, so stays before it are CHECKED_OUT, the current one CHECKED_IN,
+ * later ones CONFIRMED, and active stays are also written to room_nights.
+ *
+ * The output depends only on the options: pass --today as well as --seed when
+ * runs on different days must be comparable.
+ *
+ * --jdbc streams batched inserts into an empty database (--truncate clears it
+ * first; the admin and sample users are kept). --csv writes one file per table
+ * and a load.sql that reads them with LOAD DATA LOCAL INFILE, which is much
+ * faster for tens of millions of rows:
+ *     mysql --local-infile=1 hotel_management < outputDir/load.sql
+ */
+public class HotelDataGenerator {
+    
+    /** Generated customers get user IDs from here, clear of the sample users */
+    public static final int FIRST_CUSTOMER_ID = 1000;
+    
+    private static final RoomType[] TYPES = RoomType.values();
+    private static final double[] TYPE_SHARE = {0.20, 0.40, 0.25, 0.12, 0.03};
+    private static final int[] CAPACITY = {1, 2, 3, 4, 6};
+    private static final double[] MEAN_STAY = {1.8, 2.5, 3.0, 3.5, 4.0};
+    // Demand by month, January first: festive and holiday peaks, monsoon trough
+    private static final double[] SEASON = {1.30, 1.15, 1.00, 0.90, 1.10, 1.15, 0.80, 0.75, 0.85, 1.10, 1.20, 1.40};
+    private static final double MAX_OCCUPANCY = 0.92;
+    private static final int ROOMS_PER_FLOOR = 40;
+    private static final int MAX_STAY = 21;
+    private static final String[] FIRST_NAMES = {
+        "Aarav", "Vivaan", "Aditya", "Arjun", "Sai", "Reyansh", "Krishna", "Ishaan", "Rohan", "Kabir",
+        "Ananya", "Diya", "Saanvi", "Aadhya", "Myra", "Isha", "Priya", "Kavya", "Meera", "Riya",
+        "John", "Jane", "David", "Sarah", "Michael", "Emma", "Daniel", "Olivia", "James", "Sophia"
+    };
+    private static final String[] LAST_NAMES = {
+        "Sharma", "Verma", "Patel", "Gupta", "Singh", "Kumar", "Reddy", "Iyer", "Nair", "Rao",
+        "Mehta", "Joshi", "Kapoor", "Das", "Bose", "Smith", "Johnson", "Brown", "Williams", "Doe"
+    };
+    private static final String[] SPECIAL_REQUESTS = {
+        "Late check-in requested", "Early check-in requested", "Extra towels", "Airport pickup",
+        "Anniversary celebration", "Business trip", "Quiet room please", "Extra bed"
+    };
+    
+    private int rooms = 5000;
+    private long bookings = 10_000_000L;
+    private int years = 5;
+    private int customers;
+    private double cancelRate = 0.08;
+    private long seed = 42;
+    private LocalDate today = LocalDate.now();
+    private int batchSize = 5000;
+    private boolean truncate;
+    private Path csvDirectory;
+    private String[] jdbc;
+    
+    public static void main(String[] args) throws Exception {
+        HotelDataGenerator generator = new HotelDataGenerator();
+        try {
+            generator.parse(args);
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java com.hotel.tools.HotelDataGenerator [--rooms N] [--bookings N] [--years N] "
+                + "[--customers N] [--cancel-rate R] [--seed S] [--today yyyy-MM-dd] "
+                + "[--csv dir | --jdbc [url user password]] [--truncate] [--batch-size N]");
+            System.exit(2);
+        }
+        
+        try (Sink sink = generator.openSink()) {
+            generator.generate(sink);
+        }
+        System.exit(0);
+    }
+    
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            switch (option) {
+                case "--rooms": rooms = Integer.parseInt(value(args, ++i, option)); break;
+                case "--bookings": bookings = Long.parseLong(value(args, ++i, option)); break;
+                case "--years": years = Integer.parseInt(value(args, ++i, option)); break;
+                case "--customers": customers = Integer.parseInt(value(args, ++i, option)); break;
+                case "--cancel-rate": cancelRate = Double.parseDouble(value(args, ++i, option)); break;
+                case "--seed": seed = Long.parseLong(value(args, ++i, option)); break;
+                case "--today": today = LocalDate.parse(value(args, ++i, option)); break;
+                case "--batch-size": batchSize = Integer.parseInt(value(args, ++i, option)); break;
+                case "--truncate": truncate = true; break;
+                case "--csv": csvDirectory = Paths.get(value(args, ++i, option)); break;
+                case "--jdbc":
+                    // Optional url, user and password; the application's database otherwise
+                    if (i + 3 < args.length && !args[i + 1].startsWith("--")) {
+                        jdbc = new String[] {args[i + 1], args[i + 2], args[i + 3]};
+                        i += 3;
+                    } else {
+                        jdbc = new String[0];
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        if (rooms <= 0 || bookings < 0 || years <= 0 || batchSize <= 0 || cancelRate < 0 || cancelRate >= 1) {
+            throw new IllegalArgumentException("Invalid sizes or cancel rate");
+        }
+        if (bookings / rooms > Integer.MAX_VALUE || rooms + bookings > Integer.MAX_VALUE - FIRST_CUSTOMER_ID) {
+            throw new IllegalArgumentException("Too many bookings for INT keys");
+        }
+        if (customers <= 0) {
+            customers = (int) Math.max(1000, bookings / 20);
+        }
+    }
+    
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+    
+    private Sink openSink() throws IOException, SQLException {
+        if (csvDirectory != null) {
+            return new CsvSink(csvDirectory);
+        }
+        ConnectionPool pool;
+        if (jdbc != null && jdbc.length == 3) {
+            pool = new ConnectionPool(withBatchRewrite(jdbc[0]), jdbc[1], jdbc[2], 1, 1);
+        } else {
+            pool = UnifiedDatabaseConnection.getDataSource();
+        }
+        return new JdbcSink(pool, batchSize, truncate);
+    }
+    
+    // Connector/J only sends a batch as one multi-row INSERT when asked to
+    private static String withBatchRewrite(String url) {
+        if (!url.startsWith("jdbc:mysql:") || url.contains("rewriteBatchedStatements")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+    }
+    
+    private void generate(Sink sink) throws Exception {
+        LocalDate end = today.plusMonths(6);
+        LocalDate start = end.minusYears(years);
+        int days = (int) ChronoUnit.DAYS.between(start, end);
+        SplittableRandom random = new SplittableRandom(seed);
+        
+        System.out.println("=== Hotel Data Generator ===");
+        System.out.println(rooms + " rooms, " + customers + " customers, " + bookings + " bookings from "
+            + start + " to " + end + " (seed " + seed + ", today " + today + ")");
+        long startNanos = System.nanoTime();
+        
+        String passwordHash = sha256Hex("pass123");
+        for (int i = 0; i < customers; i++) {
+            int userId = FIRST_CUSTOMER_ID + i;
+            sink.user(userId, "guest" + userId, passwordHash, customerName(userId), customerEmail(userId),
+                customerPhone(userId));
+        }
+        
+        int[] roomIds = new int[rooms];
+        RoomType[] roomTypes = new RoomType[rooms];
+        double[] prices = new double[rooms];
+        for (int i = 0; i < rooms; i++) {
+            int floor = 1 + i / ROOMS_PER_FLOOR;
+            roomIds[i] = floor * 100 + 1 + i % ROOMS_PER_FLOOR;
+            roomTypes[i] = pickType(random);
+            prices[i] = roomTypes[i].getBasePrice() * (1 + 0.05 * random.nextInt(5));
+            sink.room(roomIds[i], roomTypes[i], prices[i], amenitiesFor(roomTypes[i], random), floor);
+        }
+        
+        // Spread the bookings evenly; the first rooms take the remainder
+        long perRoom = bookings / rooms;
+        long remainder = bookings % rooms;
+        int nextBookingId = 1;
+        long generated = 0;
+        long cancelled = 0;
+        long activeNights = 0;
+        long reportEvery = 1_000_000;
+        for (int i = 0; i < rooms; i++) {
+            // Split per room so one room's timeline doesn't depend on another's
+            SplittableRandom roomRandom = random.split();
+            int budget = (int) (perRoom + (i < remainder ? 1 : 0));
+            double activeStays = Math.max(1, budget * (1 - cancelRate));
+            double meanStay = Math.max(1, Math.min(MEAN_STAY[roomTypes[i].ordinal()], MAX_OCCUPANCY * days / activeStays));
+            
+            LocalDate cursor = start;
+            for (int n = 0; n < budget; n++) {
+                boolean isCancelled = roomRandom.nextDouble() < cancelRate;
+                double season = season(cursor);
+                // Spread the free nights left over the stays left, so the timeline ends near the window's end
+                double staysLeft = Math.max(1, (budget - n) * (1 - cancelRate));
+                long daysLeft = ChronoUnit.DAYS.between(cursor, end);
+                double meanGap = Math.max(0, (daysLeft - staysLeft * meanStay) / staysLeft);
+                LocalDate checkIn = cursor.plusDays(sample(roomRandom, meanGap / (season * season)));
+                int nights = Math.min(MAX_STAY, 1 + sample(roomRandom, meanStay - 1));
+                LocalDate checkOut = checkIn.plusDays(nights);
+                // Leave at least a night for each stay still to come
+                long reserved = isCancelled ? 0 : budget - n - 1;
+                if (checkOut.plusDays(reserved).isAfter(end)) {
+                    // Random draws overshot the window: squeeze the rest in as one-night stays
+                    checkIn = cursor;
+                    nights = 1;
+                    checkOut = checkIn.plusDays(1);
+                    if (checkOut.isAfter(end)) {
+                        break;
+                    }
+                }
+                String status;
+                if (isCancelled) {
+                    status = "CANCELLED";
+                    cancelled++;
+                } else {
+                    cursor = checkOut;
+                    if (!checkOut.isAfter(today)) {
+                        status = "CHECKED_OUT";
+                    } else if (checkIn.isAfter(today)) {
+                        status = "CONFIRMED";
+                    } else {
+                        status = "CHECKED_IN";
+                    }
+                }
+                
+                int customerId = FIRST_CUSTOMER_ID + roomRandom.nextInt(customers);
+                LocalDate booked = checkIn.minusDays(sample(roomRandom, 30));
+                if (booked.isAfter(today)) {
+                    booked = today;
+                }
+                double amount = Math.round(nights * prices[i] * season * 100) / 100.0;
+                String request = roomRandom.nextInt(10) == 0
+                    ? SPECIAL_REQUESTS[roomRandom.nextInt(SPECIAL_REQUESTS.length)] : null;
+                int bookingId = nextBookingId++;
+                sink.booking(bookingId, customerId, roomIds[i], customerName(customerId), customerEmail(customerId),
+                    customerPhone(customerId), checkIn, checkOut, status, amount,
+                    booked.atTime(8 + roomRandom.nextInt(14), roomRandom.nextInt(60)), request);
+                
+                if (status.equals("CONFIRMED") || status.equals("CHECKED_IN")) {
+                    for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+                        sink.night(roomIds[i], night, bookingId);
+                    }
+                }
+                if (!isCancelled) {
+                    activeNights += nights;
+                }
+                if (++generated % reportEvery == 0) {
+                    double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+                    System.out.printf("  %,d bookings (%.0f/s)%n", generated, generated / seconds);
+                }
+            }
+        }
+        sink.finish();
+        
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        System.out.printf("Bookings:   %,d (%,d cancelled)%n", generated, cancelled);
+        System.out.printf("Occupancy:  %.1f%%%n", 100.0 * activeNights / ((long) rooms * days));
+        System.out.printf("Elapsed:    %.1f s%n", seconds);
+        if (generated < bookings) {
+            System.err.printf("Only %,d of %,d bookings fit without overlapping stays - add rooms or years%n",
+                generated, bookings);
+        }
+    }
+    
+    private static RoomType pickType(SplittableRandom random) {
+        double r = random.nextDouble();
+        for (int i = 0; i < TYPES.length - 1; i++) {
+            r -= TYPE_SHARE[i];
+            if (r < 0) {
+                return TYPES[i];
+            }
+        }
+        return TYPES[TYPES.length - 1];
+    }
+    
+    private static int amenitiesFor(RoomType type, SplittableRandom random) {
+        int mask = Amenity.toMask(Amenity.WIFI, Amenity.TV);
+        if (type != RoomType.SINGLE || random.nextInt(10) < 7) {
+            mask |= Amenity.AC.mask();
+        }
+        if (type.compareTo(RoomType.DELUXE) >= 0) {
+            mask |= Amenity.MINI_BAR.mask();
+        }
+        if (type.compareTo(RoomType.SUITE) >= 0) {
+            mask |= Amenity.JACUZZI.mask();
+        }
+        return mask;
+    }
+    
+    // Demand relative to the average; weekends are busier
+    private static double season(LocalDate date) {
+        double demand = SEASON[date.getMonthValue() - 1];
+        DayOfWeek day = date.getDayOfWeek();
+        return day == DayOfWeek.FRIDAY || day == DayOfWeek.SATURDAY ? demand * 1.15 : demand;
+    }
+    
+    // Exponentially distributed whole number with the given mean
+    private static int sample(SplittableRandom random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        return (int) (-Math.log(1 - random.nextDouble()) * mean + 0.5);
+    }
+    
+    // Customer details are a function of the ID, so bookings can repeat them without a lookup
+    private String customerName(int userId) {
+        long h = mix(seed ^ userId);
+        return FIRST_NAMES[(int) ((h >>> 1) % FIRST_NAMES.length)] + " "
+            + LAST_NAMES[(int) ((h >>> 33) % LAST_NAMES.length)];
+    }
+    
+    private String customerEmail(int userId) {
+        return customerName(userId).toLowerCase(Locale.ROOT).replace(' ', '.') + userId + "@example.com";
+    }
+    
+    private static String customerPhone(int userId) {
+        return String.valueOf(9_000_000_000L + userId);
+    }
+    
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+    
+    // Same value MySQL's SHA2(password, 256) stores for the sample users
+    private static String sha256Hex(String text) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+    
+    private static String typeName(RoomType type) {
+        String name = type.name();
+        return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Destination for generated rows, written in foreign key order:
+     * users and rooms first, then each booking followed by its nights
+     */
+    private interface Sink extends AutoCloseable {
+        
+        void user(int userId, String username, String passwordHash, String fullName, String email, String phone)
+            throws Exception;
+        
+        void room(int roomId, RoomType type, double price, int amenityMask, int floor) throws Exception;
+        
+        void booking(int bookingId, int customerId, int roomId, String name, String email, String phone,
+                     LocalDate checkIn, LocalDate checkOut, String status, double amount,
+                     LocalDateTime bookedAt, String specialRequests) throws Exception;
+        
+        void night(int roomId, LocalDate night, int bookingId) throws Exception;
+        
+        /** Write whatever is still buffered */
+        void finish() throws Exception;
+        
+        /** Release the connection or files; narrower than AutoCloseable's, so it can't throw InterruptedException */
+        @Override
+        void close() throws IOException, SQLException;
+    }
+    
+    /**
+     * Batched inserts, committed once per batch
+     */
+    private static class JdbcSink implements Sink {
+        
+        private final Connection connection;
+        private final int batchSize;
+        private final PreparedStatement users;
+        private final PreparedStatement roomsStmt;
+        private final PreparedStatement bookingsStmt;
+        private final PreparedStatement nights;
+        private int pending;
+        
+        JdbcSink(ConnectionPool pool, int batchSize, boolean truncate) throws SQLException {
+            this.connection = pool.getConnection();
+            this.batchSize = batchSize;
+            try (Statement stmt = connection.createStatement()) {
+                if (truncate) {
+                    stmt.executeUpdate("DELETE FROM room_nights");
+                    stmt.executeUpdate("DELETE FROM bookings");
+                    stmt.executeUpdate("DELETE FROM rooms");
+                    stmt.executeUpdate("DELETE FROM users WHERE user_id >= " + FIRST_CUSTOMER_ID);
+                } else if (count(stmt, "SELECT COUNT(*) FROM bookings") > 0 || count(stmt, "SELECT COUNT(*) FROM rooms") > 0
+                           || count(stmt, "SELECT COUNT(*) FROM users WHERE user_id >= " + FIRST_CUSTOMER_ID) > 0) {
+                    connection.close();
+                    throw new SQLException("The database already has rooms, bookings or generated users - rerun with --truncate to clear them");
+                }
+            }
+            connection.setAutoCommit(false);
+            users = connection.prepareStatement(
+                "INSERT INTO users (user_id, username, password, role, full_name, email, phone) VALUES (?, ?, ?, 'CUSTOMER', ?, ?, ?)");
+            roomsStmt = connection.prepareStatement(
+                "INSERT INTO rooms (room_id, room_number, room_type, price_per_night, capacity, amenities, amenity_mask, status, floor) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, 'AVAILABLE', ?)");
+            bookingsStmt = connection.prepareStatement(
+                "INSERT INTO bookings (booking_id, customer_id, room_id, customer_name, customer_email, customer_phone, "
+                + "check_in_date, check_out_date, status, total_amount, booking_date, special_requests) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            nights = connection.prepareStatement("INSERT INTO room_nights (room_id, night, booking_id) VALUES (?, ?, ?)");
+        }
+        
+        private static long count(Statement stmt, String sql) throws SQLException {
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+        
+        @Override
+        public void user(int userId, String username, String passwordHash, String fullName, String email, String phone)
+                throws SQLException {
+            users.setInt(1, userId);
+            users.setString(2, username);
+            users.setString(3, passwordHash);
+            users.setString(4, fullName);
+            users.setString(5, email);
+            users.setString(6, phone);
+            users.addBatch();
+            added();
+        }
+        
+        @Override
+        public void room(int roomId, RoomType type, double price, int amenityMask, int floor) throws SQLException {
+            roomsStmt.setInt(1, roomId);
+            roomsStmt.setString(2, "R" + roomId);
+            roomsStmt.setString(3, typeName(type));
+            roomsStmt.setDouble(4, price);
+            roomsStmt.setInt(5, CAPACITY[type.ordinal()]);
+            roomsStmt.setString(6, Amenity.describe(amenityMask));
+            roomsStmt.setInt(7, amenityMask);
+            roomsStmt.setInt(8, floor);
+            roomsStmt.addBatch();
+            added();
+        }
+        
+        @Override
+        public void booking(int bookingId, int customerId, int roomId, String name, String email, String phone,
+                            LocalDate checkIn, LocalDate checkOut, String status, double amount,
+                            LocalDateTime bookedAt, String specialRequests) throws SQLException {
+            bookingsStmt.setInt(1, bookingId);
+            bookingsStmt.setInt(2, customerId);
+            bookingsStmt.setInt(3, roomId);
+            bookingsStmt.setString(4, name);
+            bookingsStmt.setString(5, email);
+            bookingsStmt.setString(6, phone);
+            bookingsStmt.setDate(7, Date.valueOf(checkIn));
+            bookingsStmt.setDate(8, Date.valueOf(checkOut));
+            bookingsStmt.setString(9, status);
+            bookingsStmt.setDouble(10, amount);
+            bookingsStmt.setTimestamp(11, Timestamp.valueOf(bookedAt));
+            if (specialRequests == null) {
+                bookingsStmt.setNull(12, Types.VARCHAR);
+            } else {
+                bookingsStmt.setString(12, specialRequests);
+            }
+            bookingsStmt.addBatch();
+            added();
+        }
+        
+        @Override
+        public void night(int roomId, LocalDate night, int bookingId) throws SQLException {
+            nights.setInt(1, roomId);
+            nights.setDate(2, Date.valueOf(night));
+            nights.setInt(3, bookingId);
+            nights.addBatch();
+            added();
+        }
+        
+        private void added() throws SQLException {
+            if (++pending >= batchSize) {
+                finish();
+            }
+        }
+        
+        @Override
+        public void finish() throws SQLException {
+            // Parents before children, so the foreign keys are satisfied within the transaction
+            users.executeBatch();
+            roomsStmt.executeBatch();
+            bookingsStmt.executeBatch();
+            nights.executeBatch();
+            connection.commit();
+            pending = 0;
+        }
+        
+        @Override
+        public void close() throws SQLException {
+            try {
+                connection.setAutoCommit(true);
+            } finally {
+                connection.close();
+            }
+        }
+    }
+    
+    /**
+     * One CSV file per table plus a LOAD DATA script
+     */
+    private static class CsvSink implements Sink {
+        
+        private final Path directory;
+        private final Map<String, BufferedWriter> files = new LinkedHashMap<>();
+        private final Map<String, String> columns = new LinkedHashMap<>();
+        private final StringBuilder line = new StringBuilder(256);
+        private final BufferedWriter users;
+        private final BufferedWriter roomsFile;
+        private final BufferedWriter bookingsFile;
+        private final BufferedWriter nights;
+        
+        CsvSink(Path directory) throws IOException {
+            this.directory = Files.createDirectories(directory);
+            users = open("users", "user_id, username, password, role, full_name, email, phone");
+            roomsFile = open("rooms", "room_id, room_number, room_type, price_per_night, capacity, amenities, amenity_mask, status, floor");
+            bookingsFile = open("bookings", "booking_id, customer_id, room_id, customer_name, customer_email, customer_phone, "
+                + "check_in_date, check_out_date, status, total_amount, booking_date, special_requests");
+            nights = open("room_nights", "room_id, night, booking_id");
+        }
+        
+        private BufferedWriter open(String table, String columnList) throws IOException {
+            BufferedWriter writer = Files.newBufferedWriter(directory.resolve(table + ".csv"), StandardCharsets.UTF_8);
+            files.put(table, writer);
+            columns.put(table, columnList);
+            return writer;
+        }
+        
+        @Override
+        public void user(int userId, String username, String passwordHash, String fullName, String email, String phone)
+                throws IOException {
+            line.setLength(0);
+            line.append(userId).append(',').append(username).append(',').append(passwordHash).append(",CUSTOMER,")
+                .append(fullName).append(',').append(email).append(',').append(phone);
+            write(users);
+        }
+        
+        @Override
+        public void room(int roomId, RoomType type, double price, int amenityMask, int floor) throws IOException {
+            line.setLength(0);
+            line.append(roomId).append(",R").append(roomId).append(',').append(typeName(type)).append(',');
+            appendAmount(price);
+            line.append(',').append(CAPACITY[type.ordinal()]).append(",\"").append(Amenity.describe(amenityMask))
+                .append("\",").append(amenityMask).append(",AVAILABLE,").append(floor);
+            write(roomsFile);
+        }
+        
+        @Override
+        public void booking(int bookingId, int customerId, int roomId, String name, String email, String phone,
+                            LocalDate checkIn, LocalDate checkOut, String status, double amount,
+                            LocalDateTime bookedAt, String specialRequests) throws IOException {
+            line.setLength(0);
+            line.append(bookingId).append(',').append(customerId).append(',').append(roomId).append(',')
+                .append(name).append(',').append(email).append(',').append(phone).append(',')
+                .append(checkIn).append(',').append(checkOut).append(',').append(status).append(',');
+            appendAmount(amount);
+            line.append(',').append(bookedAt.toLocalDate()).append(' ');
+            appendTwoDigits(bookedAt.getHour());
+            line.append(':');
+            appendTwoDigits(bookedAt.getMinute());
+            line.append(":00,");
+            if (specialRequests == null) {
+                line.append("\\N");
+            } else {
+                line.append(specialRequests);
+            }
+            write(bookingsFile);
+        }
+        
+        @Override
+        public void night(int roomId, LocalDate night, int bookingId) throws IOException {
+            line.setLength(0);
+            line.append(roomId).append(',').append(night).append(',').append(bookingId);
+            write(nights);
+        }
+        
+        // Whole rupees and paise without going through String.format for every row
+        private void appendAmount(double amount) {
+            long paise = Math.round(amount * 100);
+            line.append(paise / 100).append('.');
+            appendTwoDigits((int) (paise % 100));
+        }
+        
+        private void appendTwoDigits(int value) {
+            if (value < 10) {
+                line.append('0');
+            }
+            line.append(value);
+        }
+        
+        private void write(BufferedWriter writer) throws IOException {
+            line.append('\n');
+            writer.append(line);
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            for (BufferedWriter writer : files.values()) {
+                writer.flush();
+            }
+            try (PrintWriter script = new PrintWriter(Files.newBufferedWriter(directory.resolve("load.sql"), StandardCharsets.UTF_8))) {
+                script.println("-- Generated by com.hotel.tools.HotelDataGenerator");
+                script.println("-- Run with: mysql --local-infile=1 hotel_management < load.sql");
+                script.println("SET FOREIGN_KEY_CHECKS = 0;");
+                script.println("SET UNIQUE_CHECKS = 0;");
+                for (Map.Entry<String, String> table : columns.entrySet()) {
+                    String file = directory.toAbsolutePath().resolve(table.getKey() + ".csv").toString().replace('\\', '/');
+                    script.println("LOAD DATA LOCAL INFILE '" + file + "' INTO TABLE " + table.getKey());
+                    script.println("    FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' LINES TERMINATED BY '\\n'");
+                    script.println("    (" + table.getValue() + ");");
+                }
+                script.println("SET UNIQUE_CHECKS = 1;");
+                script.println("SET FOREIGN_KEY_CHECKS = 1;");
+            }
+            System.out.println("Wrote " + files.size() + " CSV files and load.sql to " + directory.toAbsolutePath());
+        }
+        
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (BufferedWriter writer : files.values()) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package com.hotel.tools;
+
+import com.hotel.database.ConnectionPool;
+import com.hotel.database.UnifiedDatabaseConnection;
+import com.hotel.exceptions.BookingConflictException;
+import com.hotel.managers.BookingManager;
+import com.hotel.metrics.LatencyHistogram;
+import com.hotel.models.Booking;
+import com.hotel.models.User;
+import com.hotel.services.AuthenticationService;
+import com.hotel.services.LoginRateLimiter;
+import com.hotel.services.SessionStore;
+import com.hotel.util.TaskExecutors;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadDriver - closed-loop front-desk and booking traffic without the UI
+ * Each simulated agent repeatedly picks an operation from the mix, waits for it
+ * to finish, optionally thinks for a while, and goes again. Throughput and
+ * latency percentiles are reported per operation.
+ *
+ * Usage: java com.hotel.tools.LoadDriver [--agents 1000] [--duration 60] [--warmup 10] [--think-ms 0]
+ *        [--mix search=30,availability=30,create=15,checkin=8,checkout=7,cancel=5,login=5]
+ *        [--pool 20] [--seed 42] [--login admin:admin123] [--keep]
+ *        [--jdbc url user password]
+ *
+ * Agents run on virtual threads where the JVM has them (Java 21+), otherwise on
+ * one platform thread each. --pool sizes the connection pool for --jdbc; the
+ * application's own database uses its shared pool.
+ *
+ * Point the driver at a database filled by HotelDataGenerator: check-ins,
+ * check-outs and cancellations change existing bookings, while the bookings the
+ * run creates are deleted afterwards unless --keep is given. Every agent logs in
+ * as the same user from this one process, so the login rate limiter is
+ * replaced by one that allows bursts of a million attempts.
+ */
+public class LoadDriver {
+    
+    enum Operation {
+        SEARCH, AVAILABILITY, CREATE, CHECKIN, CHECKOUT, CANCEL, LOGIN
+    }
+    
+    /** How a single operation ended */
+    private enum Outcome {
+        OK, REJECTED, SKIPPED
+    }
+    
+    private static final String DEFAULT_MIX = "search=30,availability=30,create=15,checkin=8,checkout=7,cancel=5,login=5";
+    private static final int HORIZON_DAYS = 180;
+    private static final int CANDIDATE_LIMIT = 20000;
+    
+    private int agents = 1000;
+    private int durationSeconds = 60;
+    private int warmupSeconds = 10;
+    private int thinkMillis;
+    private int poolSize = 20;
+    private long seed = 42;
+    private String loginUser = "admin";
+    private String loginPassword = "admin123";
+    private boolean keep;
+    private String[] jdbc;
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    
+    private BookingManager manager;
+    private final String marker = "Load Driver " + System.currentTimeMillis();
+    private final List<Integer> roomIds = new ArrayList<>();
+    private final List<String> searchTerms = new ArrayList<>();
+    private final Queue<Integer> confirmed = new ConcurrentLinkedQueue<>();
+    private final Queue<Integer> checkedIn = new ConcurrentLinkedQueue<>();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private Operation[] weightedOperations;
+    private final AtomicInteger errorsLogged = new AtomicInteger();
+    
+    public static void main(String[] args) throws Exception {
+        LoadDriver driver = new LoadDriver();
+        try {
+            driver.parse(args);
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java com.hotel.tools.LoadDriver [--agents N] [--duration s] [--warmup s] "
+                + "[--think-ms N] [--mix op=weight,...] [--pool N] [--seed S] [--login user:password] [--keep] "
+                + "[--jdbc url user password]");
+            System.exit(2);
+        }
+        driver.run();
+        System.exit(0);
+    }
+    
+    private void parse(String[] args) {
+        String mixText = DEFAULT_MIX;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            switch (option) {
+                case "--agents": agents = Integer.parseInt(value(args, ++i, option)); break;
+                case "--duration": durationSeconds = Integer.parseInt(value(args, ++i, option)); break;
+                case "--warmup": warmupSeconds = Integer.parseInt(value(args, ++i, option)); break;
+                case "--think-ms": thinkMillis = Integer.parseInt(value(args, ++i, option)); break;
+                case "--mix": mixText = value(args, ++i, option); break;
+                case "--pool": poolSize = Integer.parseInt(value(args, ++i, option)); break;
+                case "--seed": seed = Long.parseLong(value(args, ++i, option)); break;
+                case "--keep": keep = true; break;
+                case "--login":
+                    String[] login = value(args, ++i, option).split(":", 2);
+                    if (login.length != 2) {
+                        throw new IllegalArgumentException("--login expects user:password");
+                    }
+                    loginUser = login[0];
+                    loginPassword = login[1];
+                    break;
+                case "--jdbc":
+                    if (i + 3 >= args.length) {
+                        throw new IllegalArgumentException("--jdbc expects url, user and password");
+                    }
+                    jdbc = new String[] {args[i + 1], args[i + 2], args[i + 3]};
+                    i += 3;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        if (agents <= 0 || durationSeconds <= 0 || warmupSeconds < 0 || thinkMillis < 0 || poolSize <= 0) {
+            throw new IllegalArgumentException("Invalid agent count, duration or pool size");
+        }
+        parseMix(mixText);
+    }
+    
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+    
+    // "search=30,create=10": operations left out get no traffic
+    private void parseMix(String text) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String part : text.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry: " + part);
+            }
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT).replace("-", ""));
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + operation);
+            }
+            mix.put(operation, weight);
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operations");
+        }
+        weightedOperations = weighted.toArray(new Operation[0]);
+    }
+    
+    private void run() throws Exception {
+        ConnectionPool pool;
+        if (jdbc != null) {
+            pool = new ConnectionPool(jdbc[0], jdbc[1], jdbc[2], Math.min(2, poolSize), poolSize);
+            // AuthenticationService always goes through the shared pool
+            UnifiedDatabaseConnection.setDataSource(pool);
+        } else {
+            pool = UnifiedDatabaseConnection.getDataSource();
+            poolSize = pool.getMaxSize();
+        }
+        pool.setBorrowTimeoutMillis(TimeUnit.SECONDS.toMillis(30));
+        manager = new BookingManager(pool);
+        LoginRateLimiter.Limit unlimited = new LoginRateLimiter.Limit(1_000_000, 1);
+        AuthenticationService.setRateLimiter(new LoginRateLimiter(unlimited, unlimited, 1));
+        loadCandidates(pool);
+        if (roomIds.isEmpty()) {
+            System.err.println("No rooms found - fill the database with HotelDataGenerator first.");
+            return;
+        }
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        
+        boolean virtual = TaskExecutors.virtualThreadsAvailable();
+        System.out.println("=== Load Driver ===");
+        System.out.println(agents + " agents on " + (virtual ? "virtual" : "platform") + " threads, pool of "
+            + poolSize + ", " + warmupSeconds + " s warm-up + " + durationSeconds + " s measured, think time "
+            + thinkMillis + " ms");
+        System.out.println("Mix: " + mix);
+        System.out.println(roomIds.size() + " rooms, " + confirmed.size() + " confirmed and " + checkedIn.size()
+            + " checked-in bookings to work on");
+        
+        // The services print a line per call; keep them off the console while the agents run
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long startNanos = System.nanoTime();
+        long measureFrom = startNanos + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long endNanos = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-driver-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long[] lastTotal = {0};
+        progress.scheduleAtFixedRate(() -> {
+            long total = totalCompleted();
+            long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+            console.printf("  %3d s  %,8.0f ops/s  (pool: %s)%n", elapsed, (total - lastTotal[0]) / 5.0, pool);
+            lastTotal[0] = total;
+        }, 5, 5, TimeUnit.SECONDS);
+        
+        CountDownLatch done = new CountDownLatch(agents);
+        ExecutorService executor = TaskExecutors.newBlockingTaskExecutor("load-agent", agents);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < agents; i++) {
+            SplittableRandom agentRandom = random.split();
+            executor.execute(() -> {
+                try {
+                    runAgent(agentRandom, measureFrom, endNanos);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        executor.shutdown();
+        progress.shutdownNow();
+        System.setOut(console);
+        
+        report(TimeUnit.NANOSECONDS.toSeconds(endNanos - measureFrom));
+        System.out.println();
+        System.out.println("Top statements by total time (warm-up included):");
+        System.out.print(pool.getJdbcMetrics().report(10));
+        if (!keep) {
+            deleteRun(pool);
+        }
+        pool.shutdown();
+    }
+    
+    private void runAgent(SplittableRandom random, long measureFrom, long endNanos) {
+        while (true) {
+            long start = System.nanoTime();
+            if (start >= endNanos) {
+                return;
+            }
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            OperationStats operationStats = stats.get(operation);
+            Outcome outcome;
+            try {
+                outcome = execute(operation, random);
+            } catch (Exception e) {
+                if (start >= measureFrom) {
+                    operationStats.errors.increment();
+                }
+                if (errorsLogged.incrementAndGet() <= 10) {
+                    System.err.println(operation + " failed: " + e.getMessage());
+                }
+                continue;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (start >= measureFrom) {
+                operationStats.record(outcome, elapsed);
+            }
+            if (thinkMillis > 0) {
+                try {
+                    // Exponential think time, as from independent people at the desk
+                    Thread.sleep((long) (-Math.log(1 - random.nextDouble()) * thinkMillis));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    private Outcome execute(Operation operation, SplittableRandom random) throws SQLException {
+        switch (operation) {
+            case SEARCH: {
+                String name = searchTerms.get(random.nextInt(searchTerms.size()));
+                String prefix = name.substring(0, Math.min(name.length(), 3 + random.nextInt(3)));
+                manager.searchBookings(prefix, null, 50);
+                return Outcome.OK;
+            }
+            case AVAILABILITY: {
+                LocalDate checkIn = LocalDate.now().plusDays(random.nextInt(HORIZON_DAYS));
+                boolean available = manager.isRoomAvailable(randomRoom(random), checkIn,
+                    checkIn.plusDays(1 + random.nextInt(5)));
+                return available ? Outcome.OK : Outcome.REJECTED;
+            }
+            case CREATE: {
+                LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(HORIZON_DAYS));
+                Booking booking = new Booking();
+                booking.setRoomId(randomRoom(random));
+                booking.setCustomerName(marker);
+                booking.setCustomerEmail("load" + random.nextInt(1_000_000) + "@example.com");
+                booking.setCustomerPhone("9000000000");
+                booking.setCheckInDate(checkIn);
+                booking.setCheckOutDate(checkIn.plusDays(1 + random.nextInt(5)));
+                try {
+                    Booking created = manager.createBooking(booking);
+                    confirmed.offer(created.getBookingId());
+                    return Outcome.OK;
+                } catch (BookingConflictException e) {
+                    return Outcome.REJECTED;
+                }
+            }
+            case CHECKIN: {
+                Integer bookingId = confirmed.poll();
+                if (bookingId == null) {
+                    return Outcome.SKIPPED;
+                }
+                if (!manager.checkInBooking(bookingId)) {
+                    return Outcome.REJECTED;
+                }
+                checkedIn.offer(bookingId);
+                return Outcome.OK;
+            }
+            case CHECKOUT: {
+                Integer bookingId = checkedIn.poll();
+                if (bookingId == null) {
+                    return Outcome.SKIPPED;
+                }
+                return manager.checkOutBooking(bookingId) ? Outcome.OK : Outcome.REJECTED;
+            }
+            case CANCEL: {
+                Integer bookingId = confirmed.poll();
+                if (bookingId == null) {
+                    return Outcome.SKIPPED;
+                }
+                return manager.cancelBooking(bookingId) ? Outcome.OK : Outcome.REJECTED;
+            }
+            case LOGIN: {
+                // A whole front-desk session: log in, use the token once, log out
+                SessionStore.Session<User> session = AuthenticationService.login(loginUser, loginPassword);
+                if (session == null || AuthenticationService.getSessionUser(session.getToken()) == null) {
+                    return Outcome.REJECTED;
+                }
+                AuthenticationService.logout(session.getToken());
+                return Outcome.OK;
+            }
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+    
+    private int randomRoom(SplittableRandom random) {
+        return roomIds.get(random.nextInt(roomIds.size()));
+    }
+    
+    // Rooms to book, names to search for, and bookings to check in, out or cancel
+    private void loadCandidates(ConnectionPool pool) throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            readInts(connection, "SELECT room_id FROM rooms ORDER BY room_id", roomIds);
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "SELECT DISTINCT customer_name FROM bookings ORDER BY customer_name")) {
+                stmt.setMaxRows(1000);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        searchTerms.add(rs.getString(1));
+                    }
+                }
+            }
+            readInts(connection, "SELECT booking_id FROM bookings WHERE status = 'CONFIRMED' ORDER BY booking_id DESC", confirmed);
+            readInts(connection, "SELECT booking_id FROM bookings WHERE status = 'CHECKED_IN' ORDER BY booking_id DESC", checkedIn);
+        }
+        if (searchTerms.isEmpty()) {
+            searchTerms.add("Guest");
+        }
+    }
+    
+    private static void readInts(Connection connection, String sql, Collection<Integer> into) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setMaxRows(CANDIDATE_LIMIT);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    into.add(rs.getInt(1));
+                }
+            }
+        }
+    }
+    
+    private long totalCompleted() {
+        long total = 0;
+        for (OperationStats operationStats : stats.values()) {
+            total += operationStats.histogram.getCount();
+        }
+        return total;
+    }
+    
+    private void report(long seconds) {
+        System.out.println();
+        System.out.printf("%-13s %9s %9s %7s %7s %9s %8s %8s %8s %8s %8s %8s%n", "Operation", "Done", "Rejected",
+            "Skipped", "Errors", "ops/s", "mean", "p50", "p90", "p99", "p99.9", "max");
+        for (Operation operation : Operation.values()) {
+            if (!mix.containsKey(operation)) {
+                continue;
+            }
+            OperationStats s = stats.get(operation);
+            LatencyHistogram h = s.histogram;
+            System.out.printf("%-13s %9d %9d %7d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                operation.name().toLowerCase(), h.getCount(), s.rejected.sum(), s.skipped.sum(), s.errors.sum(),
+                h.getCount() / (double) seconds, h.getMeanNanos() / 1e6, h.getPercentileMillis(50),
+                h.getPercentileMillis(90), h.getPercentileMillis(99), h.getPercentileMillis(99.9), h.getMaxNanos() / 1e6);
+        }
+        System.out.println("(latencies in ms, measured over " + seconds + " s after warm-up)");
+        long reservations = stats.get(Operation.CREATE).histogram.getCount() - stats.get(Operation.CREATE).rejected.sum();
+        System.out.printf("Total:        %,.1f ops/s%n", totalCompleted() / (double) seconds);
+        System.out.printf("Reservations: %,.1f created/s%n", reservations / (double) seconds);
+    }
+    
+    private void deleteRun(ConnectionPool pool) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("DELETE FROM bookings WHERE customer_name = ?")) {
+            stmt.setString(1, marker);
+            System.out.println("Cleaned up " + stmt.executeUpdate() + " bookings created by the run");
+        }
+    }
+    
+    /**
+     * Counters for one operation; the histogram holds every timed call, rejected ones included
+     */
+    private static class OperationStats {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        
+        void record(Outcome outcome, long nanos) {
+            if (outcome == Outcome.SKIPPED) {
+                skipped.increment();
+                return;
+            }
+            if (outcome == Outcome.REJECTED) {
+                rejected.increment();
+            }
+            histogram.record(nanos);
+        }
+    }
+}
@@ -10,7 +10,7 @@ import java.util.Map;
 import java.util.Set;
 
 /**
- * AvailabilityGridDialog - Shows 30-day availability grid
+ * AvailabilityGridDialog - Shows the room availability grid for the booking horizon
  * Demonstrates advanced Swing UI components and custom rendering
  */
 public class AvailabilityGridDialog extends JDialog {
@@ -19,7 +19,7 @@ public class AvailabilityGridDialog extends JDialog {
     private DefaultTableModel tableModel;
     
     public AvailabilityGridDialog(JFrame parent, Map<LocalDate, Set<Integer>> availability) {
-        super(parent, "Room Availability Grid (Next 30 Days)", true);
+        super(parent, "Room Availability Grid (Next " + (availability.size() - 1) + " Days)", true);
         this.availabilityData = availability;
         
         initializeComponents();
@@ -64,7 +64,7 @@ public class AvailabilityGridDialog extends JDialog {
         
         // Title panel
         JPanel titlePanel = new JPanel();
-        JLabel titleLabel = new JLabel("Room Availability Grid - Next 30 Days");
+        JLabel titleLabel = new JLabel("Room Availability Grid - Next " + (availabilityData.size() - 1) + " Days");
         titleLabel.setFont(new Font("Arial", Font.BOLD, 16));
         titlePanel.add(titleLabel);
         
@@ -0,0 +1,183 @@
+package com.hotel.ui;
+
+import com.hotel.database.UnifiedDatabaseConnection;
+import com.hotel.export.BookingExporter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * BookingExportPanel - exports bookings to CSV or JSON Lines from the Reports tab
+ * The export streams on a SwingWorker, so the window stays responsive and the
+ * row count ticks up while it runs; Cancel stops it and removes the partial file.
+ */
+public class BookingExportPanel extends JPanel {
+    
+    private static final String[] STATUSES = {"CONFIRMED", "CHECKED_IN", "CHECKED_OUT", "CANCELLED"};
+    
+    private final JTextField fromField = new JTextField(10);
+    private final JTextField toField = new JTextField(10);
+    private final List<JCheckBox> statusBoxes = new ArrayList<>();
+    private final JComboBox<String> formatBox = new JComboBox<>(new String[]{"CSV", "JSON Lines"});
+    private final JCheckBox gzipBox = new JCheckBox("Compress (gzip)");
+    private final JButton exportButton = new JButton("Export...");
+    private final JButton cancelButton = new JButton("Cancel");
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JLabel statusLabel = new JLabel(" ");
+    private SwingWorker<Long, Long> worker;
+    
+    public BookingExportPanel() {
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createTitledBorder("Export Bookings"));
+        
+        JPanel form = new JPanel(new GridBagLayout());
+        GridBagConstraints c = new GridBagConstraints();
+        c.insets = new Insets(5, 5, 5, 5);
+        c.anchor = GridBagConstraints.WEST;
+        
+        fromField.setToolTipText("yyyy-mm-dd, blank for no lower limit");
+        toField.setToolTipText("yyyy-mm-dd, blank for no upper limit");
+        addRow(form, c, 0, "Check-in from:", fromField);
+        addRow(form, c, 1, "Check-in to:", toField);
+        
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        for (String status : STATUSES) {
+            JCheckBox box = new JCheckBox(status);
+            statusBoxes.add(box);
+            statusPanel.add(box);
+        }
+        statusPanel.setToolTipText("None ticked exports every status");
+        addRow(form, c, 2, "Status:", statusPanel);
+        
+        JPanel formatPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        formatPanel.add(formatBox);
+        formatPanel.add(gzipBox);
+        addRow(form, c, 3, "Format:", formatPanel);
+        
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        buttons.add(exportButton);
+        buttons.add(cancelButton);
+        addRow(form, c, 4, "", buttons);
+        
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(false);
+        cancelButton.setEnabled(false);
+        
+        JPanel statusBar = new JPanel(new BorderLayout(10, 0));
+        statusBar.add(statusLabel, BorderLayout.CENTER);
+        statusBar.add(progressBar, BorderLayout.EAST);
+        
+        add(form, BorderLayout.NORTH);
+        add(statusBar, BorderLayout.SOUTH);
+        
+        exportButton.addActionListener(e -> chooseFileAndExport());
+        cancelButton.addActionListener(e -> {
+            if (worker != null) {
+                worker.cancel(true);
+            }
+        });
+    }
+    
+    private static void addRow(JPanel form, GridBagConstraints c, int row, String label, JComponent field) {
+        c.gridx = 0;
+        c.gridy = row;
+        form.add(new JLabel(label), c);
+        c.gridx = 1;
+        form.add(field, c);
+    }
+    
+    private void chooseFileAndExport() {
+        BookingExporter.Filter filter;
+        try {
+            filter = new BookingExporter.Filter()
+                .checkInFrom(parseDate(fromField.getText()))
+                .checkInTo(parseDate(toField.getText()));
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Dates must be in yyyy-mm-dd format", "Export", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        for (JCheckBox box : statusBoxes) {
+            if (box.isSelected()) {
+                filter.status(box.getText());
+            }
+        }
+        BookingExporter.Format format = formatBox.getSelectedIndex() == 0
+            ? BookingExporter.Format.CSV : BookingExporter.Format.JSON_LINES;
+        boolean gzip = gzipBox.isSelected();
+        
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("bookings-" + LocalDate.now() + format.getExtension() + (gzip ? ".gz" : "")));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path target = chooser.getSelectedFile().toPath();
+        if (target.toFile().exists() && JOptionPane.showConfirmDialog(this, target.getFileName() + " exists. Replace it?",
+                "Export", JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) {
+            return;
+        }
+        startExport(filter, format, gzip, target);
+    }
+    
+    private static LocalDate parseDate(String text) {
+        return text.trim().isEmpty() ? null : LocalDate.parse(text.trim());
+    }
+    
+    private void startExport(BookingExporter.Filter filter, BookingExporter.Format format, boolean gzip, Path target) {
+        BookingExporter exporter = new BookingExporter(UnifiedDatabaseConnection.getDataSource());
+        exportButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        progressBar.setVisible(true);
+        statusLabel.setText("Exporting to " + target.getFileName() + "...");
+        long start = System.nanoTime();
+        
+        worker = new SwingWorker<Long, Long>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return exporter.export(filter, format, gzip, target, this::publish);
+            }
+            
+            @Override
+            protected void process(List<Long> counts) {
+                statusLabel.setText(String.format("Exporting to %s... %,d rows", target.getFileName(),
+                    counts.get(counts.size() - 1)));
+            }
+            
+            @Override
+            protected void done() {
+                worker = null;
+                exportButton.setEnabled(true);
+                cancelButton.setEnabled(false);
+                progressBar.setVisible(false);
+                try {
+                    long rows = get();
+                    statusLabel.setText(String.format("Exported %,d bookings to %s in %.1f s", rows, target,
+                        (System.nanoTime() - start) / 1e9));
+                } catch (CancellationException e) {
+                    statusLabel.setText("Export cancelled");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof InterruptedIOException) {
+                        statusLabel.setText("Export cancelled");
+                        return;
+                    }
+                    System.err.println("Error exporting bookings: " + cause.getMessage());
+                    statusLabel.setText("Export failed");
+                    JOptionPane.showMessageDialog(BookingExportPanel.this, "Export failed: " + cause.getMessage(),
+                        "Export", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+}
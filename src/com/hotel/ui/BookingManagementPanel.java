@@ -2,21 +2,20 @@ package com.hotel.ui;
 
 import com.hotel.models.Booking;
 import com.hotel.managers.BookingManager;
+import com.hotel.managers.BookingPage;
+import com.hotel.managers.BookingStatusListener;
 import com.hotel.exceptions.BookingConflictException;
+import com.hotel.metrics.PanelRefreshEvent;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.sql.Connection;
-import java.sql.SQLException;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 /**
  * BookingManagementPanel - Main UI for admin booking management
@@ -25,28 +24,53 @@ import java.util.Set;
 public class BookingManagementPanel extends JPanel {
     private BookingManager bookingManager;
     private JTable bookingsTable;
-    private DefaultTableModel tableModel;
+    private JScrollPane scrollPane;
+    private BookingTableModel tableModel;
     private JButton checkInButton, checkOutButton, cancelButton, refreshButton;
     private JButton viewAvailabilityButton, todayCheckInsButton, todayCheckOutsButton;
     private JComboBox<String> statusFilter;
     private JTextField searchField;
     
-    // Table columns
-    private final String[] columnNames = {
-        "Booking ID", "Customer Name", "Room ID", "Check-In", 
-        "Check-Out", "Status", "Total Amount", "Phone", "Email"
+    // Paged loading: the next page is fetched when the table is scrolled near its end
+    private static final int PAGE_SIZE = 100;
+    private static final int PREFETCH_ROWS = 20;
+    private static final int SEARCH_LIMIT = 500;
+    private BookingPage.Cursor nextPageCursor; // null when the table holds the complete result
+    private String pageStatus; // status filter of the paged view, null for all bookings
+    private boolean pageLoading;
+    
+    // Database work runs in the background; the EDT only applies results
+    private final SwingTaskRunner taskRunner = new SwingTaskRunner("booking-panel", 2);
+    private final EdtLatencyMonitor latencyMonitor = new EdtLatencyMonitor();
+    private final JLabel latencyLabel = new JLabel();
+    private final Timer latencyLabelTimer = new Timer(1000, e -> latencyLabel.setText(latencyMonitor.toString()));
+    private static final String TABLE_TASK = "table"; // anything that replaces the table contents
+    private static final String GRID_TASK = "grid";
+    // Ends the runner and monitor threads once the window holding the panel is disposed;
+    // removeNotify alone cannot, since the panel may be added again
+    private Window ownerWindow;
+    private final WindowAdapter ownerClosedListener = new WindowAdapter() {
+        @Override
+        public void windowClosed(WindowEvent e) {
+            if (e.getWindow() == ownerWindow) {
+                shutdown();
+            }
+        }
     };
+    // Patch the changed row in place; the manager calls this on a worker thread
+    private final BookingStatusListener statusListener =
+        (bookingId, status) -> SwingUtilities.invokeLater(() -> tableModel.updateStatus(bookingId, status));
     
     public BookingManagementPanel() {
         try {
-            this.bookingManager = new BookingManager(com.hotel.database.UnifiedDatabaseConnection.getConnection());
-        } catch (SQLException e) {
+            this.bookingManager = new BookingManager(com.hotel.database.UnifiedDatabaseConnection.getDataSource());
+        } catch (Exception e) {
             System.err.println("Error initializing booking manager: " + e.getMessage());
         }
         initializeComponents();
         setupLayout();
         setupEventListeners();
-        loadBookings();
+        SwingUtilities.invokeLater(this::loadBookings);
     }
     
     public BookingManagementPanel(Connection connection) {
@@ -58,17 +82,12 @@ public class BookingManagementPanel extends JPanel {
         initializeComponents();
         setupLayout();
         setupEventListeners();
-        loadBookings();
+        SwingUtilities.invokeLater(this::loadBookings);
     }
     
     private void initializeComponents() {
         // Initialize table
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table read-only
-            }
-        };
+        tableModel = new BookingTableModel();
         bookingsTable = new JTable(tableModel);
         bookingsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         bookingsTable.setRowHeight(25);
@@ -87,7 +106,7 @@ public class BookingManagementPanel extends JPanel {
             "All", "CONFIRMED", "CHECKED_IN", "CHECKED_OUT", "CANCELLED"
         });
         searchField = new JTextField(20);
-        searchField.setToolTipText("Search by customer name or booking ID");
+        searchField.setToolTipText("Search by customer name, email, phone or booking ID");
     }
     
     private void setupLayout() {
@@ -103,7 +122,7 @@ public class BookingManagementPanel extends JPanel {
         topPanel.add(refreshButton);
         
         // Center panel with table
-        JScrollPane scrollPane = new JScrollPane(bookingsTable);
+        scrollPane = new JScrollPane(bookingsTable);
         scrollPane.setPreferredSize(new Dimension(800, 400));
         
         // Bottom panel with action buttons
@@ -116,10 +135,20 @@ public class BookingManagementPanel extends JPanel {
         buttonPanel.add(todayCheckInsButton);
         buttonPanel.add(todayCheckOutsButton);
         
+        // Status bar with background activity and UI responsiveness
+        JPanel statusBar = new JPanel(new BorderLayout(10, 0));
+        latencyLabel.setForeground(Color.GRAY);
+        statusBar.add(latencyLabel, BorderLayout.WEST);
+        statusBar.add(taskRunner.getProgressBar(), BorderLayout.EAST);
+        
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(statusBar, BorderLayout.SOUTH);
+        
         // Add panels to main panel
         add(topPanel, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
-        add(buttonPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
         
         // Set border and title
         setBorder(BorderFactory.createTitledBorder("Booking Management"));
@@ -129,6 +158,13 @@ public class BookingManagementPanel extends JPanel {
         // Refresh button
         refreshButton.addActionListener(e -> loadBookings());
         
+        // Load further pages as the table is scrolled
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                loadNextPageIfNeeded();
+            }
+        });
+        
         // Status filter
         statusFilter.addActionListener(e -> filterBookings());
         
@@ -169,60 +205,148 @@ public class BookingManagementPanel extends JPanel {
         todayCheckOutsButton.addActionListener(e -> showTodayCheckOuts());
     }
     
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (bookingManager != null) {
+            bookingManager.addBookingStatusListener(statusListener);
+        }
+        Window window = SwingUtilities.getWindowAncestor(this);
+        if (window != ownerWindow) {
+            if (ownerWindow != null) {
+                ownerWindow.removeWindowListener(ownerClosedListener);
+            }
+            ownerWindow = window;
+            if (window != null) {
+                window.addWindowListener(ownerClosedListener);
+            }
+        }
+        latencyMonitor.start();
+        latencyLabelTimer.start();
+    }
+    
+    @Override
+    public void removeNotify() {
+        latencyLabelTimer.stop();
+        latencyMonitor.stop();
+        taskRunner.cancelAll();
+        if (bookingManager != null) {
+            bookingManager.removeBookingStatusListener(statusListener);
+        }
+        super.removeNotify();
+    }
+    
+    /**
+     * Stop the panel's background threads for good
+     * Called when the owning window is disposed; the panel cannot load data afterwards.
+     */
+    private void shutdown() {
+        ownerWindow.removeWindowListener(ownerClosedListener);
+        ownerWindow = null;
+        latencyMonitor.shutdown();
+        taskRunner.shutdown();
+    }
+    
+    /**
+     * Get the EDT latency monitor of this panel
+     */
+    public EdtLatencyMonitor getLatencyMonitor() {
+        return latencyMonitor;
+    }
+    
     private void loadBookings() {
-        try {
-            List<Booking> bookings = bookingManager.getAllBookings();
-            updateTable(bookings);
-        } catch (SQLException e) {
-            showErrorMessage("Error loading bookings: " + e.getMessage());
+        showFirstPage(null);
+    }
+    
+    /**
+     * Reset the table to the first page of bookings with the given status (null for all)
+     */
+    private void showFirstPage(String status) {
+        pageStatus = status;
+        nextPageCursor = null;
+        tableModel.clear();
+        loadPage(null);
+    }
+    
+    private void loadPage(BookingPage.Cursor after) {
+        pageLoading = true;
+        String status = pageStatus;
+        PanelRefreshEvent event = beginRefresh(after == null ? "firstPage" : "nextPage");
+        taskRunner.submit(TABLE_TASK,
+            () -> bookingManager.getBookingsPage(status, after, PAGE_SIZE),
+            page -> {
+                pageLoading = false;
+                tableModel.appendBookings(page.getBookings());
+                nextPageCursor = page.getNextCursor();
+                event.end(page.getBookings().size(), "OK");
+                // Keep loading while the rows don't fill the viewport yet
+                SwingUtilities.invokeLater(this::loadNextPageIfNeeded);
+            },
+            e -> {
+                pageLoading = false;
+                nextPageCursor = null;
+                event.end(0, "FAILED");
+                showErrorMessage("Error loading bookings: " + e.getMessage());
+            });
+    }
+    
+    /**
+     * Fetch the next page once the last visible row is within PREFETCH_ROWS of the end
+     */
+    private void loadNextPageIfNeeded() {
+        // Until the table is on screen the viewport has no height to fill
+        if (nextPageCursor == null || pageLoading || !scrollPane.isShowing()) {
+            return;
+        }
+        JScrollBar scrollBar = scrollPane.getVerticalScrollBar();
+        int remaining = scrollBar.getMaximum() - (scrollBar.getValue() + scrollBar.getVisibleAmount());
+        if (remaining <= bookingsTable.getRowHeight() * PREFETCH_ROWS) {
+            loadPage(nextPageCursor);
         }
     }
     
+    /**
+     * Show a complete, unpaged list of bookings
+     */
     private void updateTable(List<Booking> bookings) {
-        tableModel.setRowCount(0); // Clear existing data
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        
-        for (Booking booking : bookings) {
-            Object[] row = {
-                booking.getBookingId(),
-                booking.getCustomerName(),
-                booking.getRoomId(),
-                booking.getCheckInDate() != null ? booking.getCheckInDate().format(formatter) : "",
-                booking.getCheckOutDate() != null ? booking.getCheckOutDate().format(formatter) : "",
-                booking.getStatus(),
-                String.format("₹%.2f", booking.getTotalAmount()),
-                booking.getCustomerPhone(),
-                booking.getCustomerEmail()
-            };
-            tableModel.addRow(row);
-        }
+        nextPageCursor = null;
+        pageLoading = false;
+        tableModel.setBookings(bookings);
+    }
+    
+    /**
+     * Resume paging after a table task that left the rows as they were
+     * Every table task supersedes an in-flight page load, whose callback would
+     * otherwise have cleared pageLoading; the cursor still follows the last page shown.
+     */
+    private void keepCurrentTable() {
+        pageLoading = false;
+        SwingUtilities.invokeLater(this::loadNextPageIfNeeded);
     }
     
     private void filterBookings() {
-        try {
-            String selectedStatus = (String) statusFilter.getSelectedItem();
-            String searchText = searchField.getText().trim().toLowerCase();
-            
-            List<Booking> bookings;
-            if ("All".equals(selectedStatus)) {
-                bookings = bookingManager.getAllBookings();
-            } else {
-                bookings = bookingManager.getBookingsByStatus(selectedStatus);
-            }
-            
-            // Apply search filter
-            if (!searchText.isEmpty()) {
-                bookings.removeIf(booking -> 
-                    !booking.getCustomerName().toLowerCase().contains(searchText) &&
-                    !String.valueOf(booking.getBookingId()).contains(searchText)
-                );
-            }
-            
-            updateTable(bookings);
-        } catch (SQLException e) {
-            showErrorMessage("Error filtering bookings: " + e.getMessage());
+        String selectedStatus = (String) statusFilter.getSelectedItem();
+        String searchText = searchField.getText().trim().toLowerCase();
+        String status = "All".equals(selectedStatus) ? null : selectedStatus;
+        
+        if (searchText.isEmpty()) {
+            showFirstPage(status);
+            return;
         }
+        
+        // Indexed lookup by name, email, phone or booking ID fragment
+        PanelRefreshEvent event = beginRefresh("search");
+        taskRunner.submit(TABLE_TASK,
+            () -> bookingManager.searchBookings(searchText, status, SEARCH_LIMIT),
+            bookings -> {
+                updateTable(bookings);
+                event.end(bookings.size(), "OK");
+            },
+            e -> {
+                keepCurrentTable();
+                event.end(0, "FAILED");
+                showErrorMessage("Error filtering bookings: " + e.getMessage());
+            });
     }
     
     private void performCheckIn() {
@@ -232,25 +356,24 @@ public class BookingManagementPanel extends JPanel {
             return;
         }
         
-        int bookingId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        String status = (String) tableModel.getValueAt(selectedRow, 5);
+        int bookingId = tableModel.getBookingId(selectedRow);
+        String status = tableModel.getStatus(selectedRow);
         
         if (!"CONFIRMED".equals(status)) {
             showWarningMessage("Only confirmed bookings can be checked in.");
             return;
         }
         
-        try {
-            boolean success = bookingManager.checkInBooking(bookingId);
-            if (success) {
-                showSuccessMessage("Booking checked in successfully!");
-                loadBookings();
-            } else {
-                showErrorMessage("Failed to check in booking. Please try again.");
-            }
-        } catch (SQLException e) {
-            showErrorMessage("Error checking in booking: " + e.getMessage());
-        }
+        taskRunner.submit(null,
+            () -> bookingManager.checkInBooking(bookingId),
+            success -> {
+                if (success) {
+                    showSuccessMessage("Booking checked in successfully!");
+                } else {
+                    showErrorMessage("Failed to check in booking. Please try again.");
+                }
+            },
+            e -> showErrorMessage("Error checking in booking: " + e.getMessage()));
     }
     
     private void performCheckOut() {
@@ -260,25 +383,24 @@ public class BookingManagementPanel extends JPanel {
             return;
         }
         
-        int bookingId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        String status = (String) tableModel.getValueAt(selectedRow, 5);
+        int bookingId = tableModel.getBookingId(selectedRow);
+        String status = tableModel.getStatus(selectedRow);
         
         if (!"CHECKED_IN".equals(status)) {
             showWarningMessage("Only checked-in bookings can be checked out.");
             return;
         }
         
-        try {
-            boolean success = bookingManager.checkOutBooking(bookingId);
-            if (success) {
-                showSuccessMessage("Booking checked out successfully!");
-                loadBookings();
-            } else {
-                showErrorMessage("Failed to check out booking. Please try again.");
-            }
-        } catch (SQLException e) {
-            showErrorMessage("Error checking out booking: " + e.getMessage());
-        }
+        taskRunner.submit(null,
+            () -> bookingManager.checkOutBooking(bookingId),
+            success -> {
+                if (success) {
+                    showSuccessMessage("Booking checked out successfully!");
+                } else {
+                    showErrorMessage("Failed to check out booking. Please try again.");
+                }
+            },
+            e -> showErrorMessage("Error checking out booking: " + e.getMessage()));
     }
     
     private void cancelBooking() {
@@ -288,9 +410,9 @@ public class BookingManagementPanel extends JPanel {
             return;
         }
         
-        int bookingId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        String customerName = (String) tableModel.getValueAt(selectedRow, 1);
-        String status = (String) tableModel.getValueAt(selectedRow, 5);
+        int bookingId = tableModel.getBookingId(selectedRow);
+        String customerName = tableModel.getCustomerName(selectedRow);
+        String status = tableModel.getStatus(selectedRow);
         
         if ("CANCELLED".equals(status) || "CHECKED_OUT".equals(status)) {
             showWarningMessage("This booking cannot be cancelled.");
@@ -305,57 +427,87 @@ public class BookingManagementPanel extends JPanel {
         );
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                boolean success = bookingManager.cancelBooking(bookingId);
-                if (success) {
-                    showSuccessMessage("Booking cancelled successfully!");
-                    loadBookings();
-                } else {
-                    showErrorMessage("Failed to cancel booking. Please try again.");
-                }
-            } catch (SQLException e) {
-                showErrorMessage("Error cancelling booking: " + e.getMessage());
-            }
+            taskRunner.submit(null,
+                () -> bookingManager.cancelBooking(bookingId),
+                success -> {
+                    if (success) {
+                        showSuccessMessage("Booking cancelled successfully!");
+                    } else {
+                        showErrorMessage("Failed to cancel booking. Please try again.");
+                    }
+                },
+                e -> showErrorMessage("Error cancelling booking: " + e.getMessage()));
         }
     }
     
     private void showAvailabilityGrid() {
-        try {
-            Map<LocalDate, Set<Integer>> availability = bookingManager.getAvailabilityGrid();
-            AvailabilityGridDialog dialog = new AvailabilityGridDialog(
-                (JFrame) SwingUtilities.getWindowAncestor(this), availability);
-            dialog.setVisible(true);
-        } catch (SQLException e) {
-            showErrorMessage("Error loading availability grid: " + e.getMessage());
-        }
+        PanelRefreshEvent event = beginRefresh("availabilityGrid");
+        taskRunner.submit(GRID_TASK,
+            () -> bookingManager.getAvailabilityGrid(),
+            availability -> {
+                AvailabilityGridDialog dialog = new AvailabilityGridDialog(
+                    (JFrame) SwingUtilities.getWindowAncestor(this), availability);
+                // Before the modal dialog opens, so the time the user spends in it is not counted
+                event.end(availability.size(), "OK");
+                dialog.setVisible(true);
+            },
+            e -> {
+                event.end(0, "FAILED");
+                showErrorMessage("Error loading availability grid: " + e.getMessage());
+            });
     }
     
     private void showTodayCheckIns() {
-        try {
-            List<Booking> todayCheckIns = bookingManager.getTodayCheckIns();
-            if (todayCheckIns.isEmpty()) {
-                showInfoMessage("No check-ins scheduled for today.");
-            } else {
-                updateTable(todayCheckIns);
-                showInfoMessage("Showing " + todayCheckIns.size() + " check-ins for today.");
-            }
-        } catch (SQLException e) {
-            showErrorMessage("Error loading today's check-ins: " + e.getMessage());
-        }
+        PanelRefreshEvent event = beginRefresh("todayCheckIns");
+        taskRunner.submit(TABLE_TASK,
+            () -> bookingManager.getTodayCheckIns(),
+            todayCheckIns -> {
+                if (todayCheckIns.isEmpty()) {
+                    keepCurrentTable();
+                    event.end(0, "OK");
+                    showInfoMessage("No check-ins scheduled for today.");
+                } else {
+                    updateTable(todayCheckIns);
+                    event.end(todayCheckIns.size(), "OK");
+                    showInfoMessage("Showing " + todayCheckIns.size() + " check-ins for today.");
+                }
+            },
+            e -> {
+                keepCurrentTable();
+                event.end(0, "FAILED");
+                showErrorMessage("Error loading today's check-ins: " + e.getMessage());
+            });
     }
     
     private void showTodayCheckOuts() {
-        try {
-            List<Booking> todayCheckOuts = bookingManager.getTodayCheckOuts();
-            if (todayCheckOuts.isEmpty()) {
-                showInfoMessage("No check-outs scheduled for today.");
-            } else {
-                updateTable(todayCheckOuts);
-                showInfoMessage("Showing " + todayCheckOuts.size() + " check-outs for today.");
-            }
-        } catch (SQLException e) {
-            showErrorMessage("Error loading today's check-outs: " + e.getMessage());
-        }
+        PanelRefreshEvent event = beginRefresh("todayCheckOuts");
+        taskRunner.submit(TABLE_TASK,
+            () -> bookingManager.getTodayCheckOuts(),
+            todayCheckOuts -> {
+                if (todayCheckOuts.isEmpty()) {
+                    keepCurrentTable();
+                    event.end(0, "OK");
+                    showInfoMessage("No check-outs scheduled for today.");
+                } else {
+                    updateTable(todayCheckOuts);
+                    event.end(todayCheckOuts.size(), "OK");
+                    showInfoMessage("Showing " + todayCheckOuts.size() + " check-outs for today.");
+                }
+            },
+            e -> {
+                keepCurrentTable();
+                event.end(0, "FAILED");
+                showErrorMessage("Error loading today's check-outs: " + e.getMessage());
+            });
+    }
+    
+    /**
+     * Start timing a reload for Flight Recorder; the caller ends it once the rows are shown
+     */
+    private static PanelRefreshEvent beginRefresh(String action) {
+        PanelRefreshEvent event = new PanelRefreshEvent("BookingManagementPanel", action);
+        event.begin();
+        return event;
     }
     
     // Utility methods for showing messages
@@ -0,0 +1,329 @@
+package com.hotel.ui;
+
+import com.hotel.models.Booking;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * BookingTableModel - compact table model for the admin bookings table
+ * Rows are stored column by column in primitive arrays instead of one
+ * Object[] of pre-formatted Strings per booking. Cells are formatted only
+ * when JTable asks for them, which is for the visible rows alone, and adding
+ * a page of rows fires one event instead of one per row. A status change
+ * patches its row in place through a booking ID to row index.
+ */
+public class BookingTableModel extends AbstractTableModel {
+    
+    public static final int COLUMN_BOOKING_ID = 0;
+    public static final int COLUMN_CUSTOMER_NAME = 1;
+    public static final int COLUMN_ROOM_ID = 2;
+    public static final int COLUMN_CHECK_IN = 3;
+    public static final int COLUMN_CHECK_OUT = 4;
+    public static final int COLUMN_STATUS = 5;
+    public static final int COLUMN_TOTAL_AMOUNT = 6;
+    public static final int COLUMN_PHONE = 7;
+    public static final int COLUMN_EMAIL = 8;
+    
+    private static final String[] COLUMN_NAMES = {
+        "Booking ID", "Customer Name", "Room ID", "Check-In",
+        "Check-Out", "Status", "Total Amount", "Phone", "Email"
+    };
+    private static final long NO_DATE = Long.MIN_VALUE;
+    
+    private int rowCount;
+    private int[] bookingIds = new int[0];
+    private int[] roomIds = new int[0];
+    private long[] checkInDays = new long[0]; // epoch days, NO_DATE if unknown
+    private long[] checkOutDays = new long[0];
+    private double[] totalAmounts = new double[0];
+    private String[] customerNames = new String[0];
+    private String[] statuses = new String[0];
+    private String[] phones = new String[0];
+    private String[] emails = new String[0];
+    private final RowIndex rowIndex = new RowIndex();
+    
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+    
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // Make table read-only
+    }
+    
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case COLUMN_BOOKING_ID:
+                return bookingIds[row];
+            case COLUMN_CUSTOMER_NAME:
+                return customerNames[row];
+            case COLUMN_ROOM_ID:
+                return roomIds[row];
+            case COLUMN_CHECK_IN:
+                return formatDate(checkInDays[row]);
+            case COLUMN_CHECK_OUT:
+                return formatDate(checkOutDays[row]);
+            case COLUMN_STATUS:
+                return statuses[row];
+            case COLUMN_TOTAL_AMOUNT:
+                return formatAmount(totalAmounts[row]);
+            case COLUMN_PHONE:
+                return phones[row];
+            case COLUMN_EMAIL:
+                return emails[row];
+            default:
+                throw new IndexOutOfBoundsException("No column " + column);
+        }
+    }
+    
+    public int getBookingId(int row) {
+        return bookingIds[row];
+    }
+    
+    public String getCustomerName(int row) {
+        return customerNames[row];
+    }
+    
+    public String getStatus(int row) {
+        return statuses[row];
+    }
+    
+    /**
+     * Row currently showing the given booking
+     * @return the row, or -1 if the booking is not in the table
+     */
+    public int findRow(int bookingId) {
+        return rowIndex.get(bookingId);
+    }
+    
+    /**
+     * Change the status of one booking and repaint only its cell
+     * @return false if the booking is not in the table
+     */
+    public boolean updateStatus(int bookingId, String status) {
+        int row = rowIndex.get(bookingId);
+        if (row < 0) {
+            return false;
+        }
+        statuses[row] = canonicalStatus(status);
+        fireTableCellUpdated(row, COLUMN_STATUS);
+        return true;
+    }
+    
+    /**
+     * Replace all rows
+     */
+    public void setBookings(List<Booking> bookings) {
+        int oldCount = rowCount;
+        rowCount = 0;
+        rowIndex.clear();
+        ensureCapacity(bookings.size());
+        for (Booking booking : bookings) {
+            store(rowCount++, booking);
+        }
+        releaseRows(rowCount, oldCount);
+        fireTableDataChanged();
+    }
+    
+    /**
+     * Append rows with a single insert event
+     */
+    public void appendBookings(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        int firstRow = rowCount;
+        ensureCapacity(rowCount + bookings.size());
+        for (Booking booking : bookings) {
+            store(rowCount++, booking);
+        }
+        fireTableRowsInserted(firstRow, rowCount - 1);
+    }
+    
+    public void clear() {
+        int oldCount = rowCount;
+        rowCount = 0;
+        rowIndex.clear();
+        releaseRows(0, oldCount);
+        if (oldCount > 0) {
+            fireTableRowsDeleted(0, oldCount - 1);
+        }
+    }
+    
+    private void store(int row, Booking booking) {
+        bookingIds[row] = booking.getBookingId();
+        roomIds[row] = booking.getRoomId();
+        checkInDays[row] = booking.getCheckInDate() != null ? booking.getCheckInDate().toEpochDay() : NO_DATE;
+        checkOutDays[row] = booking.getCheckOutDate() != null ? booking.getCheckOutDate().toEpochDay() : NO_DATE;
+        totalAmounts[row] = booking.getTotalAmount();
+        customerNames[row] = booking.getCustomerName();
+        statuses[row] = canonicalStatus(booking.getStatus());
+        phones[row] = booking.getCustomerPhone();
+        emails[row] = booking.getCustomerEmail();
+        rowIndex.put(booking.getBookingId(), row);
+    }
+    
+    /**
+     * Drop the String references of rows no longer in use
+     */
+    private void releaseRows(int fromRow, int toRow) {
+        if (fromRow < toRow) {
+            Arrays.fill(customerNames, fromRow, toRow, null);
+            Arrays.fill(statuses, fromRow, toRow, null);
+            Arrays.fill(phones, fromRow, toRow, null);
+            Arrays.fill(emails, fromRow, toRow, null);
+        }
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity <= bookingIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, bookingIds.length + (bookingIds.length >> 1));
+        bookingIds = Arrays.copyOf(bookingIds, newCapacity);
+        roomIds = Arrays.copyOf(roomIds, newCapacity);
+        checkInDays = Arrays.copyOf(checkInDays, newCapacity);
+        checkOutDays = Arrays.copyOf(checkOutDays, newCapacity);
+        totalAmounts = Arrays.copyOf(totalAmounts, newCapacity);
+        customerNames = Arrays.copyOf(customerNames, newCapacity);
+        statuses = Arrays.copyOf(statuses, newCapacity);
+        phones = Arrays.copyOf(phones, newCapacity);
+        emails = Arrays.copyOf(emails, newCapacity);
+    }
+    
+    /**
+     * Booking ID to row map with open addressing over two int arrays,
+     * so a million rows don't cost a million boxed entries
+     */
+    private static final class RowIndex {
+        private static final int NO_ROW = -1;
+        
+        private int[] keys = new int[16];
+        private int[] rows = newRows(16);
+        private int size;
+        
+        int get(int bookingId) {
+            int mask = keys.length - 1;
+            for (int slot = hash(bookingId) & mask; rows[slot] != NO_ROW; slot = (slot + 1) & mask) {
+                if (keys[slot] == bookingId) {
+                    return rows[slot];
+                }
+            }
+            return NO_ROW;
+        }
+        
+        void put(int bookingId, int row) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            if (insert(keys, rows, bookingId, row)) {
+                size++;
+            }
+        }
+        
+        void clear() {
+            if (size > 0) {
+                Arrays.fill(rows, NO_ROW);
+                size = 0;
+            }
+        }
+        
+        private void resize(int capacity) {
+            int[] newKeys = new int[capacity];
+            int[] newRows = newRows(capacity);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (rows[slot] != NO_ROW) {
+                    insert(newKeys, newRows, keys[slot], rows[slot]);
+                }
+            }
+            keys = newKeys;
+            rows = newRows;
+        }
+        
+        /**
+         * @return true if the key was new
+         */
+        private static boolean insert(int[] keys, int[] rows, int bookingId, int row) {
+            int mask = keys.length - 1;
+            int slot = hash(bookingId) & mask;
+            while (rows[slot] != NO_ROW) {
+                if (keys[slot] == bookingId) {
+                    rows[slot] = row;
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = bookingId;
+            rows[slot] = row;
+            return true;
+        }
+        
+        private static int[] newRows(int capacity) {
+            int[] rows = new int[capacity];
+            Arrays.fill(rows, NO_ROW);
+            return rows;
+        }
+        
+        private static int hash(int bookingId) {
+            int h = bookingId * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+    
+    private static String formatDate(long epochDay) {
+        // ISO-8601 is the yyyy-MM-dd format the table has always shown
+        return epochDay == NO_DATE ? "" : LocalDate.ofEpochDay(epochDay).toString();
+    }
+    
+    /**
+     * Format as ₹1234.50, like String.format("₹%.2f") without building a Formatter per cell
+     */
+    private static String formatAmount(double amount) {
+        long cents = Math.round(Math.abs(amount) * 100);
+        StringBuilder text = new StringBuilder(16).append('₹');
+        if (amount < 0 && cents != 0) {
+            text.append('-');
+        }
+        text.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+    
+    /**
+     * Share one String instance per known status instead of one per row
+     */
+    private static String canonicalStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        switch (status) {
+            case "CONFIRMED":
+                return "CONFIRMED";
+            case "CHECKED_IN":
+                return "CHECKED_IN";
+            case "CHECKED_OUT":
+                return "CHECKED_OUT";
+            case "CANCELLED":
+                return "CANCELLED";
+            default:
+                return status;
+        }
+    }
+}
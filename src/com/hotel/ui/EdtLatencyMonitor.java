@@ -0,0 +1,135 @@
+package com.hotel.ui;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+
+/**
+ * EdtLatencyMonitor - measures how long the Event Dispatch Thread takes to respond
+ * A background thread posts a probe to the EDT at a fixed interval and records
+ * the delay until it runs. A delay longer than one frame (16 ms at 60 Hz) means
+ * the UI visibly stalled. Percentiles cover the most recent SAMPLE_WINDOW probes.
+ *
+ * The statistics are updated on the EDT and must be read there.
+ */
+public class EdtLatencyMonitor {
+    
+    public static final long FRAME_MILLIS = 16;
+    private static final long PROBE_INTERVAL_MILLIS = 50;
+    private static final long STALL_LOG_MILLIS = 100;
+    private static final int SAMPLE_WINDOW = 1024;
+    
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean probePending = new AtomicBoolean();
+    private ScheduledFuture<?> probeTask;
+    
+    private final long[] samples = new long[SAMPLE_WINDOW]; // nanoseconds, ring buffer
+    private long probeCount;
+    private long stallCount;
+    private long maxNanos;
+    
+    public EdtLatencyMonitor() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edt-latency-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public synchronized void start() {
+        if (probeTask == null && !scheduler.isShutdown()) {
+            probeTask = scheduler.scheduleAtFixedRate(this::postProbe,
+                PROBE_INTERVAL_MILLIS, PROBE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    public synchronized void stop() {
+        if (probeTask != null) {
+            probeTask.cancel(false);
+            probeTask = null;
+        }
+    }
+    
+    /**
+     * Stop probing for good and end the scheduler thread; start() does nothing afterwards
+     */
+    public synchronized void shutdown() {
+        stop();
+        scheduler.shutdownNow();
+    }
+    
+    /**
+     * Post one probe unless the previous one is still waiting, so a stalled
+     * EDT is measured by the waiting probe instead of a growing queue
+     */
+    private void postProbe() {
+        if (!probePending.compareAndSet(false, true)) {
+            return;
+        }
+        long postedAt = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            probePending.set(false);
+            record(System.nanoTime() - postedAt);
+        });
+    }
+    
+    private void record(long latencyNanos) {
+        samples[(int) (probeCount % SAMPLE_WINDOW)] = latencyNanos;
+        probeCount++;
+        maxNanos = Math.max(maxNanos, latencyNanos);
+        
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        if (latencyMillis > FRAME_MILLIS) {
+            stallCount++;
+            if (latencyMillis >= STALL_LOG_MILLIS) {
+                System.err.println("Event Dispatch Thread stalled for " + latencyMillis + " ms");
+            }
+        }
+    }
+    
+    /**
+     * Latency percentile over the recent window
+     * @param percentile between 0 and 100
+     */
+    public double getPercentileMillis(double percentile) {
+        int count = (int) Math.min(probeCount, SAMPLE_WINDOW);
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+    }
+    
+    public double getMaxMillis() {
+        return maxNanos / 1_000_000.0;
+    }
+    
+    /**
+     * Number of probes that waited longer than one frame
+     */
+    public long getStallCount() {
+        return stallCount;
+    }
+    
+    public long getProbeCount() {
+        return probeCount;
+    }
+    
+    public void reset() {
+        probeCount = 0;
+        stallCount = 0;
+        maxNanos = 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("UI latency p99 %.1f ms, max %.1f ms, %d stalls > %d ms",
+            getPercentileMillis(99), getMaxMillis(), stallCount, FRAME_MILLIS);
+    }
+}
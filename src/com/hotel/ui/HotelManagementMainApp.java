@@ -241,17 +241,12 @@ public class HotelManagementMainApp extends JFrame {
         label.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         panel.add(label, BorderLayout.NORTH);
         
-        // Add reports functionality here
-        JTextArea textArea = new JTextArea("Reports functionality will be implemented here.\n\n" +
-                "Available Reports:\n" +
-                "- Occupancy Reports\n" +
-                "- Revenue Reports\n" +
-                "- Customer Analytics\n" +
-                "- Room Utilization\n" +
-                "- Booking Trends");
-        textArea.setEditable(false);
-        textArea.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-        panel.add(new JScrollPane(textArea), BorderLayout.CENTER);
+        // Booking export for the accountants; kept at its preferred height
+        JPanel content = new JPanel(new BorderLayout());
+        content.setBackground(Color.WHITE);
+        content.setBorder(BorderFactory.createEmptyBorder(0, 20, 20, 20));
+        content.add(new BookingExportPanel(), BorderLayout.NORTH);
+        panel.add(content, BorderLayout.CENTER);
         
         return panel;
     }
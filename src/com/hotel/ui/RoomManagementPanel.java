@@ -5,6 +5,8 @@ import com.hotel.models.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.*;
+import java.util.List;
+import javax.swing.Timer;
 import javax.swing.*;
 import javax.swing.border.*;
 import javax.swing.table.*;
@@ -14,13 +16,25 @@ public class RoomManagementPanel extends JFrame
     private JTextField txtRoomNo, txtPrice, txtFloor, txtSearch;
     private JComboBox<RoomType> cmbType;
     private JComboBox<String> cmbStatus;
-    private JCheckBox cbAC, cbWiFi, cbTV;
+    private JCheckBox cbAC, cbWiFi, cbTV, cbMiniBar, cbJacuzzi;
     private JTable table;
     private DefaultTableModel model;
     private RoomDAO dao;
+    private TableRowSorter<DefaultTableModel> sorter;   //one sorter,its filter is swapped per search
+    private RoomSearchIndex searchIndex;
+    private Timer searchTimer;
+    private JLabel lblMatches;
+    private static final int SEARCH_DELAY_MILLIS = 200;   //wait for a pause in typing
+    //one DAO for every panel:the main window builds a new panel on each login,
+    //and each JdbcRoomDAO holds a flusher thread and a copy of the rooms table
+    private static RoomDAO sharedDao;
+    private static final Set<RoomManagementPanel> openPanels =
+        Collections.newSetFromMap(new WeakHashMap<RoomManagementPanel, Boolean>());
     public RoomManagementPanel() 
     {
-        dao = new RoomDAO();
+        dao = sharedRoomDAO();
+        openPanels.add(this);
+        searchIndex = new RoomSearchIndex();
         setTitle("🏨 Hotel Room Management Dashboard");
         setSize(1000, 650);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -54,14 +68,20 @@ public class RoomManagementPanel extends JFrame
         cbAC = new JCheckBox("AC");
         cbWiFi = new JCheckBox("WiFi");
         cbTV = new JCheckBox("TV");
+        cbMiniBar = new JCheckBox("Mini Bar");
+        cbJacuzzi = new JCheckBox("Jacuzzi");
         cbAC.setBackground(Color.WHITE);
         cbWiFi.setBackground(Color.WHITE);
         cbTV.setBackground(Color.WHITE);
+        cbMiniBar.setBackground(Color.WHITE);
+        cbJacuzzi.setBackground(Color.WHITE);
         JPanel amPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         amPanel.setBackground(Color.WHITE);
         amPanel.add(cbAC);  //checkboxes
         amPanel.add(cbWiFi);
         amPanel.add(cbTV);
+        amPanel.add(cbMiniBar);
+        amPanel.add(cbJacuzzi);
         
         //Form Fields
         int row = 0;
@@ -99,6 +119,8 @@ public class RoomManagementPanel extends JFrame
             }
         };
         table = new JTable(model);
+        sorter = new TableRowSorter<DefaultTableModel>(model);
+        table.setRowSorter(sorter);
         table.setRowHeight(30);
         table.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 12));
         table.setFont(new Font("Segoe UI", Font.PLAIN, 12));
@@ -113,9 +135,11 @@ public class RoomManagementPanel extends JFrame
         searchPanel.setBackground(Color.WHITE);
         searchPanel.setBorder(new EmptyBorder(15, 15, 0, 15));
         txtSearch = new JTextField(20);
-        txtSearch.setToolTipText("Search by room number, type, or status");
+        txtSearch.setToolTipText("Search by room number, type, status or amenity");
+        lblMatches = new JLabel();
         searchPanel.add(new JLabel("Search:"));
         searchPanel.add(txtSearch);
+        searchPanel.add(lblMatches);
 
         JPanel rightPanel = new JPanel(new BorderLayout());
         rightPanel.setBackground(Color.WHITE);
@@ -156,19 +180,27 @@ public class RoomManagementPanel extends JFrame
                 clearForm();
             }
         });
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, new ActionListener() 
+        {
+            public void actionPerformed(ActionEvent e) 
+            {
+                filterTable(txtSearch.getText());
+            }
+        });
+        searchTimer.setRepeats(false);
         txtSearch.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() 
         {
             public void changedUpdate(javax.swing.event.DocumentEvent e) 
             { 
-                filterTable(txtSearch.getText()); 
+                searchTimer.restart(); 
             }
             public void removeUpdate(javax.swing.event.DocumentEvent e) 
             { 
-                filterTable(txtSearch.getText()); 
+                searchTimer.restart(); 
             }
             public void insertUpdate(javax.swing.event.DocumentEvent e) 
             { 
-                filterTable(txtSearch.getText()); 
+                searchTimer.restart(); 
             }
         });
         table.addMouseListener(new MouseAdapter() 
@@ -176,15 +208,25 @@ public class RoomManagementPanel extends JFrame
             public void mouseClicked(MouseEvent e) 
             {
                 int row = table.getSelectedRow();
-                txtRoomNo.setText(model.getValueAt(row, 0).toString());
-                cmbType.setSelectedItem(RoomType.valueOf(model.getValueAt(row, 1).toString()));
-                txtPrice.setText(model.getValueAt(row, 2).toString());
-                cmbStatus.setSelectedItem(model.getValueAt(row, 3).toString());
-                txtFloor.setText(model.getValueAt(row, 4).toString());
-                String amenities = model.getValueAt(row, 5).toString();
-                cbAC.setSelected(amenities.contains("AC"));
-                cbWiFi.setSelected(amenities.contains("WIFI"));
-                cbTV.setSelected(amenities.contains("TV"));
+                if (row == -1) 
+                {
+                    return;
+                }
+                Room r = dao.getRoom((Integer) model.getValueAt(table.convertRowIndexToModel(row), 0));
+                if (r == null) 
+                {
+                    return;
+                }
+                txtRoomNo.setText(String.valueOf(r.getRoomNo()));
+                cmbType.setSelectedItem(r.getRoomType());
+                txtPrice.setText(String.valueOf(r.getPrice()));
+                cmbStatus.setSelectedItem(r.getStatus());
+                txtFloor.setText(String.valueOf(r.getFloor()));
+                cbAC.setSelected(r.hasAmenity(Amenity.AC));
+                cbWiFi.setSelected(r.hasAmenity(Amenity.WIFI));
+                cbTV.setSelected(r.hasAmenity(Amenity.TV));
+                cbMiniBar.setSelected(r.hasAmenity(Amenity.MINI_BAR));
+                cbJacuzzi.setSelected(r.hasAmenity(Amenity.JACUZZI));
             }
         });
         cmbType.addActionListener(new ActionListener() 
@@ -198,9 +240,69 @@ public class RoomManagementPanel extends JFrame
                 }
             }
         });
+        searchIndex.rebuild(dao.getAllRooms());
+        refreshTable();     //show the rooms loaded from the database
         setLocationRelativeTo(null);
         setVisible(true);
     }
+    private static RoomDAO sharedRoomDAO() 
+    {
+        if (sharedDao == null) 
+        {
+            sharedDao = createRoomDAO();
+        }
+        return sharedDao;
+    }
+    //rooms are kept in the database when it can be reached,otherwise only in memory
+    private static RoomDAO createRoomDAO() 
+    {
+        try 
+        {
+            final JdbcRoomDAO jdbcDao = new JdbcRoomDAO(com.hotel.database.UnifiedDatabaseConnection.getDataSource());
+            jdbcDao.setWriteFailureListener(new JdbcRoomDAO.WriteFailureListener() 
+            {
+                public void roomWriteFailed(final int roomNo, final java.sql.SQLException e) 
+                {
+                    SwingUtilities.invokeLater(new Runnable() 
+                    {
+                        public void run() 
+                        {
+                            RoomManagementPanel.roomWriteFailed(jdbcDao, roomNo, e.getMessage());
+                        }
+                    });
+                }
+            });
+            return jdbcDao;
+        } 
+        catch (Exception e) 
+        {
+            System.err.println("Rooms database unavailable, changes will not be saved: " + e.getMessage());
+            return new RoomDAO();
+        }
+    }
+    //the database refused a saved change (e.g. deleting a room that still has bookings):
+    //put the room back as the database has it and tell the user
+    private static void roomWriteFailed(JdbcRoomDAO jdbcDao, int roomNo, String reason) 
+    {
+        String restored;
+        try 
+        {
+            jdbcDao.revert(roomNo);
+            restored = "It has been restored from the database.";
+        } 
+        catch (Exception e) 
+        {
+            System.err.println("Could not reload room " + roomNo + ": " + e.getMessage());
+            restored = "The list may not match the database until it is reopened.";
+        }
+        for (RoomManagementPanel panel : new ArrayList<RoomManagementPanel>(openPanels)) 
+        {
+            panel.searchIndex.rebuild(jdbcDao.getAllRooms());
+            panel.refreshTable();
+        }
+        JOptionPane.showMessageDialog(null, "The change to room " + roomNo + " could not be saved:\n"
+                + reason + "\n" + restored, "Room Not Saved", JOptionPane.ERROR_MESSAGE);
+    }
     //Add Field,styledButton(),addField(),refreshTable(),addRoom()
     // updateRoom(),deleteRoom(),clearForm(),filterTable(),styledButton() 
     private void addField(JPanel panel, GridBagConstraints c, int row, String label, JComponent field) 
@@ -227,19 +329,24 @@ public class RoomManagementPanel extends JFrame
     {
         model.setRowCount(0);
         List<Room> rooms = dao.getAllRooms();
+        //fill the rows directly and fire one event:addRow() would make the sorter
+        //re-sort and re-filter once per room
+        @SuppressWarnings("unchecked")  //the model declares its rows as a raw Vector<Vector>
+        Vector<Vector<Object>> data = (Vector<Vector<Object>>) (Vector<?>) model.getDataVector();
         for (int i = 0; i < rooms.size(); i++) 
         {
             Room r = rooms.get(i);
-            model.addRow(new Object[]
-            {
-                r.getRoomNo(),
-                r.getRoomType(),
-                r.getPrice(),
-                r.getStatus(),
-                r.getFloor(),
-                r.getAmenities()
-            });
+            Vector<Object> row = new Vector<Object>(6);
+            row.add(r.getRoomNo());
+            row.add(r.getRoomType());
+            row.add(r.getPrice());
+            row.add(r.getStatus());
+            row.add(r.getFloor());
+            row.add(r.getAmenities());
+            data.add(row);
         }
+        model.fireTableDataChanged();
+        filterTable(txtSearch.getText());   //re-apply the current search to the new rows
     }
     private void addRoom() 
     {
@@ -249,24 +356,11 @@ public class RoomManagementPanel extends JFrame
             double price = Double.parseDouble(txtPrice.getText());
             int floor = Integer.parseInt(txtFloor.getText());
 
-            List<Amenity> amenities = new ArrayList<Amenity>();
-            if (cbAC.isSelected()) 
-            {
-                amenities.add(Amenity.AC);
-            }
-            if (cbWiFi.isSelected()) 
-            {
-                amenities.add(Amenity.WIFI);
-            }
-            if (cbTV.isSelected()) 
-            {
-                amenities.add(Amenity.TV);
-            }
-
             Room r = new Room(roomNo, (RoomType) cmbType.getSelectedItem(),
-                    cmbStatus.getSelectedItem().toString(), floor, amenities, price);
+                    cmbStatus.getSelectedItem().toString(), floor, selectedAmenities(), price);
 
             dao.addRoom(r);
+            searchIndex.add(r);
             JOptionPane.showMessageDialog(this, "✅ Room Added Successfully!");
             refreshTable();
             clearForm();
@@ -288,25 +382,12 @@ public class RoomManagementPanel extends JFrame
             double price = Double.parseDouble(txtPrice.getText());
             int floor = Integer.parseInt(txtFloor.getText());
 
-            List<Amenity> amenities = new ArrayList<Amenity>();
-            if (cbAC.isSelected()) 
-            {
-                amenities.add(Amenity.AC);
-            }
-            if (cbWiFi.isSelected()) 
-            {
-                amenities.add(Amenity.WIFI);
-            }
-            if (cbTV.isSelected()) 
-            {
-                amenities.add(Amenity.TV);
-            }
-
             Room r = new Room(roomNo, (RoomType) cmbType.getSelectedItem(),
-                    cmbStatus.getSelectedItem().toString(), floor, amenities, price);
+                    cmbStatus.getSelectedItem().toString(), floor, selectedAmenities(), price);
 
             if (dao.updateRoom(r)) 
             {
+                searchIndex.add(r);     //re-index
                 JOptionPane.showMessageDialog(this, "Room Updated Successfully!");
                 refreshTable();
             } 
@@ -328,6 +409,7 @@ public class RoomManagementPanel extends JFrame
             int roomNo = Integer.parseInt(txtRoomNo.getText());
             if (dao.deleteRoom(roomNo)) 
             {
+                searchIndex.remove(roomNo);
                 JOptionPane.showMessageDialog(this, "Room Deleted!");
                 refreshTable();
                 clearForm();
@@ -342,6 +424,32 @@ public class RoomManagementPanel extends JFrame
             JOptionPane.showMessageDialog(this, "Select a valid room!");
         }
     }
+    //amenity checkboxes as a mask,see Amenity.mask()
+    private int selectedAmenities() 
+    {
+        int mask = 0;
+        if (cbAC.isSelected()) 
+        {
+            mask |= Amenity.AC.mask();
+        }
+        if (cbWiFi.isSelected()) 
+        {
+            mask |= Amenity.WIFI.mask();
+        }
+        if (cbTV.isSelected()) 
+        {
+            mask |= Amenity.TV.mask();
+        }
+        if (cbMiniBar.isSelected()) 
+        {
+            mask |= Amenity.MINI_BAR.mask();
+        }
+        if (cbJacuzzi.isSelected()) 
+        {
+            mask |= Amenity.JACUZZI.mask();
+        }
+        return mask;
+    }
     private void clearForm() 
     {
         txtRoomNo.setText("");
@@ -350,14 +458,31 @@ public class RoomManagementPanel extends JFrame
         cbAC.setSelected(false);
         cbWiFi.setSelected(false);
         cbTV.setSelected(false);
+        cbMiniBar.setSelected(false);
+        cbJacuzzi.setSelected(false);
         cmbType.setSelectedIndex(0);
         cmbStatus.setSelectedIndex(0);
     }
+    //show the rooms whose number,type,status or amenities start with every word typed
     private void filterTable(String keyword) 
     {
-        TableRowSorter<DefaultTableModel> sorter = new TableRowSorter<DefaultTableModel>(model);
-        table.setRowSorter(sorter);
-        sorter.setRowFilter(RowFilter.regexFilter("(?i)" + keyword)); 
+        searchTimer.stop();
+        if (keyword.trim().isEmpty()) 
+        {
+            sorter.setRowFilter(null);
+        } 
+        else 
+        {
+            final Set<Integer> matches = searchIndex.search(keyword);
+            sorter.setRowFilter(new RowFilter<DefaultTableModel, Integer>() 
+            {
+                public boolean include(Entry<? extends DefaultTableModel, ? extends Integer> entry) 
+                {
+                    return matches.contains(entry.getModel().getValueAt(entry.getIdentifier(), 0));
+                }
+            });
+        }
+        lblMatches.setText(table.getRowCount() + " of " + model.getRowCount() + " rooms");
     }
     //Main Method   
     public static void main(String[] args) 
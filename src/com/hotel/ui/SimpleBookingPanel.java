@@ -23,6 +23,8 @@ public class SimpleBookingPanel extends JPanel {
     
     private SimpleBookingManager bookingManager;
     
+    private static final int SEARCH_LIMIT = 200;
+    
     private String[] columnNames = {
         "Booking ID", "Customer Name", "Room ID", "Check-In", 
         "Check-Out", "Status", "Amount", "Phone"
@@ -30,7 +32,7 @@ public class SimpleBookingPanel extends JPanel {
     
     public SimpleBookingPanel() {
         try {
-            this.bookingManager = new SimpleBookingManager(com.hotel.database.UnifiedDatabaseConnection.getConnection());
+            this.bookingManager = new SimpleBookingManager(com.hotel.database.UnifiedDatabaseConnection.getDataSource());
         } catch (Exception e) {
             System.err.println("Error initializing booking manager: " + e.getMessage());
         }
@@ -182,7 +184,7 @@ public class SimpleBookingPanel extends JPanel {
                 "Booking checked in successfully!", 
                 "Success", 
                 JOptionPane.INFORMATION_MESSAGE);
-            loadBookings(); 
+            tableModel.setValueAt("CHECKED_IN", selectedRow, 5); // only this row changed
         } else {
             JOptionPane.showMessageDialog(this, 
                 "Failed to check in booking", 
@@ -212,7 +214,7 @@ public class SimpleBookingPanel extends JPanel {
         
         if (success) {
             JOptionPane.showMessageDialog(this, "Booking checked out successfully!");
-            loadBookings();
+            tableModel.setValueAt("CHECKED_OUT", selectedRow, 5);
         } else {
             JOptionPane.showMessageDialog(this, "Failed to check out booking");
         }
@@ -239,7 +241,7 @@ public class SimpleBookingPanel extends JPanel {
             
             if (success) {
                 JOptionPane.showMessageDialog(this, "Booking cancelled successfully!");
-                loadBookings();
+                tableModel.setValueAt("CANCELLED", selectedRow, 5);
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to cancel booking");
             }
@@ -250,13 +252,14 @@ public class SimpleBookingPanel extends JPanel {
         String searchText = searchField.getText().trim();
         
         if (searchText.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "Please enter a customer name to search");
+            JOptionPane.showMessageDialog(this, "Please enter the start of a customer name to search");
             return;
         }
         
         tableModel.setRowCount(0);
         
-        ArrayList<Booking> searchResults = bookingManager.searchBookingsByName(searchText);
+        // A prefix search is a range scan on the name index, so it stays fast on a large table
+        ArrayList<Booking> searchResults = bookingManager.searchBookingsByNamePrefix(searchText, SEARCH_LIMIT);
         
         for (Booking booking : searchResults) {
             Object[] row = {
@@ -272,7 +275,10 @@ public class SimpleBookingPanel extends JPanel {
             tableModel.addRow(row);
         }
         
+        String found = searchResults.size() < SEARCH_LIMIT
+            ? "Found " + searchResults.size() + " bookings"
+            : "Showing the first " + SEARCH_LIMIT + " bookings";
         JOptionPane.showMessageDialog(this, 
-            "Found " + searchResults.size() + " bookings for '" + searchText + "'");
+            found + " for names starting with '" + searchText + "'");
     }
 }
@@ -0,0 +1,153 @@
+package com.hotel.ui;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+/**
+ * SwingTaskRunner - runs a panel's database work off the Event Dispatch Thread
+ * Work runs on a small pool of background threads; its result or error is
+ * handed back on the EDT. A task submitted under a key supersedes the previous
+ * task with the same key: the old one is cancelled and its result discarded,
+ * so fast filter changes only ever show the latest answer. The progress bar
+ * is shown while any task is outstanding.
+ *
+ * All methods must be called on the EDT.
+ */
+public class SwingTaskRunner {
+    
+    /**
+     * Background work producing a result
+     */
+    public interface Work<T> {
+        T call() throws Exception;
+    }
+    
+    /**
+     * Receives a result on the EDT
+     */
+    public interface Callback<T> {
+        void accept(T value);
+    }
+    
+    private final ExecutorService executor;
+    private final Map<String, SwingWorker<?, ?>> latestByKey = new HashMap<>();
+    private final JProgressBar progressBar;
+    private int outstanding;
+    
+    public SwingTaskRunner(String name, int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(false);
+    }
+    
+    /**
+     * Progress bar that is visible while tasks are running
+     */
+    public JProgressBar getProgressBar() {
+        return progressBar;
+    }
+    
+    /**
+     * Run work in the background
+     * @param key tasks sharing a key supersede each other; null for a task that is never superseded
+     * @param work the background work (must not touch Swing components)
+     * @param onSuccess called on the EDT with the result
+     * @param onFailure called on the EDT with the error
+     */
+    public <T> void submit(String key, Work<T> work, Callback<T> onSuccess, Callback<Exception> onFailure) {
+        checkEventDispatchThread();
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return work.call();
+            }
+            
+            @Override
+            protected void done() {
+                taskFinished();
+                if (key != null) {
+                    if (latestByKey.get(key) != this) {
+                        return; // superseded by a newer task
+                    }
+                    latestByKey.remove(key);
+                }
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    onSuccess.accept(get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    onFailure.accept(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        
+        if (key != null) {
+            SwingWorker<?, ?> previous = latestByKey.put(key, worker);
+            if (previous != null) {
+                // JDBC calls rarely react to interrupts; the result is discarded either way
+                previous.cancel(true);
+            }
+        }
+        taskStarted();
+        executor.execute(worker);
+    }
+    
+    /**
+     * Check if a task with the given key is still outstanding
+     */
+    public boolean isRunning(String key) {
+        checkEventDispatchThread();
+        return latestByKey.containsKey(key);
+    }
+    
+    /**
+     * Cancel every keyed task and discard its result
+     */
+    public void cancelAll() {
+        checkEventDispatchThread();
+        for (SwingWorker<?, ?> worker : latestByKey.values()) {
+            worker.cancel(true);
+        }
+        latestByKey.clear();
+    }
+    
+    public void shutdown() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+    
+    private void taskStarted() {
+        outstanding++;
+        progressBar.setVisible(true);
+    }
+    
+    private void taskFinished() {
+        outstanding--;
+        if (outstanding == 0) {
+            progressBar.setVisible(false);
+        }
+    }
+    
+    private static void checkEventDispatchThread() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("SwingTaskRunner must be used on the Event Dispatch Thread");
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.hotel.ui;
 
+import com.hotel.exceptions.LoginThrottledException;
 import com.hotel.models.User;
 import com.hotel.services.AuthenticationService;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Unified Login Form for the Hotel Management System
@@ -164,10 +166,29 @@ public class UnifiedLoginForm extends JFrame {
             return;
         }
         
-        // Authenticate user
-        User user = AuthenticationService.authenticate(username, password);
-        
+        // Verify on the authentication service's worker threads; hashing takes a noticeable moment
+        loginButton.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        AuthenticationService.authenticateAsync(username, password).whenComplete((user, error) ->
+            SwingUtilities.invokeLater(() -> {
+                loginButton.setEnabled(true);
+                setCursor(Cursor.getDefaultCursor());
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    System.err.println("Authentication error: " + cause.getMessage());
+                    if (cause instanceof LoginThrottledException || cause instanceof RejectedExecutionException) {
+                        // Not a wrong password, so it doesn't count as a failed attempt
+                        JOptionPane.showMessageDialog(this, cause.getMessage(), "Login Failed", JOptionPane.WARNING_MESSAGE);
+                        return;
+                    }
+                }
+                handleLoginResult(user);
+            }));
+    }
+    
+    private void handleLoginResult(User user) {
         if (user != null) {
+            AuthenticationService.setCurrentUser(user);
             JOptionPane.showMessageDialog(this, 
                 "Login successful! Welcome, " + user.getFullName(), 
                 "Success", 
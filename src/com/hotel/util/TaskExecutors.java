@@ -0,0 +1,56 @@
+package com.hotel.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for tasks that spend most of their time blocked, such as JDBC calls
+ * On Java 21 and later every task gets its own virtual thread, so thousands of
+ * them cost little. Older runtimes fall back to a fixed pool of daemon threads.
+ * The virtual-thread factory is looked up reflectively, so this compiles on Java 17.
+ */
+public final class TaskExecutors {
+    
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+    
+    private TaskExecutors() {
+    }
+    
+    /**
+     * @return true if tasks will run on virtual threads
+     */
+    public static boolean virtualThreadsAvailable() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+    
+    /**
+     * Executor for blocking tasks
+     * @param name prefix for the fallback pool's thread names
+     * @param fallbackThreads size of the fallback pool when virtual threads are unavailable
+     */
+    public static ExecutorService newBlockingTaskExecutor(String name, int fallbackThreads) {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Virtual threads unavailable, using a thread pool: " + e.getMessage());
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(fallbackThreads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    private static Method findVirtualThreadExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}